@@ -0,0 +1,117 @@
+package com.nikhil.ecommerce_backend.config;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.task.ThreadPoolTaskExecutorBuilder;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.core.task.AsyncTaskExecutor;
+import org.springframework.core.task.SimpleAsyncTaskExecutor;
+import org.springframework.scheduling.annotation.EnableAsync;
+import org.springframework.scheduling.concurrent.ThreadPoolTaskExecutor;
+
+import java.util.concurrent.RejectedExecutionHandler;
+import java.util.concurrent.ThreadPoolExecutor;
+
+/**
+ * Separate executors for work that talks to different downstreams, so a slow SMTP server or a burst of
+ * image uploads cannot hold the threads other background work needs. Each one is bounded and exposes
+ * {@code app.executor.*} meters tagged with its name. With {@code app.executors.virtual-threads} the
+ * pools become virtual thread executors capped at the same concurrency.
+ */
+@Configuration
+@EnableAsync
+public class AsyncConfig {
+
+    private final MeterRegistry meterRegistry;
+    private final boolean virtualThreads;
+
+    public AsyncConfig(MeterRegistry meterRegistry,
+                       @Value("${app.executors.virtual-threads}") boolean virtualThreads) {
+        this.meterRegistry = meterRegistry;
+        this.virtualThreads = virtualThreads;
+    }
+
+    /**
+     * Default pool for {@code @Async} methods. Declared explicitly because any other executor bean
+     * switches off the one Spring Boot would otherwise auto-configure. Sized and bounded through
+     * {@code spring.task.execution.pool.*}; when the queue is full the caller runs the task itself.
+     */
+    @Bean(name = {"taskExecutor", "applicationTaskExecutor"})
+    public ThreadPoolTaskExecutor taskExecutor(ThreadPoolTaskExecutorBuilder builder) {
+        ThreadPoolTaskExecutor executor = builder.build();
+        executor.setRejectedExecutionHandler(new ThreadPoolExecutor.CallerRunsPolicy());
+        return executor;
+    }
+
+    /**
+     * Runs outbox drains. At most one drain is queued behind the running one, further wake-ups are dropped.
+     */
+    @Bean
+    public AsyncTaskExecutor mailExecutor(@Value("${app.executors.mail.pool-size}") int poolSize,
+                                          @Value("${app.executors.mail.queue-capacity}") int queueCapacity) {
+        return boundedExecutor("mail", poolSize, queueCapacity, new ThreadPoolExecutor.DiscardPolicy());
+    }
+
+    /**
+     * When the queue is full the publishing thread resizes the image itself.
+     */
+    @Bean
+    public AsyncTaskExecutor imageProcessingExecutor(@Value("${app.executors.image.pool-size}") int poolSize,
+                                                     @Value("${app.executors.image.queue-capacity}") int queueCapacity) {
+        return boundedExecutor("image", poolSize, queueCapacity, new ThreadPoolExecutor.CallerRunsPolicy());
+    }
+
+    /**
+     * When the queue is full the publishing thread updates the index itself.
+     */
+    @Bean
+    public AsyncTaskExecutor searchIndexExecutor(@Value("${app.executors.search.pool-size}") int poolSize,
+                                                 @Value("${app.executors.search.queue-capacity}") int queueCapacity) {
+        return boundedExecutor("search", poolSize, queueCapacity, new ThreadPoolExecutor.CallerRunsPolicy());
+    }
+
+    /**
+     * Runs the listeners that follow a placed order. When the queue is full the checkout thread runs the
+     * listener itself rather than dropping the event.
+     */
+    @Bean
+    public AsyncTaskExecutor orderEventExecutor(@Value("${app.executors.order.pool-size}") int poolSize,
+                                                @Value("${app.executors.order.queue-capacity}") int queueCapacity) {
+        return boundedExecutor("order", poolSize, queueCapacity, new ThreadPoolExecutor.CallerRunsPolicy());
+    }
+
+    /**
+     * Moves stock between MySQL and the hot SKU leases. One drain runs at a time and at most one more is
+     * queued; the inventory flush wakes it again if a wake-up was dropped.
+     */
+    @Bean
+    public AsyncTaskExecutor inventoryExecutor(@Value("${app.executors.inventory.pool-size}") int poolSize,
+                                               @Value("${app.executors.inventory.queue-capacity}") int queueCapacity) {
+        return boundedExecutor("inventory", poolSize, queueCapacity, new ThreadPoolExecutor.DiscardPolicy());
+    }
+
+    private AsyncTaskExecutor boundedExecutor(String name, int poolSize, int queueCapacity,
+                                              RejectedExecutionHandler rejectionPolicy) {
+        MeteredTaskDecorator decorator = new MeteredTaskDecorator(name, meterRegistry);
+        if (virtualThreads) {
+            // Blocks the submitter once the limit is reached instead of queueing without bound
+            SimpleAsyncTaskExecutor executor = new SimpleAsyncTaskExecutor(name + "-");
+            executor.setVirtualThreads(true);
+            executor.setConcurrencyLimit(poolSize);
+            executor.setTaskDecorator(decorator);
+            executor.setTaskTerminationTimeout(30_000);
+            return executor;
+        }
+        ThreadPoolTaskExecutor executor = new ThreadPoolTaskExecutor();
+        executor.setCorePoolSize(poolSize);
+        executor.setMaxPoolSize(poolSize);
+        executor.setQueueCapacity(queueCapacity);
+        executor.setThreadNamePrefix(name + "-");
+        executor.setRejectedExecutionHandler(decorator.onRejection(rejectionPolicy));
+        executor.setTaskDecorator(decorator);
+        executor.setWaitForTasksToCompleteOnShutdown(true);
+        executor.setAwaitTerminationSeconds(30);
+        return executor;
+    }
+}
@@ -2,6 +2,8 @@ package com.nikhil.ecommerce_backend.config;
 
 import com.github.benmanes.caffeine.cache.Caffeine;
 import com.github.benmanes.caffeine.cache.Expiry;
+import com.nikhil.ecommerce_backend.services.common.ProductViewCache;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.cache.CacheManager;
 import org.springframework.cache.annotation.EnableCaching;
 import org.springframework.cache.caffeine.CaffeineCacheManager;
@@ -39,9 +41,16 @@ public class CacheConfig {
     }
 
     @Bean
-    public CacheManager cacheManager(Caffeine<Object, LocalDateTime> caffeine) {
+    public CacheManager cacheManager(Caffeine<Object, LocalDateTime> caffeine,
+                                     @Value("${app.cache.product-views.max-size}") long productViewsMaxSize,
+                                     @Value("${app.cache.product-views.ttl-minutes}") long productViewsTtlMinutes) {
         CaffeineCacheManager cacheManager = new CaffeineCacheManager("blacklistedTokens");
         cacheManager.setCaffeine((Caffeine)caffeine);
+        cacheManager.registerCustomCache(ProductViewCache.CACHE_NAME, Caffeine.newBuilder()
+                .maximumSize(productViewsMaxSize)
+                .expireAfterWrite(Duration.ofMinutes(productViewsTtlMinutes))
+                .recordStats()
+                .build());
         return cacheManager;
     }
 }
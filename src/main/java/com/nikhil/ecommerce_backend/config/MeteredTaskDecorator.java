@@ -0,0 +1,83 @@
+package com.nikhil.ecommerce_backend.config;
+
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import org.springframework.core.task.TaskDecorator;
+
+import java.util.concurrent.RejectedExecutionHandler;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Records, per named executor, how many tasks wait and run and how long they spend queued and running.
+ * Works the same for pooled and virtual thread executors. A task counts as queued from submission until
+ * it starts or, for a pool, until {@link #onRejection} sees it dropped.
+ */
+class MeteredTaskDecorator implements TaskDecorator {
+
+    private final AtomicInteger queued = new AtomicInteger();
+    private final AtomicInteger active = new AtomicInteger();
+    private final Timer waitTimer;
+    private final Timer runTimer;
+
+    MeteredTaskDecorator(String name, MeterRegistry meterRegistry) {
+        Gauge.builder("app.executor.queued", queued, AtomicInteger::get).tag("name", name).register(meterRegistry);
+        Gauge.builder("app.executor.active", active, AtomicInteger::get).tag("name", name).register(meterRegistry);
+        this.waitTimer = Timer.builder("app.executor.task.wait").tag("name", name).register(meterRegistry);
+        this.runTimer = Timer.builder("app.executor.task.duration").tag("name", name).register(meterRegistry);
+    }
+
+    @Override
+    public Runnable decorate(Runnable task) {
+        queued.incrementAndGet();
+        return new MeteredTask(task);
+    }
+
+    /**
+     * Wraps the pool's rejection policy so a task it discards or aborts leaves the queued gauge. A task the
+     * policy runs on the caller has already left it when it started.
+     */
+    RejectedExecutionHandler onRejection(RejectedExecutionHandler policy) {
+        return (task, executor) -> {
+            try {
+                policy.rejectedExecution(task, executor);
+            } finally {
+                if (task instanceof MeteredTask metered) {
+                    metered.leaveQueue();
+                }
+            }
+        };
+    }
+
+    private final class MeteredTask implements Runnable {
+        private final Runnable task;
+        private final long submitted = System.nanoTime();
+        private final AtomicBoolean dequeued = new AtomicBoolean();
+
+        private MeteredTask(Runnable task) {
+            this.task = task;
+        }
+
+        private void leaveQueue() {
+            if (dequeued.compareAndSet(false, true)) {
+                queued.decrementAndGet();
+            }
+        }
+
+        @Override
+        public void run() {
+            long started = System.nanoTime();
+            leaveQueue();
+            active.incrementAndGet();
+            waitTimer.record(started - submitted, TimeUnit.NANOSECONDS);
+            try {
+                task.run();
+            } finally {
+                active.decrementAndGet();
+                runTimer.record(System.nanoTime() - started, TimeUnit.NANOSECONDS);
+            }
+        }
+    }
+}
@@ -0,0 +1,8 @@
+package com.nikhil.ecommerce_backend.constants;
+
+public enum EmailOutboxStatus
+{
+    PENDING,
+    SENT,
+    FAILED
+}
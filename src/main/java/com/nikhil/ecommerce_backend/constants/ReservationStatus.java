@@ -0,0 +1,8 @@
+package com.nikhil.ecommerce_backend.constants;
+
+public enum ReservationStatus
+{
+    RESERVED,
+    COMMITTED,
+    RELEASED
+}
@@ -4,8 +4,13 @@ import com.fasterxml.jackson.core.JsonProcessingException;
 import com.fasterxml.jackson.databind.ObjectMapper;
 import com.nikhil.ecommerce_backend.dto.customer.*;
 import com.nikhil.ecommerce_backend.dto.general.ApiResponse;
+import com.nikhil.ecommerce_backend.dto.general.OrderItemScrollResponse;
 import com.nikhil.ecommerce_backend.dto.general.UpdatePasswordRequest;
+import com.nikhil.ecommerce_backend.services.cart.CartService;
 import com.nikhil.ecommerce_backend.services.customer.CustomerService;
+import com.nikhil.ecommerce_backend.services.order.OrderService;
+import com.nikhil.ecommerce_backend.services.order.OrderStatusService;
+import com.nikhil.ecommerce_backend.services.review.ReviewService;
 import io.swagger.v3.oas.annotations.tags.Tag;
 import jakarta.validation.Valid;
 import lombok.RequiredArgsConstructor;
@@ -32,6 +37,10 @@ import java.util.Locale;
 public class CustomerController {
 
     private final CustomerService customerService;
+    private final CartService cartService;
+    private final OrderService orderService;
+    private final OrderStatusService orderStatusService;
+    private final ReviewService reviewService;
     private final MessageSource messageSource;
 
 
@@ -132,7 +141,7 @@ public class CustomerController {
             @RequestParam(required = false) String query,
             @RequestParam(defaultValue = "10") int max,
             @RequestParam(defaultValue = "0") int offset,
-            @RequestParam(defaultValue = "id") String sort,
+            @RequestParam(required = false) String sort,
             @RequestParam(defaultValue = "asc") String order) {
 
         Page<CustomerProductList> products = customerService.getAllProductsByCategory(
@@ -141,6 +150,29 @@ public class CustomerController {
         return ResponseEntity.ok(products);
     }
 
+    @GetMapping("/products/scroll")
+    public ResponseEntity<ProductScrollResponse> scrollProducts(
+            @RequestParam("categoryId") Long categoryId,
+            @RequestParam(required = false) String query,
+            @RequestParam(defaultValue = "10") int max,
+            @RequestParam(defaultValue = "id") String sort,
+            @RequestParam(defaultValue = "asc") String order,
+            @RequestParam(required = false) String cursor) {
+
+        ProductScrollResponse products = customerService.scrollProductsByCategory(
+                categoryId, query, max, sort, order, cursor);
+
+        return ResponseEntity.ok(products);
+    }
+
+    @GetMapping("/products/suggest")
+    public ResponseEntity<List<String>> suggestProducts(
+            @RequestParam("prefix") String prefix,
+            @RequestParam(defaultValue = "10") int max) {
+
+        return ResponseEntity.ok(customerService.suggestProducts(prefix, max));
+    }
+
     @GetMapping("/products/similar")
     public ResponseEntity<Page<CustomerProductList>> viewSimilarProducts(
             @RequestParam("productId") Long productId,
@@ -155,4 +187,110 @@ public class CustomerController {
         return ResponseEntity.ok(similarProducts);
     }
 
+    @GetMapping("/cart/view")
+    public ResponseEntity<CartResponse> viewMyCart(@AuthenticationPrincipal UserDetails userDetails) {
+        return ResponseEntity.ok(cartService.getCart(userDetails.getUsername()));
+    }
+
+    @PostMapping("/cart/add")
+    public ResponseEntity<ApiResponse> addToMyCart(
+            @AuthenticationPrincipal UserDetails userDetails,
+            @Valid @RequestBody AddToCartRequest request, Locale locale) {
+        String message = cartService.addToCart(userDetails.getUsername(), request);
+        return ResponseEntity.ok(buildResponse(message, locale, HttpStatus.OK));
+    }
+
+    @PatchMapping("/cart/update")
+    public ResponseEntity<ApiResponse> updateMyCartItem(
+            @AuthenticationPrincipal UserDetails userDetails,
+            @RequestParam("variationId") Long variationId,
+            @RequestParam("quantity") Integer quantity,
+            Locale locale) {
+        String message = cartService.updateCartItem(userDetails.getUsername(), variationId, quantity);
+        return ResponseEntity.ok(buildResponse(message, locale, HttpStatus.OK));
+    }
+
+    @DeleteMapping("/cart/remove")
+    public ResponseEntity<ApiResponse> removeFromMyCart(
+            @AuthenticationPrincipal UserDetails userDetails,
+            @RequestParam("variationId") Long variationId,
+            Locale locale) {
+        String message = cartService.removeFromCart(userDetails.getUsername(), variationId);
+        return ResponseEntity.ok(buildResponse(message, locale, HttpStatus.OK));
+    }
+
+    @DeleteMapping("/cart/clear")
+    public ResponseEntity<ApiResponse> clearMyCart(@AuthenticationPrincipal UserDetails userDetails, Locale locale) {
+        String message = cartService.clearCart(userDetails.getUsername());
+        return ResponseEntity.ok(buildResponse(message, locale, HttpStatus.OK));
+    }
+
+    @PostMapping("/orders/place")
+    public ResponseEntity<PlaceOrderResponse> placeOrder(
+            @AuthenticationPrincipal UserDetails userDetails,
+            @RequestHeader("Idempotency-Key") String idempotencyKey,
+            @Valid @RequestBody PlaceOrderRequest request, Locale locale) {
+        return ResponseEntity.ok(orderService.placeOrder(userDetails.getUsername(), idempotencyKey, request, locale));
+    }
+
+    @GetMapping("/orders/view")
+    public ResponseEntity<OrderItemScrollResponse> viewMyOrders(
+            @AuthenticationPrincipal UserDetails userDetails,
+            @RequestParam(defaultValue = "10") int max,
+            @RequestParam(required = false) String cursor) {
+        return ResponseEntity.ok(orderStatusService.getCustomerOrderItems(userDetails.getUsername(), max, cursor));
+    }
+
+    @PatchMapping("/orders/cancel")
+    public ResponseEntity<ApiResponse> cancelMyOrderItem(
+            @AuthenticationPrincipal UserDetails userDetails,
+            @RequestParam("orderProductId") Long orderProductId,
+            Locale locale) {
+        String message = orderStatusService.cancelOrderItem(userDetails.getUsername(), orderProductId);
+        return ResponseEntity.ok(buildResponse(message, locale, HttpStatus.OK));
+    }
+
+    @PatchMapping("/orders/return")
+    public ResponseEntity<ApiResponse> returnMyOrderItem(
+            @AuthenticationPrincipal UserDetails userDetails,
+            @RequestParam("orderProductId") Long orderProductId,
+            Locale locale) {
+        String message = orderStatusService.requestReturn(userDetails.getUsername(), orderProductId);
+        return ResponseEntity.ok(buildResponse(message, locale, HttpStatus.OK));
+    }
+
+    @GetMapping("/products/reviews")
+    public ResponseEntity<ReviewScrollResponse> viewProductReviews(
+            @RequestParam("productId") Long productId,
+            @RequestParam(defaultValue = "10") int max,
+            @RequestParam(required = false) String cursor) {
+        return ResponseEntity.ok(reviewService.getProductReviews(productId, max, cursor));
+    }
+
+    @PostMapping("/reviews/add")
+    public ResponseEntity<ApiResponse> addReview(
+            @AuthenticationPrincipal UserDetails userDetails,
+            @Valid @RequestBody AddReviewRequest request, Locale locale) {
+        String message = reviewService.addReview(userDetails.getUsername(), request);
+        return ResponseEntity.ok(buildResponse(message, locale, HttpStatus.OK));
+    }
+
+    @PatchMapping("/reviews/update")
+    public ResponseEntity<ApiResponse> updateReview(
+            @AuthenticationPrincipal UserDetails userDetails,
+            @RequestParam("reviewId") Long reviewId,
+            @Valid @RequestBody UpdateReviewRequest request, Locale locale) {
+        String message = reviewService.updateReview(userDetails.getUsername(), reviewId, request);
+        return ResponseEntity.ok(buildResponse(message, locale, HttpStatus.OK));
+    }
+
+    @DeleteMapping("/reviews/delete")
+    public ResponseEntity<ApiResponse> deleteReview(
+            @AuthenticationPrincipal UserDetails userDetails,
+            @RequestParam("reviewId") Long reviewId,
+            Locale locale) {
+        String message = reviewService.deleteReview(userDetails.getUsername(), reviewId);
+        return ResponseEntity.ok(buildResponse(message, locale, HttpStatus.OK));
+    }
+
 }
@@ -0,0 +1,28 @@
+package com.nikhil.ecommerce_backend.controllers;
+
+import com.nikhil.ecommerce_backend.services.common.ImageDeliveryService;
+import io.swagger.v3.oas.annotations.tags.Tag;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import lombok.RequiredArgsConstructor;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.PathVariable;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RestController;
+
+import java.io.IOException;
+
+@RestController
+@RequestMapping("/uploads")
+@RequiredArgsConstructor
+@Tag(name = "ImageController", description = "Serves uploaded product and user images")
+public class ImageController {
+
+    private final ImageDeliveryService imageDeliveryService;
+
+    @GetMapping("/{*path}")
+    public void getImage(@PathVariable String path, HttpServletRequest request, HttpServletResponse response)
+            throws IOException {
+        imageDeliveryService.serve(path.substring(1), request, response);
+    }
+}
@@ -1,15 +1,21 @@
 package com.nikhil.ecommerce_backend.controllers;
+import com.nikhil.ecommerce_backend.constants.Status;
 import com.nikhil.ecommerce_backend.dto.seller.ProductVariationResponse;
 import com.nikhil.ecommerce_backend.dto.seller.ProductResponse;
 import com.nikhil.ecommerce_backend.dto.general.ApiResponse;
+import com.nikhil.ecommerce_backend.dto.general.OrderItemScrollResponse;
 import com.nikhil.ecommerce_backend.dto.seller.*;
 import com.nikhil.ecommerce_backend.dto.general.UpdatePasswordRequest;
+import com.nikhil.ecommerce_backend.services.seller.ProductImportService;
+import com.nikhil.ecommerce_backend.services.order.OrderStatusService;
 import com.nikhil.ecommerce_backend.services.seller.SellerService;
 import io.swagger.v3.oas.annotations.tags.Tag;
+import jakarta.servlet.http.HttpServletRequest;
 import jakarta.validation.Valid;
 import lombok.RequiredArgsConstructor;
 import org.springframework.context.MessageSource;
 import org.springframework.data.domain.Page;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
@@ -18,6 +24,7 @@ import org.springframework.security.core.annotation.AuthenticationPrincipal;
 import org.springframework.security.core.userdetails.UserDetails;
 import org.springframework.web.bind.annotation.*;
 import org.springframework.web.multipart.MultipartFile;
+import java.io.IOException;
 import java.time.LocalDateTime;
 import java.util.List;
 import java.util.Locale;
@@ -30,6 +37,8 @@ import java.util.Locale;
 public class SellerController {
 
     private final SellerService sellerService;
+    private final ProductImportService productImportService;
+    private final OrderStatusService orderStatusService;
     private final MessageSource messageSource;
 
     private ApiResponse buildResponse(String message, Locale locale, HttpStatus status) {
@@ -104,6 +113,19 @@ public class SellerController {
         return ResponseEntity.ok(buildResponse(messageKey, locale, HttpStatus.OK));
 
     }
+    @PostMapping(value = "/products/import", consumes = {"text/csv", "application/x-ndjson"})
+    public ResponseEntity<ProductImportResponse> importProducts(
+            @AuthenticationPrincipal UserDetails userDetails,
+            @RequestHeader(HttpHeaders.CONTENT_TYPE) String contentType,
+            HttpServletRequest request,
+            Locale locale) throws IOException {
+
+        ProductImportResponse response = productImportService.importProducts(
+                userDetails.getUsername(), request.getInputStream(), contentType, locale);
+
+        return ResponseEntity.ok(response);
+    }
+
     @PostMapping(value = "/products/add-variations", consumes = MediaType.MULTIPART_FORM_DATA_VALUE)
     public ResponseEntity<ApiResponse> addProductVariation(
             @AuthenticationPrincipal UserDetails userDetails,
@@ -142,7 +164,7 @@ public class SellerController {
             @RequestParam(required = false) String query,
             @RequestParam(defaultValue = "10") int max,
             @RequestParam(defaultValue = "0") int offset,
-            @RequestParam(defaultValue = "id") String sort,
+            @RequestParam(required = false) String sort,
             @RequestParam(defaultValue = "asc") String order) {
 
         Page<ProductResponse> products = sellerService.getAllProductsForSeller(
@@ -202,4 +224,24 @@ public class SellerController {
 
         return ResponseEntity.ok(buildResponse(messageKey, locale, HttpStatus.OK));
     }
+
+    @GetMapping("/orders/view")
+    public ResponseEntity<OrderItemScrollResponse> viewMyOrders(
+            @AuthenticationPrincipal UserDetails userDetails,
+            @RequestParam(required = false) Status status,
+            @RequestParam(defaultValue = "10") int max,
+            @RequestParam(required = false) String cursor) {
+        return ResponseEntity.ok(orderStatusService.getSellerOrderItems(userDetails.getUsername(), status, max, cursor));
+    }
+
+    @PatchMapping("/orders/update-status")
+    public ResponseEntity<ApiResponse> updateOrderItemStatus(
+            @AuthenticationPrincipal UserDetails userDetails,
+            @RequestParam("orderProductId") Long orderProductId,
+            @Valid @RequestBody UpdateOrderStatusRequest request,
+            Locale locale) {
+        String message = orderStatusService.updateOrderItemStatus(userDetails.getUsername(), orderProductId, request);
+        return ResponseEntity.ok(buildResponse(message, locale, HttpStatus.OK));
+    }
+
 }
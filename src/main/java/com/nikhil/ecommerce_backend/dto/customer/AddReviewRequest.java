@@ -0,0 +1,19 @@
+package com.nikhil.ecommerce_backend.dto.customer;
+
+import jakarta.validation.constraints.Max;
+import jakarta.validation.constraints.Min;
+import jakarta.validation.constraints.NotNull;
+import jakarta.validation.constraints.Size;
+import lombok.Data;
+
+@Data
+public class AddReviewRequest {
+    @NotNull
+    private Long productId;
+    @NotNull
+    @Min(1)
+    @Max(5)
+    private Integer rating;
+    @Size(max = 255)
+    private String review;
+}
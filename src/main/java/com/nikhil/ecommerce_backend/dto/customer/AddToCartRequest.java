@@ -0,0 +1,14 @@
+package com.nikhil.ecommerce_backend.dto.customer;
+
+import jakarta.validation.constraints.NotNull;
+import jakarta.validation.constraints.Positive;
+import lombok.Data;
+
+@Data
+public class AddToCartRequest {
+    @NotNull
+    private Long variationId;
+    @NotNull
+    @Positive
+    private Integer quantity;
+}
@@ -0,0 +1,29 @@
+package com.nikhil.ecommerce_backend.dto.customer;
+
+import lombok.Builder;
+import lombok.Getter;
+
+import java.util.List;
+import java.util.Map;
+
+@Getter
+@Builder
+public class CartResponse {
+    private List<Item> items;
+    private Double totalPrice;
+
+    @Getter
+    @Builder
+    public static class Item {
+        private Long variationId;
+        private Long productId;
+        private String productName;
+        private String brand;
+        private Map<String, Object> metadata;
+        private String imageUrl;
+        private Double price;
+        private Integer quantity;
+        private Double lineTotal;
+        private boolean inStock;
+    }
+}
@@ -11,6 +11,7 @@ public class CustomerProductList {
     private String name;
     private String brand;
     private Category category;
+    private RatingView ratings;
     private List<CustomerProductView.Variation> variations;
 
     @Getter
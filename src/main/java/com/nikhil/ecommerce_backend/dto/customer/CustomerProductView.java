@@ -12,6 +12,7 @@ public class CustomerProductView {
     private String description;
     private String brand;
     private Category category;
+    private RatingView ratings;
     private List<Variation> variations;
 
     @Getter
@@ -0,0 +1,13 @@
+package com.nikhil.ecommerce_backend.dto.customer;
+
+import com.nikhil.ecommerce_backend.constants.PaymentMode;
+import jakarta.validation.constraints.NotNull;
+import lombok.Data;
+
+@Data
+public class PlaceOrderRequest {
+    @NotNull
+    private Long addressId;
+    @NotNull
+    private PaymentMode paymentMethod;
+}
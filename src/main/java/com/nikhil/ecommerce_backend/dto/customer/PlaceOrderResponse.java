@@ -0,0 +1,16 @@
+package com.nikhil.ecommerce_backend.dto.customer;
+
+import com.nikhil.ecommerce_backend.constants.PaymentMode;
+import lombok.Builder;
+import lombok.Getter;
+
+import java.time.LocalDateTime;
+
+@Getter
+@Builder
+public class PlaceOrderResponse {
+    private Long orderId;
+    private Double amountPaid;
+    private PaymentMode paymentMethod;
+    private LocalDateTime placedAt;
+}
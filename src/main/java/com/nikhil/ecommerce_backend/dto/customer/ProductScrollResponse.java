@@ -0,0 +1,14 @@
+package com.nikhil.ecommerce_backend.dto.customer;
+
+import lombok.Builder;
+import lombok.Getter;
+
+import java.util.List;
+
+@Getter
+@Builder
+public class ProductScrollResponse {
+    private List<CustomerProductList> content;
+    private String nextCursor;
+    private boolean hasNext;
+}
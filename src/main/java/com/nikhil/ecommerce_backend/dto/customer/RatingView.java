@@ -0,0 +1,14 @@
+package com.nikhil.ecommerce_backend.dto.customer;
+
+import lombok.Builder;
+import lombok.Getter;
+
+import java.util.Map;
+
+@Getter
+@Builder
+public class RatingView {
+    private Double average;
+    private int count;
+    private Map<Integer, Integer> histogram;
+}
@@ -0,0 +1,25 @@
+package com.nikhil.ecommerce_backend.dto.customer;
+
+import lombok.Builder;
+import lombok.Getter;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+@Getter
+@Builder
+public class ReviewScrollResponse {
+    private List<Review> content;
+    private String nextCursor;
+    private boolean hasNext;
+
+    @Getter
+    @Builder
+    public static class Review {
+        private Long id;
+        private int rating;
+        private String review;
+        private String reviewerName;
+        private LocalDateTime createdAt;
+    }
+}
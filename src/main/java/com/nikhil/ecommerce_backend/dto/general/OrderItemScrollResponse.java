@@ -0,0 +1,14 @@
+package com.nikhil.ecommerce_backend.dto.general;
+
+import lombok.Builder;
+import lombok.Getter;
+
+import java.util.List;
+
+@Getter
+@Builder
+public class OrderItemScrollResponse {
+    private List<OrderItemView> content;
+    private String nextCursor;
+    private boolean hasNext;
+}
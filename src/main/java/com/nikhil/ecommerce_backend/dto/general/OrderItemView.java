@@ -0,0 +1,20 @@
+package com.nikhil.ecommerce_backend.dto.general;
+
+import com.nikhil.ecommerce_backend.constants.Status;
+import lombok.Builder;
+import lombok.Getter;
+
+import java.time.LocalDateTime;
+
+@Getter
+@Builder
+public class OrderItemView {
+    private Long orderId;
+    private Long orderProductId;
+    private Long variationId;
+    private String productName;
+    private Integer quantity;
+    private Double price;
+    private Status status;
+    private LocalDateTime statusUpdatedAt;
+}
@@ -0,0 +1,26 @@
+package com.nikhil.ecommerce_backend.dto.seller;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Getter;
+
+import java.util.List;
+
+@Getter
+@Builder
+public class ProductImportResponse {
+    private long totalRows;
+    private long importedRows;
+    private long failedRows;
+    private long importedProducts;
+    private List<RowResult> rows;
+
+    @Getter
+    @AllArgsConstructor
+    public static class RowResult {
+        private long row;
+        private boolean success;
+        private Long productId;
+        private String message;
+    }
+}
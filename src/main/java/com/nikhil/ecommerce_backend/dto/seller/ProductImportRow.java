@@ -0,0 +1,28 @@
+package com.nikhil.ecommerce_backend.dto.seller;
+
+import lombok.Data;
+
+import java.util.Map;
+
+/**
+ * One line of a bulk import. Consecutive rows with the same name, brand and category describe the same
+ * product. A row carrying price, quantity or metadata also adds a variation to that product; it needs all
+ * three, and the metadata must match the category's schema and the keys of the product's first variation.
+ * Imported variations are inactive and have no images until the seller adds them.
+ */
+@Data
+public class ProductImportRow {
+    private String name;
+    private String brand;
+    private Long categoryId;
+    private String description;
+    private Boolean isCancellable;
+    private Boolean isReturnable;
+    private Double price;
+    private Integer quantityAvailable;
+    private Map<String, String> metadata;
+
+    public boolean hasVariation() {
+        return price != null || quantityAvailable != null || (metadata != null && !metadata.isEmpty());
+    }
+}
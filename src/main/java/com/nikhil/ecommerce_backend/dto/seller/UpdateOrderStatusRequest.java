@@ -0,0 +1,14 @@
+package com.nikhil.ecommerce_backend.dto.seller;
+
+import com.nikhil.ecommerce_backend.constants.Status;
+import jakarta.validation.constraints.NotNull;
+import jakarta.validation.constraints.Size;
+import lombok.Data;
+
+@Data
+public class UpdateOrderStatusRequest {
+    @NotNull
+    private Status status;
+    @Size(max = 255)
+    private String notes;
+}
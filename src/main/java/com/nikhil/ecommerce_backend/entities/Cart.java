@@ -1,28 +1,33 @@
 package com.nikhil.ecommerce_backend.entities;
 
 import jakarta.persistence.Entity;
+import jakarta.persistence.FetchType;
 import jakarta.persistence.JoinColumn;
 import jakarta.persistence.ManyToOne;
-import jakarta.persistence.OneToOne;
+import jakarta.persistence.Table;
+import jakarta.persistence.UniqueConstraint;
 import lombok.AllArgsConstructor;
 import lombok.Getter;
 import lombok.NoArgsConstructor;
 import lombok.Setter;
 
 @Entity
+@Table(name = "cart", uniqueConstraints = {
+        @UniqueConstraint(name = "uk_cart_customer_variation", columnNames = {"customer_user_id", "product_variation_id", "is_wishlist_item"})
+})
 @Getter
 @Setter
 @NoArgsConstructor
 @AllArgsConstructor
 public class Cart extends BaseEntity {
 
-    @OneToOne
+    @ManyToOne(fetch = FetchType.LAZY)
     @JoinColumn(name = "customer_user_id", nullable = false)
     private Customer customer;
 
     private Integer quantity;
 
-    @ManyToOne
+    @ManyToOne(fetch = FetchType.LAZY)
     @JoinColumn(name = "product_variation_id", nullable = false)
     private ProductVariation productVariation;
 
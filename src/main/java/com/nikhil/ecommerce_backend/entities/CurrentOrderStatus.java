@@ -0,0 +1,65 @@
+package com.nikhil.ecommerce_backend.entities;
+
+import com.nikhil.ecommerce_backend.constants.Status;
+import jakarta.persistence.*;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+
+import java.time.LocalDateTime;
+
+/**
+ * Latest status of each {@link OrderProduct}, kept next to the append-only {@link OrderStatus} log and moved
+ * forward with every transition. It carries the customer, seller and item details order listings show, so
+ * they read one row per item without joins or replaying the log.
+ */
+@Entity
+@Table(name = "current_order_status", indexes = {
+        @Index(name = "idx_current_status_customer", columnList = "customer_id, id"),
+        @Index(name = "idx_current_status_seller", columnList = "seller_id, status, id")
+})
+@Getter
+@Setter
+@NoArgsConstructor
+public class CurrentOrderStatus extends BaseEntity
+{
+    @OneToOne(fetch = FetchType.LAZY)
+    @JoinColumn(name = "order_product_id", nullable = false, unique = true)
+    private OrderProduct orderProduct;
+
+    @Column(nullable = false, updatable = false)
+    private Long orderId;
+
+    @Column(nullable = false, updatable = false)
+    private Long customerId;
+
+    @Column(nullable = false, updatable = false)
+    private Long sellerId;
+
+    @Column(nullable = false, updatable = false)
+    private Long variationId;
+
+    @Column(updatable = false)
+    private String productName;
+
+    @Column(updatable = false)
+    private Integer quantity;
+
+    @Column(updatable = false)
+    private Double price;
+
+    // Copied from the product when the order is placed, so later edits to the listing do not change the terms
+    @Column(updatable = false)
+    private boolean cancellable;
+
+    @Column(updatable = false)
+    private boolean returnable;
+
+    // Only written on insert; transitions go through CurrentOrderStatusRepository#transition
+    @Enumerated(EnumType.STRING)
+    @Column(nullable = false, updatable = false, length = 32)
+    private Status status;
+
+    @Column(nullable = false, updatable = false)
+    private LocalDateTime statusUpdatedAt;
+}
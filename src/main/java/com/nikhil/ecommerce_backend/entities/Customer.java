@@ -25,8 +25,8 @@ public class Customer extends User
     @OneToMany(mappedBy = "customer")
     private Set<ProductReview> reviews;
 
-    @OneToOne(mappedBy = "customer")
-    private Cart cart;
+    @OneToMany(mappedBy = "customer")
+    private List<Cart> cartItems = new ArrayList<>();
 
     private String imageUrl;
 
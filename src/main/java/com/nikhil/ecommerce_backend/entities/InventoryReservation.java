@@ -0,0 +1,44 @@
+package com.nikhil.ecommerce_backend.entities;
+
+import com.nikhil.ecommerce_backend.constants.ReservationStatus;
+import jakarta.persistence.*;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+
+import java.time.LocalDateTime;
+
+/**
+ * Stock held back from {@link ProductVariation#getQuantityAvailable()} until it is committed to an order,
+ * released, or expires. A {@code lease} row is a block of stock moved into a node's in-memory hot SKU pool;
+ * reservations served from that pool point back to it through {@code leaseId}.
+ */
+@Entity
+@Table(name = "inventory_reservations", indexes = {
+        @Index(name = "idx_reservation_status_expires", columnList = "status, expires_at"),
+        @Index(name = "idx_reservation_lease", columnList = "lease_id")
+})
+@Getter
+@Setter
+@NoArgsConstructor
+public class InventoryReservation extends BaseEntity
+{
+    @ManyToOne(fetch = FetchType.LAZY)
+    @JoinColumn(name = "product_variation_id", nullable = false)
+    private ProductVariation productVariation;
+
+    @Column(nullable = false)
+    private Integer quantity;
+
+    @Enumerated(EnumType.STRING)
+    @Column(nullable = false, length = 16)
+    private ReservationStatus status = ReservationStatus.RESERVED;
+
+    @Column(nullable = false)
+    private LocalDateTime expiresAt;
+
+    private boolean lease;
+
+    @Column(name = "lease_id")
+    private Long leaseId;
+}
@@ -12,17 +12,27 @@ import java.util.ArrayList;
 import java.util.List;
 
 @Entity
-@Table(name = "orders")
+@Table(name = "orders", uniqueConstraints = {
+        @UniqueConstraint(name = "uk_orders_customer_idempotency_key", columnNames = {"customer_user_id", "idempotency_key"})
+})
 @Getter
 @Setter
 @NoArgsConstructor
 @AllArgsConstructor
 public class Order extends BaseEntity
 {
-    @ManyToOne
+    @ManyToOne(fetch = FetchType.LAZY)
     @JoinColumn(name="customer_user_id")
     private Customer customer;
 
+    // Client supplied key of the checkout request, a retry with the same key returns this order
+    @Column(length = 64)
+    private String idempotencyKey;
+
+    // SHA-256 of the address and payment method the key was first used with; a replay must match it
+    @Column(length = 64)
+    private String requestHash;
+
     private Double amountPaid;
 
     @Enumerated(EnumType.STRING)
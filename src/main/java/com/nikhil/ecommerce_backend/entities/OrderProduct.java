@@ -1,17 +1,14 @@
 package com.nikhil.ecommerce_backend.entities;
 
 import jakarta.persistence.Entity;
+import jakarta.persistence.FetchType;
 import jakarta.persistence.ManyToOne;
-import jakarta.persistence.OneToMany;
 import jakarta.persistence.Table;
 import lombok.AllArgsConstructor;
 import lombok.Getter;
 import lombok.NoArgsConstructor;
 import lombok.Setter;
 
-import java.util.ArrayList;
-import java.util.List;
-
 @Entity
 @Table(name = "order_product")
 @Getter
@@ -20,16 +17,13 @@ import java.util.List;
 @AllArgsConstructor
 public class OrderProduct extends BaseEntity
 {
-    @ManyToOne
+    @ManyToOne(fetch = FetchType.LAZY)
     private Order order;
 
-    @ManyToOne
+    @ManyToOne(fetch = FetchType.LAZY)
     private ProductVariation productVariation;
 
     private Integer quantity;
 
     private Double price;
-
-    @OneToMany(mappedBy = "orderProduct")
-    private List<OrderStatus> statuses = new ArrayList<>();
 }
@@ -1,25 +1,32 @@
 package com.nikhil.ecommerce_backend.entities;
 
 
-import com.nikhil.ecommerce_backend.constants.Status;
 import com.nikhil.ecommerce_backend.constants.Status;
 import jakarta.persistence.*;
 import lombok.AllArgsConstructor;
 import lombok.Getter;
 import lombok.NoArgsConstructor;
 import lombok.Setter;
+import org.hibernate.annotations.Immutable;
 
 import java.time.LocalDateTime;
 
+/**
+ * Append-only log of status transitions. Rows are never updated; the latest status of an item is kept in
+ * {@link CurrentOrderStatus}.
+ */
 @Entity
-@Table(name = "order_status")
+@Immutable
+@Table(name = "order_status", indexes = {
+        @Index(name = "idx_order_status_order_product", columnList = "order_product_id, id")
+})
 @Getter
 @Setter
 @NoArgsConstructor
 @AllArgsConstructor
 public class OrderStatus extends BaseEntity
 {
-    @ManyToOne
+    @ManyToOne(fetch = FetchType.LAZY)
     @JoinColumn(name = "order_product_id")
     private OrderProduct orderProduct;
 
@@ -13,7 +13,10 @@ import java.util.Set;
 @Entity
 @Getter
 @Setter
-@Table(name = "products")
+@Table(name = "products", indexes = {
+        @Index(name = "idx_products_category_name", columnList = "category_id, name"),
+        @Index(name = "idx_products_category_brand", columnList = "category_id, brand")
+})
 @NoArgsConstructor
 @AllArgsConstructor
 public class Product extends BaseEntity
@@ -54,4 +57,7 @@ public class Product extends BaseEntity
 
     @OneToMany(mappedBy = "product")
     private Set<ProductReview> reviews = new HashSet<>();
+
+    @Embedded
+    private ProductRatingStats ratingStats = new ProductRatingStats();
 }
@@ -0,0 +1,61 @@
+package com.nikhil.ecommerce_backend.entities;
+
+import com.nikhil.ecommerce_backend.constants.ProductRating;
+import jakarta.persistence.Column;
+import jakarta.persistence.Embeddable;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * Number of reviews of a product per rating. The counts are only written on insert; afterwards they
+ * move through {@code ProductRepository#adjustRatings}, so saving a stale product cannot undo a review.
+ */
+@Embeddable
+@Getter
+@NoArgsConstructor
+public class ProductRatingStats
+{
+    @Column(name = "rating_one_star", nullable = false, updatable = false)
+    private int oneStar;
+
+    @Column(name = "rating_two_star", nullable = false, updatable = false)
+    private int twoStar;
+
+    @Column(name = "rating_three_star", nullable = false, updatable = false)
+    private int threeStar;
+
+    @Column(name = "rating_four_star", nullable = false, updatable = false)
+    private int fourStar;
+
+    @Column(name = "rating_five_star", nullable = false, updatable = false)
+    private int fiveStar;
+
+    public int getCount() {
+        return oneStar + twoStar + threeStar + fourStar + fiveStar;
+    }
+
+    public Double getAverage() {
+        int count = getCount();
+        if (count == 0) {
+            return null;
+        }
+        double sum = oneStar + 2.0 * twoStar + 3.0 * threeStar + 4.0 * fourStar + 5.0 * fiveStar;
+        return Math.round(sum / count * 10) / 10.0;
+    }
+
+    /**
+     * Returns the count for every rating value, from one to five stars.
+     */
+    public Map<Integer, Integer> getHistogram() {
+        Map<Integer, Integer> histogram = new LinkedHashMap<>();
+        histogram.put(ProductRating.ONE.getValue(), oneStar);
+        histogram.put(ProductRating.TWO.getValue(), twoStar);
+        histogram.put(ProductRating.THREE.getValue(), threeStar);
+        histogram.put(ProductRating.FOUR.getValue(), fourStar);
+        histogram.put(ProductRating.FIVE.getValue(), fiveStar);
+        return histogram;
+    }
+}
@@ -8,13 +8,18 @@ import lombok.NoArgsConstructor;
 import lombok.Setter;
 
 @Entity
+@Table(name = "product_review", uniqueConstraints = {
+        @UniqueConstraint(name = "uk_review_customer_product", columnNames = {"customer_user_id", "product_id"})
+}, indexes = {
+        @Index(name = "idx_review_product", columnList = "product_id, id")
+})
 @Getter
 @Setter
 @NoArgsConstructor
 @AllArgsConstructor
 public class ProductReview extends BaseEntity
 {
-    @ManyToOne
+    @ManyToOne(fetch = FetchType.LAZY)
     @JoinColumn(name = "customer_user_id")
     private Customer customer;
 
@@ -23,7 +28,7 @@ public class ProductReview extends BaseEntity
     @Enumerated(EnumType.STRING)
     private ProductRating rating;
 
-    @ManyToOne
+    @ManyToOne(fetch = FetchType.LAZY)
     @JoinColumn(name = "product_id")
     private Product product;
 
@@ -30,8 +30,10 @@ public class ProductVariation extends BaseEntity
     @JoinColumn(name = "product_id")
     private Product product;
 
+    // Only written on insert; afterwards stock moves through the atomic updates in ProductVariationRepository
     @NotNull
     @PositiveOrZero
+    @Column(updatable = false)
     private Integer quantityAvailable;
 
     @NotNull
@@ -0,0 +1,12 @@
+package com.nikhil.ecommerce_backend.events;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+
+@Getter
+@AllArgsConstructor
+public class OrderPlacedEvent {
+    private final Long orderId;
+    private final double amount;
+    private final int itemCount;
+}
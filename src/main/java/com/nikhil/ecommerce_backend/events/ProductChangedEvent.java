@@ -0,0 +1,11 @@
+package com.nikhil.ecommerce_backend.events;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+
+@Getter
+@AllArgsConstructor
+public class ProductChangedEvent {
+    private final Long productId;
+    private final Long categoryId;
+}
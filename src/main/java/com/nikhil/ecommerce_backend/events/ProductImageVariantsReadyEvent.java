@@ -0,0 +1,10 @@
+package com.nikhil.ecommerce_backend.events;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+
+@Getter
+@AllArgsConstructor
+public class ProductImageVariantsReadyEvent {
+    private final String imageName;
+}
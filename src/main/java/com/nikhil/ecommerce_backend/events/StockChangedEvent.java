@@ -0,0 +1,16 @@
+package com.nikhil.ecommerce_backend.events;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+
+import java.util.Collection;
+
+/**
+ * The {@code quantityAvailable} column of these variations was moved by an atomic update, which bypasses
+ * the entity and so publishes no {@link ProductChangedEvent}.
+ */
+@Getter
+@AllArgsConstructor
+public class StockChangedEvent {
+    private final Collection<Long> variationIds;
+}
@@ -0,0 +1,43 @@
+package com.nikhil.ecommerce_backend.helper;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Base64;
+import java.util.Set;
+
+/**
+ * Opaque continuation token for keyset pagination. It records the sort field and direction of the
+ * listing together with the sort key and id of the last row returned.
+ */
+@Getter
+@AllArgsConstructor
+public class KeysetCursor {
+
+    public static final Set<String> SORT_FIELDS = Set.of("id", "name", "brand");
+    public static final int MAX_PAGE_SIZE = 100;
+
+    private final String sort;
+    private final boolean descending;
+    private final String lastValue;
+    private final Long lastId;
+
+    public String encode() {
+        String raw = sort + "\n" + (descending ? "desc" : "asc") + "\n" + lastId + "\n" + lastValue;
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(raw.getBytes(StandardCharsets.UTF_8));
+    }
+
+    public static KeysetCursor decode(String token, String sort, boolean descending) {
+        try {
+            String raw = new String(Base64.getUrlDecoder().decode(token), StandardCharsets.UTF_8);
+            String[] parts = raw.split("\n", 4);
+            if (parts.length != 4 || !parts[0].equals(sort) || !parts[1].equals(descending ? "desc" : "asc")) {
+                throw new IllegalArgumentException("cursor.invalid");
+            }
+            return new KeysetCursor(sort, descending, parts[3], Long.parseLong(parts[2]));
+        } catch (IllegalArgumentException ex) {
+            throw new IllegalArgumentException("cursor.invalid");
+        }
+    }
+}
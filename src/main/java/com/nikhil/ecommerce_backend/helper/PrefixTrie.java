@@ -0,0 +1,224 @@
+package com.nikhil.ecommerce_backend.helper;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.Locale;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+
+/**
+ * Weighted radix trie for type-ahead. Keys are matched case-insensitively and every node keeps the
+ * best {@code topK} entries of its subtree, so a lookup is a walk down the prefix followed by a copy
+ * of at most {@code topK} strings.
+ */
+public class PrefixTrie {
+
+    private static final Entry[] NO_ENTRIES = new Entry[0];
+
+    private final int topK;
+    private final Node root = new Node("");
+    private final ReadWriteLock lock = new ReentrantReadWriteLock();
+
+    public PrefixTrie(int topK) {
+        this.topK = topK;
+    }
+
+    /**
+     * Adds {@code delta} to the weight of {@code text}. An entry whose weight drops to zero is removed.
+     */
+    public void adjust(String text, long delta) {
+        String key = normalize(text);
+        if (key.isEmpty() || delta == 0) {
+            return;
+        }
+        lock.writeLock().lock();
+        try {
+            List<Node> path = new ArrayList<>();
+            path.add(root);
+            Node node = root;
+            int i = 0;
+            while (i < key.length()) {
+                Node child = node.child(key.charAt(i));
+                if (child == null) {
+                    if (delta < 0) {
+                        return;
+                    }
+                    child = new Node(key.substring(i));
+                    node.addChild(child);
+                    node = child;
+                    path.add(node);
+                    break;
+                }
+                int common = commonPrefix(child.label, key, i);
+                if (common < child.label.length()) {
+                    if (delta < 0) {
+                        return;
+                    }
+                    Node middle = new Node(child.label.substring(0, common));
+                    node.replaceChild(middle);
+                    child.label = child.label.substring(common);
+                    middle.addChild(child);
+                    middle.recomputeTop(topK);
+                    child = middle;
+                }
+                i += common;
+                node = child;
+                path.add(node);
+            }
+
+            node.weight = Math.max(0, node.weight + delta);
+            if (node.weight == 0) {
+                node.display = null;
+            } else if (node.display == null) {
+                node.display = text.strip();
+            }
+
+            for (int p = path.size() - 1; p >= 0; p--) {
+                Node current = path.get(p);
+                if (p > 0 && current.weight == 0 && current.children.length == 0) {
+                    path.get(p - 1).removeChild(current);
+                    continue;
+                }
+                current.recomputeTop(topK);
+            }
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    public List<String> suggest(String prefix, int limit) {
+        String key = normalize(prefix);
+        if (key.isEmpty()) {
+            return Collections.emptyList();
+        }
+        lock.readLock().lock();
+        try {
+            Node node = root;
+            int i = 0;
+            while (i < key.length()) {
+                Node child = node.child(key.charAt(i));
+                if (child == null) {
+                    return Collections.emptyList();
+                }
+                int common = commonPrefix(child.label, key, i);
+                if (i + common == key.length()) {
+                    node = child;
+                    break;
+                }
+                if (common < child.label.length()) {
+                    return Collections.emptyList();
+                }
+                i += common;
+                node = child;
+            }
+            int size = Math.min(limit, node.top.length);
+            List<String> suggestions = new ArrayList<>(size);
+            for (int e = 0; e < size; e++) {
+                suggestions.add(node.top[e].display);
+            }
+            return suggestions;
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    private static String normalize(String text) {
+        return text == null ? "" : text.strip().toLowerCase(Locale.ROOT);
+    }
+
+    private static int commonPrefix(String label, String key, int offset) {
+        int max = Math.min(label.length(), key.length() - offset);
+        int i = 0;
+        while (i < max && label.charAt(i) == key.charAt(offset + i)) {
+            i++;
+        }
+        return i;
+    }
+
+    private static final class Entry {
+        private final String display;
+        private final long weight;
+
+        private Entry(String display, long weight) {
+            this.display = display;
+            this.weight = weight;
+        }
+    }
+
+    private static final class Node {
+        private String label;
+        private Node[] children = new Node[0];
+        private String display;
+        private long weight;
+        private Entry[] top = NO_ENTRIES;
+        private Entry self;
+
+        private Node(String label) {
+            this.label = label;
+        }
+
+        private int indexOf(char first) {
+            int low = 0;
+            int high = children.length - 1;
+            while (low <= high) {
+                int mid = (low + high) >>> 1;
+                char c = children[mid].label.charAt(0);
+                if (c < first) {
+                    low = mid + 1;
+                } else if (c > first) {
+                    high = mid - 1;
+                } else {
+                    return mid;
+                }
+            }
+            return -(low + 1);
+        }
+
+        private Node child(char first) {
+            int index = indexOf(first);
+            return index >= 0 ? children[index] : null;
+        }
+
+        private void addChild(Node child) {
+            int insertAt = -(indexOf(child.label.charAt(0)) + 1);
+            Node[] grown = new Node[children.length + 1];
+            System.arraycopy(children, 0, grown, 0, insertAt);
+            grown[insertAt] = child;
+            System.arraycopy(children, insertAt, grown, insertAt + 1, children.length - insertAt);
+            children = grown;
+        }
+
+        private void replaceChild(Node child) {
+            children[indexOf(child.label.charAt(0))] = child;
+        }
+
+        private void removeChild(Node child) {
+            int index = indexOf(child.label.charAt(0));
+            Node[] shrunk = new Node[children.length - 1];
+            System.arraycopy(children, 0, shrunk, 0, index);
+            System.arraycopy(children, index + 1, shrunk, index, children.length - index - 1);
+            children = shrunk;
+        }
+
+        private void recomputeTop(int topK) {
+            List<Entry> candidates = new ArrayList<>();
+            if (weight > 0) {
+                if (self == null || self.weight != weight || !self.display.equals(display)) {
+                    self = new Entry(display, weight);
+                }
+                candidates.add(self);
+            } else {
+                self = null;
+            }
+            for (Node child : children) {
+                candidates.addAll(Arrays.asList(child.top));
+            }
+            candidates.sort((a, b) -> a.weight != b.weight
+                    ? Long.compare(b.weight, a.weight)
+                    : a.display.compareTo(b.display));
+            top = candidates.subList(0, Math.min(topK, candidates.size())).toArray(NO_ENTRIES);
+        }
+    }
+}
@@ -0,0 +1,16 @@
+package com.nikhil.ecommerce_backend.repositories;
+
+import com.nikhil.ecommerce_backend.entities.Address;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.util.Optional;
+
+@Repository
+public interface AddressRepository extends JpaRepository<Address, Long> {
+
+    @Query("SELECT a FROM Address a WHERE a.id = :id AND a.customer.id = :customerId AND a.removed = false")
+    Optional<Address> findActiveByIdAndCustomerId(@Param("id") Long id, @Param("customerId") Long customerId);
+}
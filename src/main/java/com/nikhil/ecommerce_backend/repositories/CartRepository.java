@@ -0,0 +1,20 @@
+package com.nikhil.ecommerce_backend.repositories;
+
+import com.nikhil.ecommerce_backend.entities.Cart;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.util.Collection;
+import java.util.List;
+
+@Repository
+public interface CartRepository extends JpaRepository<Cart, Long> {
+
+    @Query("SELECT c.productVariation.id, c.quantity FROM Cart c WHERE c.customer.id = :customerId AND c.isWishlistItem = false")
+    List<Object[]> findItemsByCustomerId(@Param("customerId") Long customerId);
+
+    @Query("SELECT c FROM Cart c WHERE c.customer.id IN :customerIds AND c.isWishlistItem = false")
+    List<Cart> findByCustomerIdIn(@Param("customerIds") Collection<Long> customerIds);
+}
@@ -35,5 +35,8 @@ public interface CategoryRepository extends JpaRepository<Category, Long> {
     @Query("SELECT c FROM Category c WHERE c.parentCategory.id IN :parentIds")
     List<Category> findByParentCategoryIdIn(List<Long> parentIds);
 
+    @Query("SELECT c.id, p.id, c.name FROM Category c LEFT JOIN c.parentCategory p")
+    List<Object[]> findAllForTreeIndex();
+
 
 }
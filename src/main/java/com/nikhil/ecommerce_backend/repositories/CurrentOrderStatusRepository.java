@@ -0,0 +1,41 @@
+package com.nikhil.ecommerce_backend.repositories;
+
+import com.nikhil.ecommerce_backend.constants.Status;
+import com.nikhil.ecommerce_backend.entities.CurrentOrderStatus;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Optional;
+
+@Repository
+public interface CurrentOrderStatusRepository extends JpaRepository<CurrentOrderStatus, Long> {
+
+    @Query("SELECT c FROM CurrentOrderStatus c WHERE c.orderProduct.id = :orderProductId")
+    Optional<CurrentOrderStatus> findByOrderProductId(@Param("orderProductId") Long orderProductId);
+
+    @Query("SELECT c FROM CurrentOrderStatus c WHERE c.customerId = :customerId AND c.id < :beforeId ORDER BY c.id DESC")
+    List<CurrentOrderStatus> findByCustomerIdBefore(@Param("customerId") Long customerId,
+                                                    @Param("beforeId") Long beforeId, Pageable pageable);
+
+    @Query("SELECT c FROM CurrentOrderStatus c WHERE c.sellerId = :sellerId " +
+            "AND (:status IS NULL OR c.status = :status) AND c.id < :beforeId ORDER BY c.id DESC")
+    List<CurrentOrderStatus> findBySellerIdBefore(@Param("sellerId") Long sellerId, @Param("status") Status status,
+                                                  @Param("beforeId") Long beforeId, Pageable pageable);
+
+    /**
+     * Moves an item from {@code from} to {@code to}. Returns 0 when another transition got there first.
+     */
+    @Transactional
+    @Modifying
+    @Query("UPDATE CurrentOrderStatus c SET c.status = :to, c.statusUpdatedAt = :at " +
+            "WHERE c.orderProduct.id = :orderProductId AND c.status = :from")
+    int transition(@Param("orderProductId") Long orderProductId, @Param("from") Status from,
+                   @Param("to") Status to, @Param("at") LocalDateTime at);
+}
@@ -5,9 +5,11 @@ import io.lettuce.core.dynamic.annotation.Param;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
 import org.springframework.data.jpa.repository.JpaSpecificationExecutor;
 import org.springframework.data.jpa.repository.Query;
 import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Transactional;
 
 import java.util.Optional;
 
@@ -15,9 +17,17 @@ import java.util.Optional;
 public interface CustomerRepository extends JpaRepository<Customer, Long>
 {
     Optional<Customer> findByEmail(String email);
+
+    @Query("select c.id from Customer c where c.email = :email")
+    Optional<Long> findIdByEmail(@Param("email") String email);
     Page<Customer> findByEmailContainingIgnoreCase(String email, Pageable pageable);
     @Query("select u.password from User u where u.email=:email")
     String getPassword(@Param("email") String email);
 
+    @Transactional
+    @Modifying
+    @Query("update Customer u set u.imageUrl = :imageName where u.id = :id and u.imageUrl is null")
+    int setImageNameIfAbsent(@Param("id") Long id, @Param("imageName") String imageName);
+
 }
 
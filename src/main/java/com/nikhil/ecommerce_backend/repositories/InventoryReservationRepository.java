@@ -0,0 +1,63 @@
+package com.nikhil.ecommerce_backend.repositories;
+
+import com.nikhil.ecommerce_backend.constants.ReservationStatus;
+import com.nikhil.ecommerce_backend.entities.InventoryReservation;
+import jakarta.persistence.LockModeType;
+import jakarta.persistence.QueryHint;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Lock;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.LocalDateTime;
+import java.util.Collection;
+import java.util.List;
+
+@Repository
+public interface InventoryReservationRepository extends JpaRepository<InventoryReservation, Long> {
+
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    @QueryHints(@QueryHint(name = "jakarta.persistence.lock.timeout", value = "-2"))
+    @Query("SELECT r FROM InventoryReservation r WHERE r.status = com.nikhil.ecommerce_backend.constants.ReservationStatus.RESERVED " +
+            "AND r.expiresAt < :now ORDER BY r.id")
+    List<InventoryReservation> findExpiredForUpdate(@Param("now") LocalDateTime now, Pageable pageable);
+
+    @Query("SELECT r.productVariation.id FROM InventoryReservation r WHERE r.id = :id")
+    Long findVariationId(@Param("id") Long id);
+
+    @Query("SELECT COALESCE(SUM(r.quantity), 0) FROM InventoryReservation r WHERE r.leaseId = :leaseId")
+    long sumQuantityByLeaseId(@Param("leaseId") Long leaseId);
+
+    /**
+     * Moves a reservation out of {@code RESERVED}. Returns 0 when it was already committed or released.
+     */
+    @Transactional
+    @Modifying
+    @Query("UPDATE InventoryReservation r SET r.status = :status " +
+            "WHERE r.id = :id AND r.status = com.nikhil.ecommerce_backend.constants.ReservationStatus.RESERVED")
+    int close(@Param("id") Long id, @Param("status") ReservationStatus status);
+
+    @Transactional
+    @Modifying
+    @Query("UPDATE InventoryReservation r SET r.status = :status " +
+            "WHERE r.id IN :ids AND r.status = com.nikhil.ecommerce_backend.constants.ReservationStatus.RESERVED")
+    int closeAll(@Param("ids") Collection<Long> ids, @Param("status") ReservationStatus status);
+
+    @Transactional
+    @Modifying
+    @Query("UPDATE InventoryReservation r SET r.status = com.nikhil.ecommerce_backend.constants.ReservationStatus.RELEASED, " +
+            "r.quantity = :consumed " +
+            "WHERE r.id = :id AND r.status = com.nikhil.ecommerce_backend.constants.ReservationStatus.RESERVED")
+    int settleLease(@Param("id") Long id, @Param("consumed") int consumed);
+
+    @Transactional
+    @Modifying
+    @Query("UPDATE InventoryReservation r SET r.expiresAt = :expiresAt " +
+            "WHERE r.id IN :ids AND r.status = com.nikhil.ecommerce_backend.constants.ReservationStatus.RESERVED")
+    int renew(@Param("ids") Collection<Long> ids, @Param("expiresAt") LocalDateTime expiresAt);
+}
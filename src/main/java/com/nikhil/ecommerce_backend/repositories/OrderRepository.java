@@ -0,0 +1,21 @@
+package com.nikhil.ecommerce_backend.repositories;
+
+import com.nikhil.ecommerce_backend.entities.Order;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.util.Optional;
+
+@Repository
+public interface OrderRepository extends JpaRepository<Order, Long> {
+
+    @Query("SELECT o FROM Order o WHERE o.customer.id = :customerId AND o.idempotencyKey = :idempotencyKey")
+    Optional<Order> findByCustomerIdAndIdempotencyKey(@Param("customerId") Long customerId,
+                                                      @Param("idempotencyKey") String idempotencyKey);
+
+    @Query("SELECT DISTINCT o FROM Order o JOIN FETCH o.customer JOIN FETCH o.orderProducts op " +
+            "JOIN FETCH op.productVariation pv JOIN FETCH pv.product p JOIN FETCH p.seller WHERE o.id = :id")
+    Optional<Order> findWithItemsById(@Param("id") Long id);
+}
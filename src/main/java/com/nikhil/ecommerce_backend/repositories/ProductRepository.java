@@ -7,8 +7,11 @@ import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.data.jpa.repository.JpaSpecificationExecutor;
+import org.springframework.data.jpa.repository.Modifying;
 import org.springframework.data.jpa.repository.Query;
+import org.springframework.transaction.annotation.Transactional;
 
+import java.util.Collection;
 import java.util.List;
 import java.util.Optional;
 
@@ -21,6 +24,14 @@ public interface ProductRepository extends JpaRepository<Product, Long> , JpaSpe
             String name, String brand, Category category, Seller seller, Long productId
     );
 
+    /**
+     * Id, name, brand and category id of the seller's products with one of the given names, used by the
+     * bulk import to skip products it already created.
+     */
+    @Query("SELECT p.id, p.name, p.brand, p.category.id FROM Product p " +
+            "WHERE p.seller.id = :sellerId AND p.name IN :names")
+    List<Object[]> findImportKeys(Long sellerId, Collection<String> names);
+
     @Query("SELECT p FROM Product p " +
             "LEFT JOIN FETCH p.category " +
             "LEFT JOIN FETCH p.variations v " +
@@ -60,6 +71,70 @@ public interface ProductRepository extends JpaRepository<Product, Long> , JpaSpe
             "WHERE p.category.id IN :categoryIds AND p.isActive = true AND p.isDeleted = false")
     PriceRange findPriceRangeByCategoryIdIn(List<Long> categoryIds);
 
+    @Query("SELECT DISTINCT p.category.id, p.brand FROM Product p " +
+            "WHERE p.isActive = true AND p.isDeleted = false")
+    List<Object[]> findActiveBrandsGroupedByCategory();
+
+    @Query("SELECT p.category.id, MIN(pv.price), MAX(pv.price) " +
+            "FROM ProductVariation pv JOIN pv.product p " +
+            "WHERE p.isActive = true AND p.isDeleted = false " +
+            "GROUP BY p.category.id")
+    List<Object[]> findPriceRangesGroupedByCategory();
+
+    @Query("SELECT DISTINCT p FROM Product p " +
+            "JOIN FETCH p.category " +
+            "LEFT JOIN FETCH p.variations " +
+            "WHERE p.id IN :productIds")
+    List<Product> findAllWithVariationsByIdIn(List<Long> productIds);
+
+    @Query("SELECT p.id FROM Product p WHERE p.id > :afterId ORDER BY p.id")
+    List<Long> findIdsAfter(Long afterId, Pageable pageable);
+
+    @Query("SELECT p.id, p.name, p.brand, p.category.id FROM Product p " +
+            "WHERE p.isActive = true AND p.isDeleted = false " +
+            "AND EXISTS (SELECT v.id FROM ProductVariation v WHERE v.product = p)")
+    List<Object[]> findListedForSuggestions();
+
+    @Query("SELECT p.id, p.name, p.brand, p.category.id FROM Product p " +
+            "WHERE p.id = :productId AND p.isActive = true AND p.isDeleted = false " +
+            "AND EXISTS (SELECT v.id FROM ProductVariation v WHERE v.product = p)")
+    List<Object[]> findListedForSuggestionsById(Long productId);
+
     @Query("SELECT p FROM Product p where p.isActive=false and p.isDeleted = false")
     List<Product> findInactiveProducts();
+
+    /**
+     * Adds one review with rating {@code added} and takes away one with rating {@code removed}; pass 0 for
+     * either side to skip it.
+     */
+    @Transactional
+    @Modifying
+    @Query("UPDATE Product p SET " +
+            "p.ratingStats.oneStar = p.ratingStats.oneStar + (CASE WHEN :added = 1 THEN 1 ELSE 0 END) - (CASE WHEN :removed = 1 THEN 1 ELSE 0 END), " +
+            "p.ratingStats.twoStar = p.ratingStats.twoStar + (CASE WHEN :added = 2 THEN 1 ELSE 0 END) - (CASE WHEN :removed = 2 THEN 1 ELSE 0 END), " +
+            "p.ratingStats.threeStar = p.ratingStats.threeStar + (CASE WHEN :added = 3 THEN 1 ELSE 0 END) - (CASE WHEN :removed = 3 THEN 1 ELSE 0 END), " +
+            "p.ratingStats.fourStar = p.ratingStats.fourStar + (CASE WHEN :added = 4 THEN 1 ELSE 0 END) - (CASE WHEN :removed = 4 THEN 1 ELSE 0 END), " +
+            "p.ratingStats.fiveStar = p.ratingStats.fiveStar + (CASE WHEN :added = 5 THEN 1 ELSE 0 END) - (CASE WHEN :removed = 5 THEN 1 ELSE 0 END) " +
+            "WHERE p.id = :productId")
+    int adjustRatings(Long productId, int added, int removed);
+
+    /**
+     * Recounts the ratings of every product whose counts do not add up to its number of reviews, such as
+     * reviews written before the counts existed, with one grouped pass over the reviews.
+     */
+    @Transactional
+    @Modifying
+    @Query(value = "UPDATE products p JOIN (SELECT r.product_id, COUNT(*) AS total, " +
+            "SUM(CASE WHEN r.rating = 'ONE' THEN 1 ELSE 0 END) AS one_star, " +
+            "SUM(CASE WHEN r.rating = 'TWO' THEN 1 ELSE 0 END) AS two_star, " +
+            "SUM(CASE WHEN r.rating = 'THREE' THEN 1 ELSE 0 END) AS three_star, " +
+            "SUM(CASE WHEN r.rating = 'FOUR' THEN 1 ELSE 0 END) AS four_star, " +
+            "SUM(CASE WHEN r.rating = 'FIVE' THEN 1 ELSE 0 END) AS five_star " +
+            "FROM product_review r GROUP BY r.product_id) c ON c.product_id = p.id " +
+            "SET p.rating_one_star = c.one_star, p.rating_two_star = c.two_star, " +
+            "p.rating_three_star = c.three_star, p.rating_four_star = c.four_star, " +
+            "p.rating_five_star = c.five_star " +
+            "WHERE p.rating_one_star + p.rating_two_star + p.rating_three_star + p.rating_four_star " +
+            "+ p.rating_five_star <> c.total", nativeQuery = true)
+    int backfillRatings();
 }
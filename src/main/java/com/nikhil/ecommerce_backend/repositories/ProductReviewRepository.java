@@ -0,0 +1,29 @@
+package com.nikhil.ecommerce_backend.repositories;
+
+import com.nikhil.ecommerce_backend.entities.ProductReview;
+import jakarta.persistence.LockModeType;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Lock;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.util.List;
+import java.util.Optional;
+
+@Repository
+public interface ProductReviewRepository extends JpaRepository<ProductReview, Long> {
+
+    @Query("SELECT COUNT(r) > 0 FROM ProductReview r WHERE r.customer.id = :customerId AND r.product.id = :productId")
+    boolean existsByCustomerIdAndProductId(@Param("customerId") Long customerId, @Param("productId") Long productId);
+
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    @Query("SELECT r FROM ProductReview r WHERE r.id = :id AND r.customer.id = :customerId")
+    Optional<ProductReview> findByIdAndCustomerIdForUpdate(@Param("id") Long id, @Param("customerId") Long customerId);
+
+    @Query("SELECT r FROM ProductReview r JOIN FETCH r.customer " +
+            "WHERE r.product.id = :productId AND r.id < :beforeId ORDER BY r.id DESC")
+    List<ProductReview> findByProductIdBefore(@Param("productId") Long productId, @Param("beforeId") Long beforeId,
+                                              Pageable pageable);
+}
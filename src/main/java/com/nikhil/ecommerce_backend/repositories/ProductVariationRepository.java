@@ -4,10 +4,14 @@ import com.nikhil.ecommerce_backend.entities.ProductVariation;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
 import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Transactional;
 
+import java.util.Collection;
+import java.util.List;
 import java.util.Optional;
 
 @Repository
@@ -16,4 +20,42 @@ public interface ProductVariationRepository extends JpaRepository<ProductVariati
     @Query("SELECT pv FROM ProductVariation pv JOIN FETCH pv.product p JOIN FETCH p.seller WHERE pv.id = :variationId")
     Optional<ProductVariation> findByIdAndFetchProductAndSeller(Long variationId);
     Page<ProductVariation> findByProductId(Long productId, Pageable pageable);
+
+    @Query("SELECT pv FROM ProductVariation pv JOIN FETCH pv.product WHERE pv.id IN :ids")
+    List<ProductVariation> findAllWithProductByIdIn(@Param("ids") Collection<Long> ids);
+
+    @Query("SELECT DISTINCT pv.product.id FROM ProductVariation pv WHERE pv.id IN :ids")
+    List<Long> findProductIdsByIdIn(@Param("ids") Collection<Long> ids);
+
+    @Query("SELECT pv.quantityAvailable FROM ProductVariation pv WHERE pv.id = :id")
+    Integer findQuantityAvailable(@Param("id") Long id);
+
+    /**
+     * Takes stock only if enough is left, so concurrent buyers cannot drive the quantity negative.
+     */
+    @Transactional
+    @Modifying
+    @Query("UPDATE ProductVariation pv SET pv.quantityAvailable = pv.quantityAvailable - :quantity " +
+            "WHERE pv.id = :id AND pv.quantityAvailable >= :quantity")
+    int decrementIfAvailable(@Param("id") Long id, @Param("quantity") int quantity);
+
+    @Transactional
+    @Modifying
+    @Query("UPDATE ProductVariation pv SET pv.quantityAvailable = pv.quantityAvailable + :quantity WHERE pv.id = :id")
+    int incrementQuantity(@Param("id") Long id, @Param("quantity") int quantity);
+
+    @Transactional
+    @Modifying
+    @Query("UPDATE ProductVariation pv SET pv.quantityAvailable = :quantity WHERE pv.id = :id")
+    int setQuantity(@Param("id") Long id, @Param("quantity") int quantity);
+
+    @Query("SELECT pv.primaryImageName FROM ProductVariation pv WHERE pv.primaryImageName IS NOT NULL")
+    List<String> findAllPrimaryImageNames();
+
+    @Query("SELECT pi.imageName FROM ProductImage pi")
+    List<String> findAllSecondaryImageNames();
+
+    @Query("SELECT DISTINCT pv.product.id FROM ProductVariation pv WHERE pv.primaryImageName = :imageName " +
+            "OR EXISTS (SELECT pi FROM ProductImage pi WHERE pi.productVariation = pv AND pi.imageName = :imageName)")
+    List<Long> findProductIdsByImageName(@Param("imageName") String imageName);
 }
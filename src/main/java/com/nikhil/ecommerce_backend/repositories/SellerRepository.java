@@ -5,8 +5,12 @@ import io.lettuce.core.dynamic.annotation.Param;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
 import org.springframework.data.jpa.repository.Query;
 import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.util.Optional;
 
 
 @Repository
@@ -17,8 +21,16 @@ public interface SellerRepository extends JpaRepository<Seller, Long>
     boolean existsByCompanyContact(String companyContact);
     Page<Seller> findByEmailContainingIgnoreCase(String email, Pageable pageable);
     Seller findByEmail(String email);
+
+    @Query("select s.id from Seller s where s.email = :email")
+    Optional<Long> findIdByEmail(@Param("email") String email);
     boolean existsByEmail(String email);
     @Query("select u.password from User u where u.email=:email")
     String getPassword(@Param("email") String email);
+
+    @Transactional
+    @Modifying
+    @Query("update Seller u set u.imageUrl = :imageName where u.id = :id and u.imageUrl is null")
+    int setImageNameIfAbsent(@Param("id") Long id, @Param("imageName") String imageName);
 }
 
@@ -14,4 +14,8 @@ public interface UserRepository extends JpaRepository<User, Long>
     boolean existsByEmail(String email);
     @Query("select u.password from User u where u.email=:email")
     String getPassword(@Param("email") String email);
+
+    @Query("select count(u) > 0 from User u where u.email = :email " +
+            "and u.isDeleted = false and u.isActive = true and u.isLocked = false")
+    boolean isAccountUsable(@Param("email") String email);
 }
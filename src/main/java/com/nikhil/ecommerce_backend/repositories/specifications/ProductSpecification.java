@@ -1,9 +1,17 @@
 package com.nikhil.ecommerce_backend.repositories.specifications;
 
 import com.nikhil.ecommerce_backend.entities.Product;
+import com.nikhil.ecommerce_backend.entities.ProductVariation;
+import com.nikhil.ecommerce_backend.helper.KeysetCursor;
+import jakarta.persistence.criteria.Path;
+import jakarta.persistence.criteria.Predicate;
+import jakarta.persistence.criteria.Root;
+import jakarta.persistence.criteria.Subquery;
 import org.springframework.data.jpa.domain.Specification;
 import org.springframework.stereotype.Component;
 
+import java.util.List;
+
 @Component
 public class ProductSpecification {
 
@@ -32,16 +40,50 @@ public class ProductSpecification {
                 criteriaBuilder.equal(root.get("seller").get("email"), sellerEmail);
     }
 
-    public Specification<Product> matchesQuery(String queryText) {
+    public Specification<Product> hasCategoryIdIn(List<Long> categoryIds) {
+        return (root, query, criteriaBuilder) ->
+                root.get("category").get("id").in(categoryIds);
+    }
+
+    public Specification<Product> hasVariations() {
+        return (root, query, criteriaBuilder) -> {
+            Subquery<Long> variations = query.subquery(Long.class);
+            Root<ProductVariation> variation = variations.from(ProductVariation.class);
+            variations.select(variation.get("id"))
+                    .where(criteriaBuilder.equal(variation.get("product"), root));
+            return criteriaBuilder.exists(variations);
+        };
+    }
+
+    public Specification<Product> nameContains(String queryText) {
+        return (root, query, criteriaBuilder) -> {
+            if (queryText == null) {
+                return criteriaBuilder.conjunction();
+            }
+            return criteriaBuilder.like(criteriaBuilder.lower(root.get("name")), "%" + queryText.toLowerCase() + "%");
+        };
+    }
+
+    /**
+     * Seek predicate for keyset pagination: rows strictly after the cursor in (sort key, id) order.
+     */
+    public Specification<Product> after(KeysetCursor cursor) {
         return (root, query, criteriaBuilder) -> {
-            if (queryText == null || queryText.isBlank()) {
-                return criteriaBuilder.conjunction(); // no filter
+            Path<Long> id = root.get("id");
+            if (cursor.getSort().equals("id")) {
+                return cursor.isDescending()
+                        ? criteriaBuilder.lessThan(id, cursor.getLastId())
+                        : criteriaBuilder.greaterThan(id, cursor.getLastId());
             }
-            String likePattern = "%" + queryText.toLowerCase() + "%";
-            return criteriaBuilder.or(
-                    criteriaBuilder.like(criteriaBuilder.lower(root.get("name")), likePattern),
-                    criteriaBuilder.like(criteriaBuilder.lower(root.get("brand")), likePattern)
-            );
+            Path<String> key = root.get(cursor.getSort());
+            Predicate beyondKey = cursor.isDescending()
+                    ? criteriaBuilder.lessThan(key, cursor.getLastValue())
+                    : criteriaBuilder.greaterThan(key, cursor.getLastValue());
+            Predicate beyondId = cursor.isDescending()
+                    ? criteriaBuilder.lessThan(id, cursor.getLastId())
+                    : criteriaBuilder.greaterThan(id, cursor.getLastId());
+            return criteriaBuilder.or(beyondKey,
+                    criteriaBuilder.and(criteriaBuilder.equal(key, cursor.getLastValue()), beyondId));
         };
     }
 }
\ No newline at end of file
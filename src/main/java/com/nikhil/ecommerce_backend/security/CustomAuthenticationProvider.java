@@ -1,10 +1,12 @@
 package com.nikhil.ecommerce_backend.security;
 
 import com.nikhil.ecommerce_backend.entities.User;
+import com.nikhil.ecommerce_backend.events.UserStatusChangedEvent;
 import com.nikhil.ecommerce_backend.repositories.UserRepository;
 import com.nikhil.ecommerce_backend.services.common.EmailService;
 import lombok.RequiredArgsConstructor;
 import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.context.MessageSource;
 import org.springframework.security.authentication.*;
 import org.springframework.security.core.Authentication;
@@ -25,6 +27,7 @@ public class CustomAuthenticationProvider implements AuthenticationProvider {
     private final UserRepository userRepository;
     private final EmailService emailService;
     private final MessageSource messageSource;
+    private final ApplicationEventPublisher eventPublisher;
 
     @Value("${app.security.password-max-age-days}")
     private long passwordMaxAgeDays;
@@ -61,6 +64,7 @@ public class CustomAuthenticationProvider implements AuthenticationProvider {
             if (attempts >= 3) {
                 user.setLocked(true);
                 userRepository.save(user);
+                eventPublisher.publishEvent(new UserStatusChangedEvent(user.getEmail()));
                 emailService.sendAccountLockedEmail(user.getEmail(), locale);
                 throw new LockedException(messageSource.getMessage("auth.locked.by.attempts", null, locale));
             }
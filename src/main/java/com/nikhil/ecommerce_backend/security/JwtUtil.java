@@ -1,9 +1,14 @@
 package com.nikhil.ecommerce_backend.security;
 
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.github.benmanes.caffeine.cache.Expiry;
 import io.jsonwebtoken.Claims;
+import io.jsonwebtoken.JwtParser;
 import io.jsonwebtoken.Jwts;
 import io.jsonwebtoken.SignatureAlgorithm;
 import io.jsonwebtoken.security.Keys;
+import lombok.AccessLevel;
 import lombok.Getter;
 import lombok.Setter;
 import org.springframework.beans.factory.annotation.Value;
@@ -12,10 +17,10 @@ import org.springframework.stereotype.Component;
 
 import java.security.Key;
 import java.time.LocalDateTime;
-import java.time.ZoneId;
 import java.util.Collection;
 import java.util.Date;
 import java.util.List;
+import java.util.concurrent.TimeUnit;
 import java.util.stream.Collectors;
 
 @Component
@@ -26,11 +31,39 @@ public class JwtUtil
     private final Key key;
     private final long accessTokenExpiration;
 
+    @Getter(AccessLevel.NONE)
+    private final JwtParser parser;
+
+    @Getter(AccessLevel.NONE)
+    private final Cache<String, VerifiedToken> verifiedTokens;
+
     public JwtUtil( @Value("${jwt.secret}") String secret,
-            @Value("${jwt.access-expiration}") long accessTokenExpiration)
+            @Value("${jwt.access-expiration}") long accessTokenExpiration,
+            @Value("${jwt.verified-cache.max-size}") long verifiedCacheMaxSize)
     {
         this.key = Keys.hmacShaKeyFor(secret.getBytes());
         this.accessTokenExpiration = accessTokenExpiration;
+        this.parser = Jwts.parserBuilder().setSigningKey(key).build();
+        this.verifiedTokens = Caffeine.newBuilder()
+                .maximumSize(verifiedCacheMaxSize)
+                .expireAfter(new Expiry<String, VerifiedToken>() {
+                    @Override
+                    public long expireAfterCreate(String token, VerifiedToken verified, long currentTime) {
+                        long ttlMillis = verified.getExpiration().getTime() - System.currentTimeMillis();
+                        return TimeUnit.MILLISECONDS.toNanos(Math.max(ttlMillis, 0));
+                    }
+
+                    @Override
+                    public long expireAfterUpdate(String token, VerifiedToken verified, long currentTime, long currentDuration) {
+                        return expireAfterCreate(token, verified, currentTime);
+                    }
+
+                    @Override
+                    public long expireAfterRead(String token, VerifiedToken verified, long currentTime, long currentDuration) {
+                        return currentDuration;
+                    }
+                })
+                .build();
     }
 
     public String generateAccessToken(String email, Collection<? extends GrantedAuthority> authorities) {
@@ -50,42 +83,48 @@ public class JwtUtil
                 .compact();
     }
 
+    /**
+     * Verifies the signature and expiry of the token once and returns its claims. Tokens that were already
+     * verified are served from a cache whose entries live until the token's own {@code exp}, so repeat calls
+     * skip the HMAC check entirely. Throws a {@link io.jsonwebtoken.JwtException} for invalid tokens.
+     */
+    @SuppressWarnings("unchecked")
+    public VerifiedToken verify(String token) {
+        VerifiedToken cached = verifiedTokens.getIfPresent(token);
+        if (cached != null && !cached.isExpired()) {
+            return cached;
+        }
+
+        Claims claims = parser.parseClaimsJws(token).getBody();
+        List<String> roles = claims.get("roles", List.class);
+        VerifiedToken verified = new VerifiedToken(
+                claims.getSubject(),
+                roles != null ? List.copyOf(roles) : List.of(),
+                claims.getExpiration());
+
+        if (verified.getExpiration() != null) {
+            verifiedTokens.put(token, verified);
+        }
+        return verified;
+    }
+
     public boolean validateToken(String token) {
         try {
-            Jwts.parserBuilder().setSigningKey(key).build().parseClaimsJws(token);
+            verify(token);
             return true;
         } catch (Exception ex) {
             return false;
         }
     }
     public String extractEmail(String token) {
-        return Jwts.parserBuilder()
-                .setSigningKey(key)
-                .build()
-                .parseClaimsJws(token)
-                .getBody()
-                .getSubject();
+        return verify(token).getEmail();
     }
 
     public LocalDateTime extractExpiration(String token) {
-        Date expiration = Jwts.parserBuilder()
-                .setSigningKey(key)
-                .build()
-                .parseClaimsJws(token)
-                .getBody()
-                .getExpiration();
-
-        return expiration.toInstant()
-                .atZone(ZoneId.systemDefault())
-                .toLocalDateTime();
+        return verify(token).getExpirationDateTime();
     }
 
     public List<String> extractRoles(String token) {
-        Claims claims = Jwts.parserBuilder()
-                .setSigningKey(key)
-                .build()
-                .parseClaimsJws(token)
-                .getBody();
-        return claims.get("roles", List.class);
+        return verify(token).getRoles();
     }
 }
@@ -0,0 +1,46 @@
+package com.nikhil.ecommerce_backend.security;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.nikhil.ecommerce_backend.events.UserStatusChangedEvent;
+import com.nikhil.ecommerce_backend.repositories.UserRepository;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.time.Duration;
+
+/**
+ * Caches whether an account may still use its access tokens (not deleted, active and not locked).
+ * Entries are evicted as soon as a {@link UserStatusChangedEvent} is committed, the TTL only bounds
+ * staleness for changes made outside this application.
+ */
+@Component
+public class UserStatusCache {
+
+    private final UserRepository userRepository;
+    private final Cache<String, Boolean> usableAccounts;
+
+    public UserStatusCache(UserRepository userRepository,
+                           @Value("${app.security.user-status-cache.max-size}") long maxSize,
+                           @Value("${app.security.user-status-cache.ttl-seconds}") long ttlSeconds) {
+        this.userRepository = userRepository;
+        this.usableAccounts = Caffeine.newBuilder()
+                .maximumSize(maxSize)
+                .expireAfterWrite(Duration.ofSeconds(ttlSeconds))
+                .build();
+    }
+
+    public boolean isUsable(String email) {
+        return usableAccounts.get(email, userRepository::isAccountUsable);
+    }
+
+    public void invalidate(String email) {
+        usableAccounts.invalidate(email);
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onUserStatusChanged(UserStatusChangedEvent event) {
+        invalidate(event.getEmail());
+    }
+}
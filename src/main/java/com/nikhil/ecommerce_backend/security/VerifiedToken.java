@@ -0,0 +1,27 @@
+package com.nikhil.ecommerce_backend.security;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.util.Date;
+import java.util.List;
+
+@Getter
+@AllArgsConstructor
+public class VerifiedToken {
+    private final String email;
+    private final List<String> roles;
+    private final Date expiration;
+
+    public boolean isExpired() {
+        return expiration != null && expiration.getTime() <= System.currentTimeMillis();
+    }
+
+    public LocalDateTime getExpirationDateTime() {
+        return expiration.toInstant()
+                .atZone(ZoneId.systemDefault())
+                .toLocalDateTime();
+    }
+}
@@ -4,10 +4,16 @@ import com.fasterxml.jackson.databind.ObjectMapper;
 import com.nikhil.ecommerce_backend.dto.admin.AdminProductView;
 import com.nikhil.ecommerce_backend.dto.customer.CustomerProductList;
 import com.nikhil.ecommerce_backend.dto.customer.CustomerProductView;
+import com.nikhil.ecommerce_backend.dto.customer.RatingView;
 import com.nikhil.ecommerce_backend.dto.seller.ProductResponse;
-import com.nikhil.ecommerce_backend.entities.Category;
 import com.nikhil.ecommerce_backend.entities.Product;
-import com.nikhil.ecommerce_backend.repositories.CategoryRepository;
+import com.nikhil.ecommerce_backend.entities.ProductRatingStats;
+import com.nikhil.ecommerce_backend.repositories.ProductRepository;
+import com.nikhil.ecommerce_backend.services.common.FileStorageService;
+import com.nikhil.ecommerce_backend.services.common.ImageVariant;
+import com.nikhil.ecommerce_backend.services.common.ProductImageVariantRegistry;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageImpl;
 import org.springframework.data.domain.PageRequest;
 import org.springframework.data.domain.Pageable;
 import org.springframework.data.domain.Sort;
@@ -15,15 +21,65 @@ import org.springframework.stereotype.Service;
 import org.springframework.web.servlet.support.ServletUriComponentsBuilder;
 
 import java.util.*;
+import java.util.function.Function;
 import java.util.stream.Collectors;
 
 @Service
 public class ProductServiceCommon {
 
     private final ObjectMapper objectMapper;
+    private final ProductRepository productRepository;
+    private final FileStorageService fileStorageService;
+    private final ProductImageVariantRegistry variantRegistry;
 
-    public ProductServiceCommon(ObjectMapper objectMapper) {
+    public ProductServiceCommon(ObjectMapper objectMapper, ProductRepository productRepository,
+                                FileStorageService fileStorageService, ProductImageVariantRegistry variantRegistry) {
         this.objectMapper = objectMapper;
+        this.productRepository = productRepository;
+        this.fileStorageService = fileStorageService;
+        this.variantRegistry = variantRegistry;
+    }
+
+    /**
+     * Maps a page of products after loading the category and variations of the whole page with one
+     * query, instead of one lazy load per product during mapping.
+     */
+    public <T> Page<T> mapWithVariations(Page<Product> page, Function<Product, T> mapper) {
+        Map<Long, Product> loaded = loadWithVariations(page.getContent());
+        return page.map(product -> mapper.apply(loaded.getOrDefault(product.getId(), product)));
+    }
+
+    public <T> List<T> mapWithVariations(List<Product> products, Function<Product, T> mapper) {
+        Map<Long, Product> loaded = loadWithVariations(products);
+        return products.stream()
+                .map(product -> mapper.apply(loaded.getOrDefault(product.getId(), product)))
+                .collect(Collectors.toList());
+    }
+
+    /**
+     * Maps a page of search hits, keeping the relevance order of the ids.
+     */
+    public <T> Page<T> mapSearchHits(Page<Long> hits, Function<Product, T> mapper) {
+        if (hits.isEmpty()) {
+            return new PageImpl<>(Collections.emptyList(), hits.getPageable(), hits.getTotalElements());
+        }
+        Map<Long, Product> loaded = productRepository.findAllWithVariationsByIdIn(hits.getContent()).stream()
+                .collect(Collectors.toMap(Product::getId, Function.identity()));
+        List<T> content = hits.getContent().stream()
+                .map(loaded::get)
+                .filter(Objects::nonNull)
+                .map(mapper)
+                .collect(Collectors.toList());
+        return new PageImpl<>(content, hits.getPageable(), hits.getTotalElements());
+    }
+
+    private Map<Long, Product> loadWithVariations(List<Product> products) {
+        if (products.isEmpty()) {
+            return Collections.emptyMap();
+        }
+        List<Long> ids = products.stream().map(Product::getId).collect(Collectors.toList());
+        return productRepository.findAllWithVariationsByIdIn(ids).stream()
+                .collect(Collectors.toMap(Product::getId, Function.identity()));
     }
 
     public String buildImageUrl(String imageName) {
@@ -35,6 +91,24 @@ public class ProductServiceCommon {
                 .toUriString();
     }
 
+    /**
+     * Builds the url of a resized variant, falling back to the original while the variants have not been
+     * generated yet. Readiness comes from {@link ProductImageVariantRegistry}, not the disk.
+     */
+    public String buildImageUrl(String imageName, ImageVariant variant) {
+        if (imageName == null || imageName.isBlank()) return null;
+
+        if (!variantRegistry.isReady(imageName)) {
+            return buildImageUrl(imageName);
+        }
+        return ServletUriComponentsBuilder.fromCurrentContextPath()
+                .path("/uploads/products/")
+                .path(variant.getDirectory())
+                .path("/")
+                .path(fileStorageService.getProductImageVariantName(imageName))
+                .toUriString();
+    }
+
     public Pageable buildPageable(int max, int offset, String sort, String order) {
         Sort.Direction direction = order.equalsIgnoreCase("desc") ? Sort.Direction.DESC : Sort.Direction.ASC;
         return PageRequest.of(offset, max, Sort.by(direction, sort));
@@ -52,7 +126,7 @@ public class ProductServiceCommon {
                         .price(variation.getPrice())
                         .quantityAvailable(variation.getQuantityAvailable())
                         .isActive(variation.isActive())
-                        .primaryImageUrl(buildImageUrl(variation.getPrimaryImageName()))
+                        .primaryImageUrl(buildImageUrl(variation.getPrimaryImageName(), ImageVariant.THUMBNAIL))
                         .build())
                 .collect(Collectors.toList());
 
@@ -75,11 +149,11 @@ public class ProductServiceCommon {
                 .build();
 
         List<CustomerProductView.Variation> variationDtos = product.getVariations().stream().map(variation -> {
-            String primaryImageUrl = buildImageUrl(variation.getPrimaryImageName());
+            String primaryImageUrl = buildImageUrl(variation.getPrimaryImageName(), ImageVariant.DETAIL);
 
             List<CustomerProductView.Image> imageDtos = variation.getSecondaryImages().stream()
                     .map(image -> CustomerProductView.Image.builder()
-                            .imageUrl(buildImageUrl(image.getImageName()))
+                            .imageUrl(buildImageUrl(image.getImageName(), ImageVariant.DETAIL))
                             .build())
                     .collect(Collectors.toList());
 
@@ -100,6 +174,7 @@ public class ProductServiceCommon {
                 .description(product.getDescription())
                 .brand(product.getBrand())
                 .category(categoryDto)
+                .ratings(toRatingView(product))
                 .variations(variationDtos)
                 .build();
     }
@@ -119,7 +194,7 @@ public class ProductServiceCommon {
                             .price(variation.getPrice())
                             .quantityAvailable(variation.getQuantityAvailable())
                             .metadata(metadataMap)
-                            .primaryImage(buildImageUrl(variation.getPrimaryImageName()))
+                            .primaryImage(buildImageUrl(variation.getPrimaryImageName(), ImageVariant.LISTING))
                             .build();
                 }).collect(Collectors.toList());
 
@@ -128,10 +203,23 @@ public class ProductServiceCommon {
                 .name(product.getName())
                 .brand(product.getBrand())
                 .category(categoryDto)
+                .ratings(toRatingView(product))
                 .variations(variationDtos)
                 .build();
     }
 
+    /**
+     * Reads the rating counts kept on the product row, so no review is loaded.
+     */
+    public RatingView toRatingView(Product product) {
+        ProductRatingStats stats = product.getRatingStats();
+        return RatingView.builder()
+                .average(stats.getAverage())
+                .count(stats.getCount())
+                .histogram(stats.getHistogram())
+                .build();
+    }
+
     public ProductResponse toSellerDto(Product product) {
         ProductResponse.Category categoryDto = ProductResponse.Category.builder()
                 .id(product.getCategory().getId())
@@ -149,18 +237,4 @@ public class ProductServiceCommon {
                 .category(categoryDto)
                 .build();
     }
-
-    public List<Long> getCategoryAndDescendants(Long categoryId, CategoryRepository categoryRepository) {
-        List<Long> result = new ArrayList<>();
-        collectIds(categoryId, categoryRepository, result);
-        return result;
-    }
-
-    private void collectIds(Long categoryId, CategoryRepository categoryRepository, List<Long> result) {
-        result.add(categoryId);
-        List<Category> children = categoryRepository.findByParentCategory_Id(categoryId);
-        for (Category child : children) {
-            collectIds(child.getId(), categoryRepository, result);
-        }
-    }
 }
@@ -1,14 +1,20 @@
 package com.nikhil.ecommerce_backend.services.admin;
 import com.nikhil.ecommerce_backend.dto.admin.*;
 import com.nikhil.ecommerce_backend.entities.*;
+import com.nikhil.ecommerce_backend.events.CategoryChangedEvent;
+import com.nikhil.ecommerce_backend.events.CategoryMetadataChangedEvent;
+import com.nikhil.ecommerce_backend.events.ProductChangedEvent;
+import com.nikhil.ecommerce_backend.events.UserStatusChangedEvent;
 import com.nikhil.ecommerce_backend.exceptions.ResourceAlreadyExistsException;
 import com.nikhil.ecommerce_backend.exceptions.ResourceNotFoundException;
 import com.nikhil.ecommerce_backend.repositories.*;
 import com.nikhil.ecommerce_backend.repositories.specifications.ProductSpecification;
 import com.nikhil.ecommerce_backend.services.ProductServiceCommon;
+import com.nikhil.ecommerce_backend.services.common.CategoryTreeIndex;
 import com.nikhil.ecommerce_backend.services.common.EmailService;
 import org.springframework.transaction.annotation.Transactional;
 import lombok.RequiredArgsConstructor;
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.context.MessageSource;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.PageRequest;
@@ -35,6 +41,8 @@ public class AdminServiceImpl implements AdminService {
     private final ProductRepository productRepository;
     private final ProductSpecification productSpecification;
     private final ProductServiceCommon productServiceCommon;
+    private final CategoryTreeIndex categoryTreeIndex;
+    private final ApplicationEventPublisher eventPublisher;
 
     @Override
     @Transactional(readOnly = true)
@@ -106,6 +114,7 @@ public class AdminServiceImpl implements AdminService {
 
         customer.setActive(true);
         customerRepository.save(customer);
+        eventPublisher.publishEvent(new UserStatusChangedEvent(customer.getEmail()));
 
         emailService.sendAccountActivatedByAdminEmail(customer.getEmail(), locale);
 
@@ -123,6 +132,7 @@ public class AdminServiceImpl implements AdminService {
 
         customer.setActive(false);
         customerRepository.save(customer);
+        eventPublisher.publishEvent(new UserStatusChangedEvent(customer.getEmail()));
 
         emailService.sendAccountDeactivatedByAdminEmail(customer.getEmail(), locale);
 
@@ -140,6 +150,7 @@ public class AdminServiceImpl implements AdminService {
 
         seller.setActive(true);
         sellerRepository.save(seller);
+        eventPublisher.publishEvent(new UserStatusChangedEvent(seller.getEmail()));
 
         emailService.sendAccountActivatedByAdminEmail(seller.getEmail(), locale);
 
@@ -157,6 +168,7 @@ public class AdminServiceImpl implements AdminService {
 
         seller.setActive(false);
         sellerRepository.save(seller);
+        eventPublisher.publishEvent(new UserStatusChangedEvent(seller.getEmail()));
 
         emailService.sendAccountDeactivatedByAdminEmail(seller.getEmail(), locale);
 
@@ -248,6 +260,7 @@ public class AdminServiceImpl implements AdminService {
         newCategory.setParentCategory(parent);
 
         Category savedCategory = categoryRepository.save(newCategory);
+        eventPublisher.publishEvent(new CategoryChangedEvent(savedCategory.getId()));
         return messageSource.getMessage(
                 "category.add.success",
                 new Object[]{savedCategory.getId()},
@@ -261,9 +274,7 @@ public class AdminServiceImpl implements AdminService {
         Category category = categoryRepository.findById(id)
                 .orElseThrow(() -> new ResourceNotFoundException("category.not.found"));
 
-        List<Category> children = categoryRepository.findByParentCategory_Id(id);
-
-        return mapToCategoryResponse(category, children);
+        return mapToCategoryResponse(category);
     }
 
     @Override
@@ -280,29 +291,16 @@ public class AdminServiceImpl implements AdminService {
             return Page.empty(pageable);
         }
 
-        List<Long> categoryIdsOnPage = categoriesOnPage.stream().map(Category::getId).toList();
-        List<Category> allChildren = categoryRepository.findByParentCategoryIdIn(categoryIdsOnPage);
-
-        Map<Long, List<Category>> childrenByParentId = allChildren.stream()
-                .collect(Collectors.groupingBy(c -> c.getParentCategory().getId()));
-
-        return categoriesOnPage.map(category -> {
-            List<Category> children = childrenByParentId.getOrDefault(category.getId(), Collections.emptyList());
-            return mapToCategoryResponse(category, children);
-        });
+        return categoriesOnPage.map(this::mapToCategoryResponse);
     }
 
-    private CategoryResponse mapToCategoryResponse(Category category, List<Category> children) {
-        List<CategorySummary> parents = new ArrayList<>();
-        Category currentParent = category.getParentCategory();
-        while (currentParent != null) {
-            parents.add(new CategorySummary(currentParent.getId(), currentParent.getName()));
-            currentParent = currentParent.getParentCategory();
-        }
-        Collections.reverse(parents);
+    private CategoryResponse mapToCategoryResponse(Category category) {
+        List<CategorySummary> parents = categoryTreeIndex.getAncestorIds(category.getId()).stream()
+                .map(parentId -> new CategorySummary(parentId, categoryTreeIndex.getName(parentId)))
+                .toList();
 
-        List<CategorySummary> childrenDtos = children.stream()
-                .map(child -> new CategorySummary(child.getId(), child.getName()))
+        List<CategorySummary> childrenDtos = categoryTreeIndex.getChildIds(category.getId()).stream()
+                .map(childId -> new CategorySummary(childId, categoryTreeIndex.getName(childId)))
                 .toList();
 
         Map<String, List<String>> metadata = category.getCategoryMetadataFieldVales()
@@ -360,6 +358,7 @@ public class AdminServiceImpl implements AdminService {
 
         category.setName(name);
         categoryRepository.save(category);
+        eventPublisher.publishEvent(new CategoryChangedEvent(category.getId()));
 
         return messageSource.getMessage(
                 "category.update.success",
@@ -369,17 +368,7 @@ public class AdminServiceImpl implements AdminService {
     }
 
     private boolean hasChildWithSameName(Long categoryId, String name) {
-        List<Category> children = categoryRepository.findByParentCategory_Id(categoryId);
-
-        for (Category child : children) {
-            if (child.getName().equalsIgnoreCase(name)) {
-                return true;
-            }
-            if (hasChildWithSameName(child.getId(), name)) {
-                return true;
-            }
-        }
-        return false;
+        return categoryTreeIndex.hasDescendantNamed(categoryId, name);
     }
 
     @Transactional
@@ -424,6 +413,7 @@ public class AdminServiceImpl implements AdminService {
                 cmfv.setValue(new ArrayList<>(uniqueValues));
                 categoryMetadataFieldValuesRepository.save(cmfv);
             }
+            eventPublisher.publishEvent(new CategoryMetadataChangedEvent(category.getId()));
         }
         return messageSource.getMessage("category.metadata.add.success", null, locale);
     }
@@ -472,6 +462,7 @@ public class AdminServiceImpl implements AdminService {
                 cmfv.setValue(new ArrayList<>(mergedValues));
                 categoryMetadataFieldValuesRepository.save(cmfv);
             }
+            eventPublisher.publishEvent(new CategoryMetadataChangedEvent(category.getId()));
         }
 
         return messageSource.getMessage("category.metadata.update.success", null, locale);
@@ -500,7 +491,7 @@ public class AdminServiceImpl implements AdminService {
         Pageable pageable = productServiceCommon.buildPageable(max, offset, sort, order);
         Page<Product> productPage = productRepository.findAll(spec, pageable);
 
-        return productPage.map(productServiceCommon::toAdminDto);
+        return productServiceCommon.mapWithVariations(productPage, productServiceCommon::toAdminDto);
     }
 
     @Override
@@ -517,6 +508,7 @@ public class AdminServiceImpl implements AdminService {
 
         product.setIsActive(false);
         productRepository.save(product);
+        eventPublisher.publishEvent(new ProductChangedEvent(product.getId(), product.getCategory().getId()));
 
 
         emailService.sendProductDeactivationEmail(product, locale);
@@ -539,6 +531,7 @@ public class AdminServiceImpl implements AdminService {
 
         product.setIsActive(true);
         productRepository.save(product);
+        eventPublisher.publishEvent(new ProductChangedEvent(product.getId(), product.getCategory().getId()));
 
 
         emailService.sendProductActivationEmail(product, locale);
@@ -9,14 +9,17 @@ import com.nikhil.ecommerce_backend.dto.general.LoginResponse;
 import com.nikhil.ecommerce_backend.dto.seller.SellerRegisterRequest;
 import com.nikhil.ecommerce_backend.dto.seller.UpdateAddressRequest;
 import com.nikhil.ecommerce_backend.entities.*;
+import com.nikhil.ecommerce_backend.events.UserStatusChangedEvent;
 import com.nikhil.ecommerce_backend.exceptions.*;
 import com.nikhil.ecommerce_backend.repositories.*;
 import com.nikhil.ecommerce_backend.security.CustomUserDetailsService;
 import com.nikhil.ecommerce_backend.security.JwtUtil;
+import com.nikhil.ecommerce_backend.security.VerifiedToken;
 import com.nikhil.ecommerce_backend.services.common.EmailService;
 import com.nikhil.ecommerce_backend.services.common.TokenBlacklistCache;
 import jakarta.transaction.Transactional;
 import lombok.RequiredArgsConstructor;
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.security.authentication.AuthenticationManager;
 import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
 import org.springframework.security.core.Authentication;
@@ -44,6 +47,7 @@ public class AuthServiceImpl implements AuthService {
     private final RefreshTokenService refreshTokenService;
     private final TokenBlacklistCache  tokenBlacklistCache;
     private final CustomUserDetailsService customUserDetailsService;
+    private final ApplicationEventPublisher eventPublisher;
 
     @Override
     public void registerCustomer(CustomerRegisterRequest request, Locale locale) {
@@ -150,6 +154,7 @@ public class AuthServiceImpl implements AuthService {
         User user = activationToken.getUser();
         user.setActive(true);
         userRepository.save(user);
+        eventPublisher.publishEvent(new UserStatusChangedEvent(user.getEmail()));
         emailService.notifyActivation(user.getEmail(), locale);
         tokenRepository.delete(activationToken);
     }
@@ -208,17 +213,16 @@ public class AuthServiceImpl implements AuthService {
             throw new TokenException("token.already.logged.out");
         }
 
-        if (!jwtUtil.validateToken(token)) {
+        VerifiedToken verifiedToken;
+        try {
+            verifiedToken = jwtUtil.verify(token);
+        } catch (Exception ex) {
             throw new TokenException("token.invalid");
         }
 
-        LocalDateTime expiry = jwtUtil.extractExpiration(token);
+        tokenBlacklistCache.cacheBlacklistedToken(token, verifiedToken.getExpirationDateTime());
 
-        tokenBlacklistCache.cacheBlacklistedToken(token, expiry);
-
-        String email = jwtUtil.extractEmail(token);
-
-        User user = userRepository.findByEmailAndIsDeletedFalse(email)
+        User user = userRepository.findByEmailAndIsDeletedFalse(verifiedToken.getEmail())
                 .orElseThrow(() -> new ResourceNotFoundException("user.not.found"));
 
         refreshTokenService.deleteByUserId(user.getId());
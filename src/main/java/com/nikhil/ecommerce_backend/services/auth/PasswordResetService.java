@@ -3,6 +3,7 @@ package com.nikhil.ecommerce_backend.services.auth;
 import com.nikhil.ecommerce_backend.dto.general.ResetPasswordRequest;
 import com.nikhil.ecommerce_backend.entities.PasswordResetToken;
 import com.nikhil.ecommerce_backend.entities.User;
+import com.nikhil.ecommerce_backend.events.UserStatusChangedEvent;
 import com.nikhil.ecommerce_backend.exceptions.TokenException;
 import com.nikhil.ecommerce_backend.repositories.PasswordResetTokenRepository;
 import com.nikhil.ecommerce_backend.repositories.UserRepository;
@@ -10,6 +11,7 @@ import com.nikhil.ecommerce_backend.services.common.EmailService;
 import jakarta.transaction.Transactional;
 import lombok.RequiredArgsConstructor;
 import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.security.crypto.password.PasswordEncoder;
 import org.springframework.stereotype.Service;
 
@@ -25,6 +27,7 @@ public class PasswordResetService {
     private final UserRepository userRepo;
     private final EmailService emailService;
     private final PasswordEncoder passwordEncoder;
+    private final ApplicationEventPublisher eventPublisher;
 
     @Value("${app.token.password-reset-duration-minutes}")
     private long prtExp;
@@ -65,6 +68,7 @@ public class PasswordResetService {
         user.setLocked(false);
         user.setInvalid_attempt_count(0);
         userRepo.save(user);
+        eventPublisher.publishEvent(new UserStatusChangedEvent(user.getEmail()));
 
         tokenRepo.delete(resetToken);
 
@@ -0,0 +1,26 @@
+package com.nikhil.ecommerce_backend.services.cart;
+
+import com.nikhil.ecommerce_backend.dto.customer.AddToCartRequest;
+import com.nikhil.ecommerce_backend.dto.customer.CartResponse;
+
+import java.util.Collection;
+import java.util.Map;
+
+public interface CartService {
+    CartResponse getCart(String email);
+
+    String addToCart(String email, AddToCartRequest request);
+
+    String updateCartItem(String email, Long variationId, Integer quantity);
+
+    String removeFromCart(String email, Long variationId);
+
+    String clearCart(String email);
+
+    /**
+     * Returns variation id to quantity for every item in the cart.
+     */
+    Map<Long, Integer> getCartItems(String email);
+
+    void removeItems(String email, Collection<Long> variationIds);
+}
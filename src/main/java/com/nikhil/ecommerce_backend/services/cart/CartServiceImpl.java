@@ -0,0 +1,251 @@
+package com.nikhil.ecommerce_backend.services.cart;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.nikhil.ecommerce_backend.dto.customer.AddToCartRequest;
+import com.nikhil.ecommerce_backend.dto.customer.CartResponse;
+import com.nikhil.ecommerce_backend.entities.Cart;
+import com.nikhil.ecommerce_backend.exceptions.ResourceNotFoundException;
+import com.nikhil.ecommerce_backend.repositories.CartRepository;
+import com.nikhil.ecommerce_backend.repositories.CustomerRepository;
+import com.nikhil.ecommerce_backend.repositories.ProductVariationRepository;
+import com.nikhil.ecommerce_backend.services.ProductServiceCommon;
+import com.nikhil.ecommerce_backend.services.common.ImageVariant;
+import com.nikhil.ecommerce_backend.services.common.VariationSnapshotCache;
+import com.nikhil.ecommerce_backend.services.inventory.InventoryService;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Cart edits only touch the {@link CartStore} and the {@link VariationSnapshotCache}. The {@code cart}
+ * table is written behind: dirty carts are drained on a fixed delay and each batch is reconciled against
+ * its rows in a single transaction.
+ * <p>
+ * Stock shown here is advisory. Units of a hot SKU may sit in another node's lease, so edits only reject
+ * variations that cannot be bought at all and the reservation at checkout decides whether enough is left.
+ */
+@Service
+public class CartServiceImpl implements CartService {
+
+    private static final Logger logger = LoggerFactory.getLogger(CartServiceImpl.class);
+
+    private final CartStore cartStore;
+    private final CartRepository cartRepository;
+    private final CustomerRepository customerRepository;
+    private final ProductVariationRepository productVariationRepository;
+    private final VariationSnapshotCache variationSnapshotCache;
+    private final InventoryService inventoryService;
+    private final ProductServiceCommon productServiceCommon;
+    private final TransactionTemplate transactionTemplate;
+    private final int flushBatchSize;
+    private final Cache<String, Long> customerIds;
+
+    public CartServiceImpl(CartStore cartStore, CartRepository cartRepository, CustomerRepository customerRepository,
+                           ProductVariationRepository productVariationRepository,
+                           VariationSnapshotCache variationSnapshotCache, InventoryService inventoryService,
+                           ProductServiceCommon productServiceCommon,
+                           PlatformTransactionManager transactionManager,
+                           @Value("${app.cart.flush-batch-size}") int flushBatchSize,
+                           @Value("${app.cart.customer-id-cache.max-size}") long customerIdCacheSize) {
+        this.cartStore = cartStore;
+        this.cartRepository = cartRepository;
+        this.customerRepository = customerRepository;
+        this.productVariationRepository = productVariationRepository;
+        this.variationSnapshotCache = variationSnapshotCache;
+        this.inventoryService = inventoryService;
+        this.productServiceCommon = productServiceCommon;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.flushBatchSize = flushBatchSize;
+        this.customerIds = Caffeine.newBuilder().maximumSize(customerIdCacheSize).build();
+    }
+
+    @Override
+    public CartResponse getCart(String email) {
+        Map<Long, Integer> items = loadCart(findCustomerId(email));
+        Map<Long, VariationSnapshotCache.Snapshot> snapshots = variationSnapshotCache.getAll(items.keySet());
+
+        List<CartResponse.Item> itemDtos = new ArrayList<>();
+        double totalPrice = 0;
+        for (Map.Entry<Long, Integer> entry : items.entrySet()) {
+            VariationSnapshotCache.Snapshot snapshot = snapshots.get(entry.getKey());
+            if (snapshot == null) {
+                continue;
+            }
+            int quantity = entry.getValue();
+            double lineTotal = snapshot.getPrice() * quantity;
+            int available = snapshot.getQuantityAvailable() + inventoryService.leasedQuantity(snapshot.getVariationId());
+            boolean inStock = snapshot.isPurchasable() && available >= quantity;
+            if (inStock) {
+                totalPrice += lineTotal;
+            }
+            itemDtos.add(CartResponse.Item.builder()
+                    .variationId(snapshot.getVariationId())
+                    .productId(snapshot.getProductId())
+                    .productName(snapshot.getProductName())
+                    .brand(snapshot.getBrand())
+                    .metadata(snapshot.getMetadata())
+                    .imageUrl(productServiceCommon.buildImageUrl(snapshot.getPrimaryImageName(), ImageVariant.THUMBNAIL))
+                    .price(snapshot.getPrice())
+                    .quantity(quantity)
+                    .lineTotal(lineTotal)
+                    .inStock(inStock)
+                    .build());
+        }
+
+        return CartResponse.builder()
+                .items(itemDtos)
+                .totalPrice(totalPrice)
+                .build();
+    }
+
+    @Override
+    public String addToCart(String email, AddToCartRequest request) {
+        Long customerId = findCustomerId(email);
+        Map<Long, Integer> items = loadCart(customerId);
+        int quantity = items.getOrDefault(request.getVariationId(), 0) + request.getQuantity();
+        checkPurchasable(request.getVariationId());
+        cartStore.put(customerId, request.getVariationId(), quantity);
+        return "cart.item.added";
+    }
+
+    @Override
+    public String updateCartItem(String email, Long variationId, Integer quantity) {
+        if (quantity == null || quantity <= 0) {
+            throw new IllegalArgumentException("cart.quantity.invalid");
+        }
+        Long customerId = findCustomerId(email);
+        if (!loadCart(customerId).containsKey(variationId)) {
+            throw new ResourceNotFoundException("cart.item.not.found");
+        }
+        checkPurchasable(variationId);
+        cartStore.put(customerId, variationId, quantity);
+        return "cart.item.updated";
+    }
+
+    @Override
+    public String removeFromCart(String email, Long variationId) {
+        Long customerId = findCustomerId(email);
+        if (!loadCart(customerId).containsKey(variationId)) {
+            throw new ResourceNotFoundException("cart.item.not.found");
+        }
+        cartStore.remove(customerId, variationId);
+        return "cart.item.removed";
+    }
+
+    @Override
+    public String clearCart(String email) {
+        cartStore.clear(findCustomerId(email));
+        return "cart.cleared";
+    }
+
+    @Override
+    public Map<Long, Integer> getCartItems(String email) {
+        return loadCart(findCustomerId(email));
+    }
+
+    @Override
+    public void removeItems(String email, Collection<Long> variationIds) {
+        Long customerId = findCustomerId(email);
+        loadCart(customerId);
+        variationIds.forEach(variationId -> cartStore.remove(customerId, variationId));
+    }
+
+    @Scheduled(fixedDelayString = "${app.cart.flush-interval-ms}")
+    public void flush() {
+        Set<Long> dirty = cartStore.drainDirty(flushBatchSize);
+        while (!dirty.isEmpty()) {
+            Map<Long, Map<Long, Integer>> carts = new HashMap<>();
+            for (Long customerId : dirty) {
+                Map<Long, Integer> items = cartStore.get(customerId);
+                if (items != null) {
+                    carts.put(customerId, items);
+                }
+            }
+            try {
+                transactionTemplate.executeWithoutResult(status -> write(carts));
+            } catch (RuntimeException ex) {
+                cartStore.markDirty(dirty);
+                logger.warn("Could not write {} carts, will retry", dirty.size(), ex);
+                return;
+            }
+            dirty = cartStore.drainDirty(flushBatchSize);
+        }
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        flush();
+    }
+
+    private void write(Map<Long, Map<Long, Integer>> carts) {
+        if (carts.isEmpty()) {
+            return;
+        }
+        Map<Long, Map<Long, Integer>> pending = new HashMap<>();
+        carts.forEach((customerId, items) -> pending.put(customerId, new HashMap<>(items)));
+
+        List<Cart> changed = new ArrayList<>();
+        List<Cart> removed = new ArrayList<>();
+        for (Cart row : cartRepository.findByCustomerIdIn(carts.keySet())) {
+            Integer quantity = pending.get(row.getCustomer().getId()).remove(row.getProductVariation().getId());
+            if (quantity == null) {
+                removed.add(row);
+            } else if (!quantity.equals(row.getQuantity())) {
+                row.setQuantity(quantity);
+                changed.add(row);
+            }
+        }
+        pending.forEach((customerId, items) -> items.forEach((variationId, quantity) -> {
+            Cart row = new Cart();
+            row.setCustomer(customerRepository.getReferenceById(customerId));
+            row.setProductVariation(productVariationRepository.getReferenceById(variationId));
+            row.setQuantity(quantity);
+            changed.add(row);
+        }));
+
+        cartRepository.deleteAllInBatch(removed);
+        cartRepository.saveAll(changed);
+    }
+
+    /**
+     * Returns a copy of the cart, seeding the store from the {@code cart} table on first access.
+     */
+    private Map<Long, Integer> loadCart(Long customerId) {
+        Map<Long, Integer> items = cartStore.get(customerId);
+        if (items != null) {
+            return items;
+        }
+        Map<Long, Integer> persisted = new HashMap<>();
+        for (Object[] row : cartRepository.findItemsByCustomerId(customerId)) {
+            persisted.put((Long) row[0], (Integer) row[1]);
+        }
+        cartStore.load(customerId, persisted);
+        items = cartStore.get(customerId);
+        return items != null ? items : persisted;
+    }
+
+    private void checkPurchasable(Long variationId) {
+        VariationSnapshotCache.Snapshot snapshot = variationSnapshotCache.get(variationId);
+        if (snapshot == null || !snapshot.isPurchasable()) {
+            throw new IllegalArgumentException("cart.item.unavailable");
+        }
+    }
+
+    private Long findCustomerId(String email) {
+        return customerIds.get(email, key -> customerRepository.findIdByEmail(key)
+                .orElseThrow(() -> new ResourceNotFoundException("customer.profile.not.found")));
+    }
+}
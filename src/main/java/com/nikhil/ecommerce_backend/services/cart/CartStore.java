@@ -0,0 +1,32 @@
+package com.nikhil.ecommerce_backend.services.cart;
+
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Working copy of customer carts, keyed by customer id and mapping variation id to quantity. Every
+ * change marks the cart dirty; {@link CartServiceImpl} periodically drains the dirty set and writes
+ * the affected carts to the {@code cart} table in one batch.
+ */
+public interface CartStore {
+
+    /**
+     * Returns the cart, or {@code null} when the store does not hold it and it must be loaded first.
+     */
+    Map<Long, Integer> get(Long customerId);
+
+    /**
+     * Seeds the store with the persisted cart unless another request loaded it in the meantime.
+     */
+    void load(Long customerId, Map<Long, Integer> items);
+
+    void put(Long customerId, Long variationId, int quantity);
+
+    void remove(Long customerId, Long variationId);
+
+    void clear(Long customerId);
+
+    Set<Long> drainDirty(int max);
+
+    void markDirty(Set<Long> customerIds);
+}
@@ -0,0 +1,78 @@
+package com.nikhil.ecommerce_backend.services.cart;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.Iterator;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * In-process store for single-node deployments. Carts idle for longer than the configured time are
+ * dropped from memory and reloaded from the database on the next access.
+ */
+@Component
+@ConditionalOnProperty(name = "app.cart.store", havingValue = "local", matchIfMissing = true)
+public class LocalCartStore implements CartStore {
+
+    private final Cache<Long, Map<Long, Integer>> carts;
+    private final Set<Long> dirty = ConcurrentHashMap.newKeySet();
+
+    public LocalCartStore(@Value("${app.cart.local.idle-minutes}") long idleMinutes) {
+        this.carts = Caffeine.newBuilder().expireAfterAccess(Duration.ofMinutes(idleMinutes)).build();
+    }
+
+    @Override
+    public Map<Long, Integer> get(Long customerId) {
+        Map<Long, Integer> items = carts.getIfPresent(customerId);
+        return items == null ? null : new HashMap<>(items);
+    }
+
+    @Override
+    public void load(Long customerId, Map<Long, Integer> items) {
+        carts.asMap().putIfAbsent(customerId, new ConcurrentHashMap<>(items));
+    }
+
+    @Override
+    public void put(Long customerId, Long variationId, int quantity) {
+        carts.get(customerId, id -> new ConcurrentHashMap<>()).put(variationId, quantity);
+        dirty.add(customerId);
+    }
+
+    @Override
+    public void remove(Long customerId, Long variationId) {
+        Map<Long, Integer> items = carts.getIfPresent(customerId);
+        if (items != null && items.remove(variationId) != null) {
+            dirty.add(customerId);
+        }
+    }
+
+    @Override
+    public void clear(Long customerId) {
+        carts.put(customerId, new ConcurrentHashMap<>());
+        dirty.add(customerId);
+    }
+
+    @Override
+    public Set<Long> drainDirty(int max) {
+        Set<Long> drained = new HashSet<>();
+        Iterator<Long> iterator = dirty.iterator();
+        while (iterator.hasNext() && drained.size() < max) {
+            drained.add(iterator.next());
+            iterator.remove();
+        }
+        return drained;
+    }
+
+    @Override
+    public void markDirty(Set<Long> customerIds) {
+        dirty.addAll(customerIds);
+    }
+}
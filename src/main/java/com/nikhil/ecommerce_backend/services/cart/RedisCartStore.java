@@ -0,0 +1,116 @@
+package com.nikhil.ecommerce_backend.services.cart;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.data.redis.core.HashOperations;
+import org.springframework.data.redis.core.StringRedisTemplate;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Keeps each cart as a Redis hash of variation id to quantity, shared by every node. A marker field tells
+ * a loaded empty cart apart from one that has expired from Redis, and dirty customer ids live in a set so
+ * whichever node flushes next picks them up.
+ */
+@Component
+@ConditionalOnProperty(name = "app.cart.store", havingValue = "redis")
+public class RedisCartStore implements CartStore {
+
+    private static final String KEY_PREFIX = "cart:";
+    private static final String DIRTY_KEY = "cart-dirty";
+    private static final String LOADED_FIELD = "loaded";
+
+    private final StringRedisTemplate redisTemplate;
+    private final HashOperations<String, String, String> hashes;
+    private final Duration ttl;
+
+    public RedisCartStore(StringRedisTemplate redisTemplate, @Value("${app.cart.redis-ttl-days}") long ttlDays) {
+        this.redisTemplate = redisTemplate;
+        this.hashes = redisTemplate.opsForHash();
+        this.ttl = Duration.ofDays(ttlDays);
+    }
+
+    @Override
+    public Map<Long, Integer> get(Long customerId) {
+        Map<String, String> entries = hashes.entries(key(customerId));
+        if (entries.isEmpty()) {
+            return null;
+        }
+        Map<Long, Integer> items = new HashMap<>();
+        entries.forEach((field, value) -> {
+            if (!LOADED_FIELD.equals(field)) {
+                items.put(Long.valueOf(field), Integer.valueOf(value));
+            }
+        });
+        return items;
+    }
+
+    @Override
+    public void load(Long customerId, Map<Long, Integer> items) {
+        String key = key(customerId);
+        if (Boolean.TRUE.equals(hashes.putIfAbsent(key, LOADED_FIELD, "1"))) {
+            Map<String, String> fields = new HashMap<>();
+            items.forEach((variationId, quantity) -> fields.put(String.valueOf(variationId), String.valueOf(quantity)));
+            if (!fields.isEmpty()) {
+                hashes.putAll(key, fields);
+            }
+            redisTemplate.expire(key, ttl);
+        }
+    }
+
+    @Override
+    public void put(Long customerId, Long variationId, int quantity) {
+        String key = key(customerId);
+        hashes.put(key, String.valueOf(variationId), String.valueOf(quantity));
+        touch(customerId, key);
+    }
+
+    @Override
+    public void remove(Long customerId, Long variationId) {
+        String key = key(customerId);
+        if (hashes.delete(key, String.valueOf(variationId)) > 0) {
+            touch(customerId, key);
+        }
+    }
+
+    @Override
+    public void clear(Long customerId) {
+        String key = key(customerId);
+        redisTemplate.delete(key);
+        hashes.put(key, LOADED_FIELD, "1");
+        touch(customerId, key);
+    }
+
+    @Override
+    public Set<Long> drainDirty(int max) {
+        List<String> popped = redisTemplate.opsForSet().pop(DIRTY_KEY, max);
+        Set<Long> drained = new HashSet<>();
+        if (popped != null) {
+            popped.forEach(id -> drained.add(Long.valueOf(id)));
+        }
+        return drained;
+    }
+
+    @Override
+    public void markDirty(Set<Long> customerIds) {
+        if (!customerIds.isEmpty()) {
+            redisTemplate.opsForSet().add(DIRTY_KEY, customerIds.stream().map(String::valueOf).toArray(String[]::new));
+        }
+    }
+
+    private void touch(Long customerId, String key) {
+        hashes.putIfAbsent(key, LOADED_FIELD, "1");
+        redisTemplate.expire(key, ttl);
+        redisTemplate.opsForSet().add(DIRTY_KEY, String.valueOf(customerId));
+    }
+
+    private String key(Long customerId) {
+        return KEY_PREFIX + customerId;
+    }
+}
@@ -0,0 +1,132 @@
+package com.nikhil.ecommerce_backend.services.common;
+
+import com.nikhil.ecommerce_backend.dto.customer.PriceRange;
+import com.nikhil.ecommerce_backend.events.ProductChangedEvent;
+import com.nikhil.ecommerce_backend.repositories.ProductRepository;
+import lombok.RequiredArgsConstructor;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeSet;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Brand and price facets of active products, kept per category and merged on demand over a subtree.
+ * The first read loads every category with two grouped queries; afterwards a committed
+ * {@link ProductChangedEvent} only reloads the facets of the product's own category. The reload queries
+ * run outside the map and the result is swapped in only if no later event for that category started
+ * meanwhile. Brands are matched exactly, so names that differ only in case stay separate facets.
+ */
+@Component
+@RequiredArgsConstructor
+public class CategoryFacetIndex {
+
+    private final ProductRepository productRepository;
+
+    private final AtomicLong version = new AtomicLong();
+    private final Map<Long, AtomicLong> categoryVersions = new ConcurrentHashMap<>();
+    private volatile Map<Long, Facets> facets;
+
+    public List<String> getBrands(Collection<Long> categoryIds) {
+        Map<Long, Facets> current = facets();
+        Set<String> brands = new TreeSet<>();
+        for (Long categoryId : categoryIds) {
+            Facets categoryFacets = current.get(categoryId);
+            if (categoryFacets != null) {
+                brands.addAll(categoryFacets.brands);
+            }
+        }
+        return new ArrayList<>(brands);
+    }
+
+    public PriceRange getPriceRange(Collection<Long> categoryIds) {
+        Map<Long, Facets> current = facets();
+        Double min = null;
+        Double max = null;
+        for (Long categoryId : categoryIds) {
+            Facets categoryFacets = current.get(categoryId);
+            if (categoryFacets == null || categoryFacets.minPrice == null) {
+                continue;
+            }
+            min = min == null ? categoryFacets.minPrice : Math.min(min, categoryFacets.minPrice);
+            max = max == null ? categoryFacets.maxPrice : Math.max(max, categoryFacets.maxPrice);
+        }
+        return new PriceRange(min, max);
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onProductChanged(ProductChangedEvent event) {
+        version.incrementAndGet();
+        Map<Long, Facets> current = facets;
+        Long categoryId = event.getCategoryId();
+        if (current == null || categoryId == null) {
+            return;
+        }
+        AtomicLong categoryVersion = categoryVersions.computeIfAbsent(categoryId, id -> new AtomicLong());
+        long expected = categoryVersion.incrementAndGet();
+        Facets loaded = loadCategory(categoryId);
+        current.compute(categoryId, (id, old) -> categoryVersion.get() == expected ? loaded : old);
+    }
+
+    private Facets loadCategory(Long categoryId) {
+        List<Long> ids = List.of(categoryId);
+        List<String> brands = productRepository.findDistinctBrandsByCategoryIdIn(ids);
+        if (brands.isEmpty()) {
+            return null;
+        }
+        PriceRange priceRange = productRepository.findPriceRangeByCategoryIdIn(ids);
+        return new Facets(new TreeSet<>(brands), priceRange.getMinPrice(), priceRange.getMaxPrice());
+    }
+
+    private Map<Long, Facets> facets() {
+        Map<Long, Facets> current = facets;
+        if (current == null) {
+            synchronized (this) {
+                current = facets;
+                if (current == null) {
+                    long expected = version.get();
+                    current = loadAll();
+                    if (version.get() == expected) {
+                        facets = current;
+                    }
+                }
+            }
+        }
+        return current;
+    }
+
+    private Map<Long, Facets> loadAll() {
+        Map<Long, Set<String>> brands = new HashMap<>();
+        for (Object[] row : productRepository.findActiveBrandsGroupedByCategory()) {
+            brands.computeIfAbsent((Long) row[0], id -> new TreeSet<>()).add((String) row[1]);
+        }
+        Map<Long, Facets> loaded = new ConcurrentHashMap<>();
+        brands.forEach((categoryId, categoryBrands) -> loaded.put(categoryId, new Facets(categoryBrands, null, null)));
+        for (Object[] row : productRepository.findPriceRangesGroupedByCategory()) {
+            Facets categoryFacets = loaded.get((Long) row[0]);
+            if (categoryFacets != null) {
+                loaded.put((Long) row[0], new Facets(categoryFacets.brands, (Double) row[1], (Double) row[2]));
+            }
+        }
+        return loaded;
+    }
+
+    private static final class Facets {
+        private final Set<String> brands;
+        private final Double minPrice;
+        private final Double maxPrice;
+
+        private Facets(Set<String> brands, Double minPrice, Double maxPrice) {
+            this.brands = brands;
+            this.minPrice = minPrice;
+            this.maxPrice = maxPrice;
+        }
+    }
+}
@@ -0,0 +1,71 @@
+package com.nikhil.ecommerce_backend.services.common;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.nikhil.ecommerce_backend.entities.CategoryMetadataFieldValues;
+import com.nikhil.ecommerce_backend.events.CategoryMetadataChangedEvent;
+import com.nikhil.ecommerce_backend.repositories.CategoryMetadataFieldValuesRepository;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Allowed metadata values per category, keyed by lower-cased field name. A category's schema is read
+ * once and dropped when a {@link CategoryMetadataChangedEvent} for it commits.
+ */
+@Component
+public class CategoryMetadataSchemaCache {
+
+    private final CategoryMetadataFieldValuesRepository categoryMetadataFieldValuesRepository;
+    private final Cache<Long, Map<String, Set<String>>> schemas;
+
+    public CategoryMetadataSchemaCache(CategoryMetadataFieldValuesRepository categoryMetadataFieldValuesRepository,
+                                       @Value("${app.cache.category-metadata.max-size}") long maxSize) {
+        this.categoryMetadataFieldValuesRepository = categoryMetadataFieldValuesRepository;
+        this.schemas = Caffeine.newBuilder().maximumSize(maxSize).build();
+    }
+
+    public boolean isValueValid(Long categoryId, String fieldName, String value) {
+        Set<String> allowed = getSchema(categoryId).get(fieldName.toLowerCase(Locale.ROOT));
+        return allowed != null && allowed.contains(value);
+    }
+
+    public void validate(Long categoryId, Map<String, String> metadata) {
+        for (Map.Entry<String, String> entry : metadata.entrySet()) {
+            if (!isValueValid(categoryId, entry.getKey(), entry.getValue())) {
+                throw new IllegalArgumentException("metadata.value.invalid");
+            }
+        }
+    }
+
+    public Map<String, Set<String>> getSchema(Long categoryId) {
+        return schemas.get(categoryId, this::load);
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onCategoryMetadataChanged(CategoryMetadataChangedEvent event) {
+        schemas.invalidate(event.getCategoryId());
+    }
+
+    private Map<String, Set<String>> load(Long categoryId) {
+        Map<String, Set<String>> schema = new HashMap<>();
+        List<CategoryMetadataFieldValues> rows = categoryMetadataFieldValuesRepository.findAllByCategoryId(List.of(categoryId));
+        for (CategoryMetadataFieldValues row : rows) {
+            if (row.getValue() == null) {
+                continue;
+            }
+            schema.computeIfAbsent(row.getCategoryMetaDataField().getName().toLowerCase(Locale.ROOT), name -> new HashSet<>())
+                    .addAll(row.getValue());
+        }
+        schema.replaceAll((name, values) -> Collections.unmodifiableSet(values));
+        return Collections.unmodifiableMap(schema);
+    }
+}
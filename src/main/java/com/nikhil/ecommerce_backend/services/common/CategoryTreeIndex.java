@@ -0,0 +1,240 @@
+package com.nikhil.ecommerce_backend.services.common;
+
+import com.nikhil.ecommerce_backend.events.CategoryChangedEvent;
+import com.nikhil.ecommerce_backend.repositories.CategoryRepository;
+import lombok.RequiredArgsConstructor;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * In-memory copy of the category hierarchy. The whole {@code categories} table is read with a single
+ * query and kept as flat arrays so that subtree, ancestor and leaf lookups never touch the database.
+ * The snapshot is dropped after any committed category change and rebuilt lazily on the next read.
+ */
+@Component
+@RequiredArgsConstructor
+public class CategoryTreeIndex {
+
+    private final CategoryRepository categoryRepository;
+
+    private final AtomicLong version = new AtomicLong();
+    private volatile Snapshot snapshot;
+
+    public boolean contains(Long categoryId) {
+        return categoryId != null && snapshot().indexOf(categoryId) >= 0;
+    }
+
+    public boolean isLeaf(Long categoryId) {
+        Snapshot s = snapshot();
+        int node = s.indexOf(categoryId);
+        return node >= 0 && s.childStart[node] == s.childStart[node + 1];
+    }
+
+    public String getName(Long categoryId) {
+        Snapshot s = snapshot();
+        int node = s.indexOf(categoryId);
+        return node >= 0 ? s.names[node] : null;
+    }
+
+    /**
+     * Returns the category itself followed by every descendant, in depth-first order.
+     */
+    public List<Long> getCategoryAndDescendantIds(Long categoryId) {
+        Snapshot s = snapshot();
+        int node = s.indexOf(categoryId);
+        if (node < 0) {
+            return Collections.emptyList();
+        }
+        int from = s.enter[node];
+        int to = s.exit[node];
+        List<Long> ids = new ArrayList<>(to - from);
+        for (int i = from; i < to; i++) {
+            ids.add(s.ids[s.preorder[i]]);
+        }
+        return ids;
+    }
+
+    public List<Long> getRootIds() {
+        Snapshot s = snapshot();
+        List<Long> ids = new ArrayList<>();
+        for (int i = 0; i < s.ids.length; i++) {
+            if (s.parent[i] < 0) {
+                ids.add(s.ids[i]);
+            }
+        }
+        return ids;
+    }
+
+    public List<Long> getChildIds(Long categoryId) {
+        Snapshot s = snapshot();
+        int node = s.indexOf(categoryId);
+        if (node < 0) {
+            return Collections.emptyList();
+        }
+        List<Long> ids = new ArrayList<>(s.childStart[node + 1] - s.childStart[node]);
+        for (int i = s.childStart[node]; i < s.childStart[node + 1]; i++) {
+            ids.add(s.ids[s.children[i]]);
+        }
+        return ids;
+    }
+
+    /**
+     * Returns the ancestors of the category ordered from the root down to the immediate parent.
+     */
+    public List<Long> getAncestorIds(Long categoryId) {
+        Snapshot s = snapshot();
+        int node = s.indexOf(categoryId);
+        if (node < 0) {
+            return Collections.emptyList();
+        }
+        List<Long> ids = new ArrayList<>();
+        for (int p = s.parent[node]; p >= 0; p = s.parent[p]) {
+            ids.add(s.ids[p]);
+        }
+        Collections.reverse(ids);
+        return ids;
+    }
+
+    public boolean hasDescendantNamed(Long categoryId, String name) {
+        Snapshot s = snapshot();
+        int node = s.indexOf(categoryId);
+        if (node < 0) {
+            return false;
+        }
+        for (int i = s.enter[node] + 1; i < s.exit[node]; i++) {
+            if (s.names[s.preorder[i]].equalsIgnoreCase(name)) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    public void invalidate() {
+        version.incrementAndGet();
+        snapshot = null;
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onCategoryChanged(CategoryChangedEvent event) {
+        invalidate();
+    }
+
+    private Snapshot snapshot() {
+        Snapshot current = snapshot;
+        if (current == null) {
+            synchronized (this) {
+                current = snapshot;
+                if (current == null) {
+                    long expected = version.get();
+                    current = Snapshot.build(categoryRepository.findAllForTreeIndex());
+                    if (version.get() == expected) {
+                        snapshot = current;
+                    }
+                }
+            }
+        }
+        return current;
+    }
+
+    private static final class Snapshot {
+        private final long[] ids;
+        private final String[] names;
+        private final int[] parent;
+        private final int[] childStart;
+        private final int[] children;
+        private final int[] preorder;
+        private final int[] enter;
+        private final int[] exit;
+
+        private Snapshot(long[] ids, String[] names, int[] parent, int[] childStart, int[] children,
+                         int[] preorder, int[] enter, int[] exit) {
+            this.ids = ids;
+            this.names = names;
+            this.parent = parent;
+            this.childStart = childStart;
+            this.children = children;
+            this.preorder = preorder;
+            this.enter = enter;
+            this.exit = exit;
+        }
+
+        private int indexOf(Long categoryId) {
+            if (categoryId == null) {
+                return -1;
+            }
+            int node = Arrays.binarySearch(ids, categoryId);
+            return node >= 0 ? node : -1;
+        }
+
+        private static Snapshot build(List<Object[]> result) {
+            List<Object[]> rows = new ArrayList<>(result);
+            rows.sort((a, b) -> Long.compare((Long) a[0], (Long) b[0]));
+            int n = rows.size();
+
+            long[] ids = new long[n];
+            String[] names = new String[n];
+            for (int i = 0; i < n; i++) {
+                ids[i] = (Long) rows.get(i)[0];
+                names[i] = (String) rows.get(i)[2];
+            }
+
+            int[] parent = new int[n];
+            int[] childStart = new int[n + 1];
+            for (int i = 0; i < n; i++) {
+                Long parentId = (Long) rows.get(i)[1];
+                int p = parentId == null ? -1 : Arrays.binarySearch(ids, parentId);
+                parent[i] = p >= 0 ? p : -1;
+                if (parent[i] >= 0) {
+                    childStart[parent[i] + 1]++;
+                }
+            }
+            for (int i = 0; i < n; i++) {
+                childStart[i + 1] += childStart[i];
+            }
+            int[] children = new int[childStart[n]];
+            int[] fill = Arrays.copyOf(childStart, n);
+            for (int i = 0; i < n; i++) {
+                if (parent[i] >= 0) {
+                    children[fill[parent[i]]++] = i;
+                }
+            }
+
+            int[] preorder = new int[n];
+            int[] enter = new int[n];
+            int[] exit = new int[n];
+            int[] stack = new int[n];
+            int[] cursor = new int[n];
+            int visited = 0;
+            for (int root = 0; root < n; root++) {
+                if (parent[root] >= 0) {
+                    continue;
+                }
+                int top = 0;
+                stack[top] = root;
+                cursor[root] = childStart[root];
+                enter[root] = visited;
+                preorder[visited++] = root;
+                while (top >= 0) {
+                    int node = stack[top];
+                    if (cursor[node] < childStart[node + 1]) {
+                        int child = children[cursor[node]++];
+                        cursor[child] = childStart[child];
+                        enter[child] = visited;
+                        preorder[visited++] = child;
+                        stack[++top] = child;
+                    } else {
+                        exit[node] = visited;
+                        top--;
+                    }
+                }
+            }
+            return new Snapshot(ids, names, parent, childStart, children, preorder, enter, exit);
+        }
+    }
+}
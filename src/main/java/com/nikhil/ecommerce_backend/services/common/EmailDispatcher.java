@@ -0,0 +1,239 @@
+package com.nikhil.ecommerce_backend.services.common;
+
+import com.nikhil.ecommerce_backend.constants.EmailOutboxStatus;
+import com.nikhil.ecommerce_backend.entities.EmailOutbox;
+import com.nikhil.ecommerce_backend.repositories.EmailOutboxRepository;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import jakarta.mail.internet.AddressException;
+import jakarta.mail.internet.InternetAddress;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.mail.MailException;
+import org.springframework.mail.MailSendException;
+import org.springframework.mail.SimpleMailMessage;
+import org.springframework.mail.javamail.JavaMailSender;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.IdentityHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.Executor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Drains the {@link EmailOutbox}. Due mails are claimed in batches, which are sent over a single SMTP
+ * connection and paced to {@code app.mail.outbox.max-per-second}. A failed mail is retried with
+ * exponential backoff and parked as {@link EmailOutboxStatus#FAILED} after the last attempt; a mail
+ * whose recipient does not parse is parked right away, as it would otherwise fail its whole batch. A claim
+ * pushes the next attempt past the lease, so mails of a node that dies mid-batch are picked up again.
+ * Drains run on the {@code mailExecutor}, one at a time, so pacing never holds a scheduler thread.
+ */
+@Component
+public class EmailDispatcher {
+
+    private static final Logger logger = LoggerFactory.getLogger(EmailDispatcher.class);
+
+    private final EmailOutboxRepository emailOutboxRepository;
+    private final JavaMailSender mailSender;
+    private final Executor mailExecutor;
+    private final TransactionTemplate transactionTemplate;
+    private final int batchSize;
+    private final int maxAttempts;
+    private final Duration lease;
+    private final Duration initialBackoff;
+    private final Duration maxBackoff;
+    private final long nanosPerMail;
+    private final int retentionDays;
+
+    private final AtomicBoolean draining = new AtomicBoolean();
+    private final AtomicLong pending = new AtomicLong();
+    private final Counter sent;
+    private final Counter retried;
+    private final Counter failed;
+    private final Timer deliveryLatency;
+    private long nextSendNanos = System.nanoTime();
+
+    public EmailDispatcher(EmailOutboxRepository emailOutboxRepository, JavaMailSender mailSender,
+                           @Qualifier("mailExecutor") Executor mailExecutor,
+                           PlatformTransactionManager transactionManager, MeterRegistry meterRegistry,
+                           @Value("${app.mail.outbox.batch-size}") int batchSize,
+                           @Value("${app.mail.outbox.max-attempts}") int maxAttempts,
+                           @Value("${app.mail.outbox.lease-seconds}") long leaseSeconds,
+                           @Value("${app.mail.outbox.initial-backoff-seconds}") long initialBackoffSeconds,
+                           @Value("${app.mail.outbox.max-backoff-seconds}") long maxBackoffSeconds,
+                           @Value("${app.mail.outbox.max-per-second}") int maxPerSecond,
+                           @Value("${app.mail.outbox.retention-days}") int retentionDays) {
+        this.emailOutboxRepository = emailOutboxRepository;
+        this.mailSender = mailSender;
+        this.mailExecutor = mailExecutor;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.batchSize = batchSize;
+        this.maxAttempts = maxAttempts;
+        this.lease = Duration.ofSeconds(leaseSeconds);
+        this.initialBackoff = Duration.ofSeconds(initialBackoffSeconds);
+        this.maxBackoff = Duration.ofSeconds(maxBackoffSeconds);
+        this.nanosPerMail = TimeUnit.SECONDS.toNanos(1) / maxPerSecond;
+        this.retentionDays = retentionDays;
+
+        Gauge.builder("mail.outbox.pending", pending, AtomicLong::get).register(meterRegistry);
+        this.sent = Counter.builder("mail.outbox.sent").register(meterRegistry);
+        this.retried = Counter.builder("mail.outbox.retried").register(meterRegistry);
+        this.failed = Counter.builder("mail.outbox.failed").register(meterRegistry);
+        this.deliveryLatency = Timer.builder("mail.outbox.delivery.latency")
+                .description("Time from enqueue to handing the mail to the SMTP server")
+                .publishPercentiles(0.5, 0.95, 0.99)
+                .register(meterRegistry);
+    }
+
+    @Scheduled(fixedDelayString = "${app.mail.outbox.poll-interval-ms}")
+    public void poll() {
+        if (!draining.get()) {
+            mailExecutor.execute(this::dispatch);
+        }
+    }
+
+    public void dispatch() {
+        if (!draining.compareAndSet(false, true)) {
+            return;
+        }
+        try {
+            List<EmailOutbox> batch;
+            do {
+                batch = claim();
+                if (!batch.isEmpty()) {
+                    deliver(batch);
+                }
+            } while (batch.size() == batchSize);
+            pending.set(emailOutboxRepository.countByStatus(EmailOutboxStatus.PENDING));
+        } finally {
+            draining.set(false);
+        }
+    }
+
+    @Scheduled(cron = "${app.mail.outbox.purge-cron}")
+    public void purgeSent() {
+        int purged = emailOutboxRepository.deleteSentBefore(LocalDateTime.now().minusDays(retentionDays));
+        if (purged > 0) {
+            logger.info("Purged {} sent mails from the outbox", purged);
+        }
+    }
+
+    private List<EmailOutbox> claim() {
+        return transactionTemplate.execute(status -> {
+            LocalDateTime now = LocalDateTime.now();
+            List<EmailOutbox> due = emailOutboxRepository.findDueForUpdate(EmailOutboxStatus.PENDING, now,
+                    PageRequest.of(0, batchSize));
+            for (EmailOutbox email : due) {
+                email.setAttempts(email.getAttempts() + 1);
+                email.setNextAttemptAt(now.plus(lease));
+            }
+            return due;
+        });
+    }
+
+    private void deliver(List<EmailOutbox> batch) {
+        Map<SimpleMailMessage, EmailOutbox> messages = new IdentityHashMap<>();
+        for (EmailOutbox email : batch) {
+            try {
+                new InternetAddress(email.getRecipient(), true);
+            } catch (AddressException ex) {
+                park(email, ex, LocalDateTime.now());
+                continue;
+            }
+            SimpleMailMessage message = new SimpleMailMessage();
+            message.setTo(email.getRecipient());
+            message.setSubject(email.getSubject());
+            message.setText(email.getBody());
+            messages.put(message, email);
+        }
+        if (messages.isEmpty()) {
+            return;
+        }
+
+        pace(messages.size());
+        Map<Object, Exception> failures = new IdentityHashMap<>();
+        try {
+            mailSender.send(messages.keySet().toArray(new SimpleMailMessage[0]));
+        } catch (MailSendException ex) {
+            failures.putAll(ex.getFailedMessages());
+            if (failures.isEmpty()) {
+                messages.keySet().forEach(message -> failures.put(message, ex));
+            }
+        } catch (MailException ex) {
+            messages.keySet().forEach(message -> failures.put(message, ex));
+        }
+
+        LocalDateTime now = LocalDateTime.now();
+        List<Long> delivered = new ArrayList<>();
+        for (Map.Entry<SimpleMailMessage, EmailOutbox> entry : messages.entrySet()) {
+            EmailOutbox email = entry.getValue();
+            Exception failure = failures.get(entry.getKey());
+            if (failure == null) {
+                delivered.add(email.getId());
+                deliveryLatency.record(Duration.between(email.getCreatedAt(), now));
+            } else {
+                recordFailure(email, failure, now);
+            }
+        }
+        if (!delivered.isEmpty()) {
+            emailOutboxRepository.markSent(delivered, now);
+            sent.increment(delivered.size());
+        }
+    }
+
+    private void recordFailure(EmailOutbox email, Exception failure, LocalDateTime now) {
+        if (email.getAttempts() >= maxAttempts) {
+            park(email, failure, now);
+            return;
+        }
+        long factor = 1L << Math.min(email.getAttempts() - 1, 20);
+        Duration backoff = initialBackoff.multipliedBy(factor);
+        if (backoff.compareTo(maxBackoff) > 0) {
+            backoff = maxBackoff;
+        }
+        emailOutboxRepository.markFailedAttempt(email.getId(), EmailOutboxStatus.PENDING, now.plus(backoff),
+                describe(failure));
+        retried.increment();
+    }
+
+    private void park(EmailOutbox email, Exception failure, LocalDateTime now) {
+        emailOutboxRepository.markFailedAttempt(email.getId(), EmailOutboxStatus.FAILED, now, describe(failure));
+        failed.increment();
+        logger.warn("Giving up on mail {} to {} after {} attempts", email.getId(), email.getRecipient(),
+                email.getAttempts(), failure);
+    }
+
+    private static String describe(Exception failure) {
+        String error = String.valueOf(failure.getMessage());
+        return error.length() > 500 ? error.substring(0, 500) : error;
+    }
+
+    /**
+     * Blocks until sending {@code count} more mails keeps the dispatcher within its rate.
+     */
+    private void pace(int count) {
+        long wait = nextSendNanos - System.nanoTime();
+        if (wait > 0) {
+            try {
+                TimeUnit.NANOSECONDS.sleep(wait);
+            } catch (InterruptedException ex) {
+                Thread.currentThread().interrupt();
+            }
+        }
+        nextSendNanos = Math.max(nextSendNanos, System.nanoTime()) + count * nanosPerMail;
+    }
+}
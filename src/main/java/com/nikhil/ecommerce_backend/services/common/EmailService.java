@@ -1,21 +1,30 @@
 package com.nikhil.ecommerce_backend.services.common;
 
+import com.nikhil.ecommerce_backend.entities.EmailOutbox;
+import com.nikhil.ecommerce_backend.entities.Order;
+import com.nikhil.ecommerce_backend.entities.OrderProduct;
 import com.nikhil.ecommerce_backend.entities.Product;
+import com.nikhil.ecommerce_backend.entities.Seller;
+import com.nikhil.ecommerce_backend.repositories.EmailOutboxRepository;
 import lombok.RequiredArgsConstructor;
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.context.MessageSource;
 import org.springframework.mail.SimpleMailMessage;
-import org.springframework.mail.javamail.JavaMailSender;
-import org.springframework.scheduling.annotation.Async;
 import org.springframework.stereotype.Service;
 
+import java.time.LocalDateTime;
+import java.util.List;
 import java.util.Locale;
 
+/**
+ * Composes mails and writes them to the {@link EmailOutbox} in the caller's transaction, so a mail is only
+ * queued when the change it reports commits. Delivery is done by {@link EmailDispatcher}.
+ */
 @Service
 @RequiredArgsConstructor
 public class EmailService {
 
-    private final JavaMailSender mailSender;
+    private final EmailOutboxRepository emailOutboxRepository;
     private final MessageSource messageSource;
 
     @Value("${app.base-url}")
@@ -24,81 +33,72 @@ public class EmailService {
     @Value("${admin.mail}")
     private String adminMail;
 
-    @Async
     public void sendActivationEmail(String to, String token, Locale locale) {
         String activationLink = baseUrl + "/auth/activate?token=" + token;
         SimpleMailMessage message = new SimpleMailMessage();
         message.setTo(to);
         message.setSubject(messageSource.getMessage("email.activation.subject", null, locale));
         message.setText(messageSource.getMessage("email.activation.body", new Object[]{activationLink}, locale));
-        mailSender.send(message);
+        enqueue(message);
     }
 
-    @Async
     public void notifyActivation(String to, Locale locale) {
         SimpleMailMessage message = new SimpleMailMessage();
         message.setTo(to);
         message.setSubject(messageSource.getMessage("email.activation.success.subject", null, locale));
         message.setText(messageSource.getMessage("email.activation.success.body", null, locale));
-        mailSender.send(message);
+        enqueue(message);
     }
 
-    @Async
     public void sendSellerPendingApprovalEmail(String to, Locale locale) {
         SimpleMailMessage message = new SimpleMailMessage();
         message.setTo(to);
         message.setSubject(messageSource.getMessage("email.seller.pending.approval.subject", null, locale));
         message.setText(messageSource.getMessage("email.seller.pending.body", null, locale));
-        mailSender.send(message);
+        enqueue(message);
     }
 
-    @Async
     public void sendAccountLockedEmail(String to, Locale locale) {
         SimpleMailMessage message = new SimpleMailMessage();
         message.setTo(to);
         message.setSubject(messageSource.getMessage("email.account.locked.subject", null, locale));
         message.setText(messageSource.getMessage("email.account.locked.body", null, locale));
-        mailSender.send(message);
+        enqueue(message);
     }
 
-    @Async
     public void sendPasswordChangedEmail(String to, Locale locale) {
         SimpleMailMessage message = new SimpleMailMessage();
         message.setTo(to);
         message.setSubject(messageSource.getMessage("email.password.changed.subject", null, locale));
         message.setText(messageSource.getMessage("email.password.changed.body", null, locale));
-        mailSender.send(message);
+        enqueue(message);
     }
 
-    @Async
     public void sendPasswordResetEmail(String to, String token, Locale locale) {
         String resetLink = baseUrl + "/auth/reset-password?token=" + token;
         SimpleMailMessage message = new SimpleMailMessage();
         message.setTo(to);
         message.setSubject(messageSource.getMessage("email.password.reset.subject", null, locale));
         message.setText(messageSource.getMessage("email.password.reset.body", new Object[]{resetLink}, locale));
-        mailSender.send(message);
+        enqueue(message);
     }
 
-    @Async
     public void sendAccountActivatedByAdminEmail(String to, Locale locale) {
         SimpleMailMessage message = new SimpleMailMessage();
         message.setTo(to);
         message.setSubject(messageSource.getMessage("email.admin.activated.subject", null, locale));
         message.setText(messageSource.getMessage("email.admin.activated.body", null, locale));
-        mailSender.send(message);
+        enqueue(message);
     }
 
-    @Async
     public void sendAccountDeactivatedByAdminEmail(String to, Locale locale) {
         SimpleMailMessage message = new SimpleMailMessage();
         message.setTo(to);
         message.setSubject(messageSource.getMessage("email.admin.deactivated.subject", null, locale));
         message.setText(messageSource.getMessage("email.admin.deactivated.body", null, locale));
-        mailSender.send(message);
+        enqueue(message);
     }
 
-    @Async
     public void sendProductActivationEmailToAdmin(Product product)
     {
         SimpleMailMessage message = new SimpleMailMessage();
@@ -112,9 +112,24 @@ public class EmailService {
                         "Category: " + product.getCategory().getName() + "\n\n" +
                         "Please log in to the admin panel to review and activate it."
         );
-        mailSender.send(message);
+        enqueue(message);
     }
-    @Async
+    public void sendProductImportDigestToAdmin(String companyName, String sellerEmail, int productCount,
+                                               List<String> sampleNames)
+    {
+        SimpleMailMessage message = new SimpleMailMessage();
+        message.setTo(adminMail);
+        message.setSubject(productCount + " New Products Awaiting Activation from " + companyName);
+        message.setText(
+                "Seller '" + companyName + "' (" + sellerEmail + ") has imported " + productCount +
+                        " products that are awaiting your approval.\n\n" +
+                        "Products include:\n- " + String.join("\n- ", sampleNames) +
+                        (productCount > sampleNames.size() ? "\n- ..." : "") + "\n\n" +
+                        "Please log in to the admin panel to review and activate them."
+        );
+        enqueue(message);
+    }
+
     public void sendProductDeactivationEmail(Product product, Locale locale) {
 
             SimpleMailMessage message = new SimpleMailMessage();
@@ -128,10 +143,9 @@ public class EmailService {
                 + "Brand: " + product.getBrand() + "\n\n"
                 + "Please contact support if you have any questions.\n\n"
                 + "Thank you,\nThe Admin Team");
-            mailSender.send(message);
+            enqueue(message);
     }
 
-    @Async
     public void sendProductActivationEmail(Product product, Locale locale) {
 
         SimpleMailMessage message = new SimpleMailMessage();
@@ -145,15 +159,61 @@ public class EmailService {
                 + "Brand: " + product.getBrand() + "\n\n"
                 + "Please contact support if you have any questions.\n\n"
                 + "Thank you,\nThe Admin Team");
-        mailSender.send(message);
+        enqueue(message);
+    }
+
+    public void sendOrderConfirmationEmail(Order order, Locale locale) {
+        SimpleMailMessage message = new SimpleMailMessage();
+        message.setTo(order.getCustomer().getEmail());
+        message.setSubject(messageSource.getMessage("email.order.confirmation.subject",
+                new Object[]{String.valueOf(order.getId())}, locale));
+        StringBuilder lines = new StringBuilder();
+        for (OrderProduct item : order.getOrderProducts()) {
+            lines.append("- ").append(item.getProductVariation().getProduct().getName())
+                    .append(" x ").append(item.getQuantity())
+                    .append(" @ ").append(item.getPrice()).append("\n");
+        }
+        message.setText("Hello " + order.getCustomer().getFirstName() + ",\n\n"
+                + "Thank you for your order. We have received it and will let you know when it ships.\n\n"
+                + "Order ID: " + order.getId() + "\n"
+                + lines + "\n"
+                + "Total: " + order.getAmountPaid() + "\n"
+                + "Payment method: " + order.getPaymentMethod() + "\n\n"
+                + "Thank you,\nThe Team");
+        enqueue(message);
+    }
+
+    public void sendNewOrderEmailToSeller(Seller seller, Long orderId, List<OrderProduct> items) {
+        SimpleMailMessage message = new SimpleMailMessage();
+        message.setTo(seller.getEmail());
+        message.setSubject("New Order #" + orderId);
+        StringBuilder lines = new StringBuilder();
+        for (OrderProduct item : items) {
+            lines.append("- ").append(item.getProductVariation().getProduct().getName())
+                    .append(" (variation ").append(item.getProductVariation().getId()).append(")")
+                    .append(" x ").append(item.getQuantity()).append("\n");
+        }
+        message.setText("Hello " + seller.getFirstName() + ",\n\n"
+                + "A customer has ordered the following items from " + seller.getCompanyName() + ":\n\n"
+                + lines + "\n"
+                + "Please log in to prepare them for shipment.");
+        enqueue(message);
     }
 
-    @Async
     public void scheduledEmail(String to, String subject, String msg ) {
         SimpleMailMessage message = new SimpleMailMessage();
         message.setTo(to);
         message.setSubject(subject);
         message.setText(msg);
-        mailSender.send(message);
+        enqueue(message);
+    }
+
+    private void enqueue(SimpleMailMessage message) {
+        EmailOutbox email = new EmailOutbox();
+        email.setRecipient(message.getTo()[0]);
+        email.setSubject(message.getSubject());
+        email.setBody(message.getText());
+        email.setNextAttemptAt(LocalDateTime.now());
+        emailOutboxRepository.save(email);
     }
 }
@@ -1,17 +1,36 @@
 package com.nikhil.ecommerce_backend.services.common;
 
 import org.springframework.web.multipart.MultipartFile;
+
+import java.nio.file.Path;
+import java.time.Instant;
+import java.util.List;
 import java.util.Optional;
+import java.util.function.BiPredicate;
 
 public interface FileStorageService {
 
     String storeProductImage(MultipartFile file, String subDirectory);
 
-    void storeUserImage(MultipartFile file, Long userId);
+    String storeUserImage(MultipartFile file, Long userId, String currentImageName);
 
-    Optional<String> findUserImageName(Long userId);
+    int migrateLegacyUserImages(BiPredicate<Long, String> claim);
 
     void deleteFile(String fileName, String subDirectory);
 
     Optional<String> findProductImage(String image);
-}
\ No newline at end of file
+
+    Path getProductImagePath(String imageName);
+
+    Path getProductImageVariantPath(String imageName, ImageVariant variant);
+
+    Path getProductImageVariantDirectory(ImageVariant variant);
+
+    String getProductImageVariantName(String imageName);
+
+    Optional<Path> resolveStoredFile(String relativePath);
+
+    List<String> listProductImageNames();
+
+    boolean deleteProductImageIfIdle(String imageName, Instant cutoff);
+}
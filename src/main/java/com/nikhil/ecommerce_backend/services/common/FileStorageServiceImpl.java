@@ -1,17 +1,32 @@
 package com.nikhil.ecommerce_backend.services.common;
 
+import com.nikhil.ecommerce_backend.events.ProductImageStoredEvent;
 import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.stereotype.Service;
 import org.springframework.util.StringUtils;
 import org.springframework.web.multipart.MultipartFile;
 
 import java.io.IOException;
+import java.io.InputStream;
+import java.io.UncheckedIOException;
 import java.nio.file.Files;
 import java.nio.file.Path;
 import java.nio.file.Paths;
 import java.nio.file.StandardCopyOption;
+import java.nio.file.attribute.FileTime;
+import java.security.DigestInputStream;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.time.Instant;
+import java.util.Arrays;
+import java.util.HexFormat;
+import java.util.List;
 import java.util.Optional;
 import java.util.UUID;
+import java.util.function.BiPredicate;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
 
 @Service
 public class FileStorageServiceImpl implements FileStorageService {
@@ -19,22 +34,39 @@ public class FileStorageServiceImpl implements FileStorageService {
     private final Path baseStorageLocation;
     private final Path userImageLocation;
     private final Path productImageLocation;
+    private final ApplicationEventPublisher eventPublisher;
     private static final String[] ALLOWED_EXTENSIONS = {"jpeg", "jpg", "png", "bmp"};
+    private static final int BLOB_LOCK_STRIPES = 64;
 
-    public FileStorageServiceImpl(@Value("${file.upload-dir}") String uploadDir) {
+    // Serialises the dedup check of an upload with the collector's delete of the same blob
+    private final Object[] blobLocks = new Object[BLOB_LOCK_STRIPES];
+
+    public FileStorageServiceImpl(@Value("${file.upload-dir}") String uploadDir,
+                                  ApplicationEventPublisher eventPublisher) {
+        this.eventPublisher = eventPublisher;
         this.baseStorageLocation = Paths.get(uploadDir).toAbsolutePath().normalize();
         this.userImageLocation = this.baseStorageLocation.resolve("users");
         this.productImageLocation = this.baseStorageLocation.resolve("products");
+        for (int i = 0; i < BLOB_LOCK_STRIPES; i++) {
+            blobLocks[i] = new Object();
+        }
 
         try {
             Files.createDirectories(baseStorageLocation);
             Files.createDirectories(userImageLocation);
             Files.createDirectories(productImageLocation);
+            for (ImageVariant variant : ImageVariant.values()) {
+                Files.createDirectories(productImageLocation.resolve(variant.getDirectory()));
+            }
         } catch (Exception ex) {
             throw new RuntimeException("Could not create the upload directories.", ex);
         }
     }
 
+    /**
+     * Stores a product image under the SHA-256 of its content, so an identical upload reuses the existing
+     * blob. Blobs are shared between variations and reclaimed by {@link ProductImageGarbageCollector}.
+     */
     @Override
     public String storeProductImage(MultipartFile file, String subDirectory) {
         if (file.isEmpty()) {
@@ -42,47 +74,174 @@ public class FileStorageServiceImpl implements FileStorageService {
         }
 
         String originalFileName = StringUtils.cleanPath(file.getOriginalFilename());
-        String extension = originalFileName.substring(originalFileName.lastIndexOf("."));
-
-        String storedFileName = UUID.randomUUID() + extension;
+        String extension = originalFileName.substring(originalFileName.lastIndexOf(".")).toLowerCase();
+        Path directory = this.baseStorageLocation.resolve(subDirectory);
+        Path stagedLocation = directory.resolve(UUID.randomUUID() + ".part");
 
         try {
-            Path targetLocation = this.baseStorageLocation.resolve(subDirectory).resolve(storedFileName);
+            MessageDigest digest = MessageDigest.getInstance("SHA-256");
+            try (InputStream input = new DigestInputStream(file.getInputStream(), digest)) {
+                Files.copy(input, stagedLocation);
+            }
+            String storedFileName = HexFormat.of().formatHex(digest.digest()) + extension;
+            Path targetLocation = directory.resolve(storedFileName);
 
-            Files.copy(file.getInputStream(), targetLocation, StandardCopyOption.REPLACE_EXISTING);
+            synchronized (blobLock(storedFileName)) {
+                if (Files.exists(targetLocation)) {
+                    Files.delete(stagedLocation);
+                    // Restarts the collector's grace period for a blob that may have been unreferenced until now
+                    Files.setLastModifiedTime(targetLocation, FileTime.from(Instant.now()));
+                    return storedFileName;
+                }
+                Files.move(stagedLocation, targetLocation, StandardCopyOption.ATOMIC_MOVE);
+            }
 
+            eventPublisher.publishEvent(new ProductImageStoredEvent(storedFileName));
             return storedFileName;
         } catch (IOException ex) {
-            throw new RuntimeException("Could not store file " + storedFileName, ex);
+            deleteQuietly(stagedLocation);
+            throw new RuntimeException("Could not store file " + originalFileName, ex);
+        } catch (NoSuchAlgorithmException ex) {
+            throw new IllegalStateException(ex);
         }
     }
 
+    /**
+     * Deletes a product image and its variants unless it was written or reused after {@code cutoff}. The
+     * check and the delete hold the blob's lock, so an upload deduplicated onto it cannot slip in between.
+     */
     @Override
-    public void storeUserImage(MultipartFile file, Long userId) {
-        findUserImageName(userId).ifPresent(oldFile -> deleteFile(oldFile, "users"));
+    public boolean deleteProductImageIfIdle(String imageName, Instant cutoff) {
+        synchronized (blobLock(imageName)) {
+            try {
+                if (!Files.getLastModifiedTime(getProductImagePath(imageName)).toInstant().isBefore(cutoff)) {
+                    return false;
+                }
+            } catch (IOException ex) {
+                return false;
+            }
+            deleteFile(imageName, "products");
+            return true;
+        }
+    }
 
+    private Object blobLock(String imageName) {
+        return blobLocks[Math.floorMod(imageName.hashCode(), BLOB_LOCK_STRIPES)];
+    }
+
+    @Override
+    public List<String> listProductImageNames() {
+        try (Stream<Path> files = Files.list(productImageLocation)) {
+            return files.filter(Files::isRegularFile)
+                    .map(path -> path.getFileName().toString())
+                    .filter(name -> !name.endsWith(".part"))
+                    .collect(Collectors.toList());
+        } catch (IOException ex) {
+            throw new UncheckedIOException(ex);
+        }
+    }
+
+    private void deleteQuietly(Path path) {
+        try {
+            Files.deleteIfExists(path);
+        } catch (IOException ignored) {
+        }
+    }
+
+    @Override
+    public Path getProductImagePath(String imageName) {
+        return productImageLocation.resolve(imageName).normalize();
+    }
+
+    @Override
+    public Path getProductImageVariantPath(String imageName, ImageVariant variant) {
+        return getProductImageVariantDirectory(variant).resolve(getProductImageVariantName(imageName)).normalize();
+    }
+
+    @Override
+    public Path getProductImageVariantDirectory(ImageVariant variant) {
+        return productImageLocation.resolve(variant.getDirectory());
+    }
+
+    /**
+     * Variants are re-encoded as JPEG, except PNG originals which keep their format for transparency.
+     */
+    @Override
+    public String getProductImageVariantName(String imageName) {
+        int dot = imageName.lastIndexOf('.');
+        String baseName = dot >= 0 ? imageName.substring(0, dot) : imageName;
+        String extension = dot >= 0 ? imageName.substring(dot + 1).toLowerCase() : "";
+        return baseName + ("png".equals(extension) ? ".png" : ".jpg");
+    }
+
+    /**
+     * Stores the image under a directory sharded on the user id and returns its name relative to the user
+     * image folder, which callers keep on the profile so reads never have to probe the disk.
+     */
+    @Override
+    public String storeUserImage(MultipartFile file, Long userId, String currentImageName) {
         String originalFileName = StringUtils.cleanPath(file.getOriginalFilename());
         String extension = originalFileName.substring(originalFileName.lastIndexOf(".") + 1).toLowerCase();
-        String storedFileName = userId + "." + extension; // User images have a predictable name
+        String storedFileName = userImageName(userId, extension);
 
         try {
             Path targetLocation = this.userImageLocation.resolve(storedFileName);
+            Files.createDirectories(targetLocation.getParent());
             Files.copy(file.getInputStream(), targetLocation, StandardCopyOption.REPLACE_EXISTING);
         } catch (IOException ex) {
             throw new RuntimeException("Could not store user image " + storedFileName, ex);
         }
+        if (currentImageName != null && !currentImageName.equals(storedFileName)) {
+            deleteFile(currentImageName, "users");
+        }
+        return storedFileName;
     }
 
+    /**
+     * Moves images left in the flat user folder by earlier versions into their shard. {@code claim} records
+     * the new name for the user and returns {@code false} when the image should be discarded instead.
+     */
     @Override
-    public Optional<String> findUserImageName(Long userId) {
-        for (String extension : ALLOWED_EXTENSIONS) {
-            Path potentialFile = userImageLocation.resolve(userId + "." + extension);
-            if (Files.exists(potentialFile)) {
-                return Optional.of(userId + "." + extension);
+    public int migrateLegacyUserImages(BiPredicate<Long, String> claim) {
+        List<Path> legacy;
+        try (Stream<Path> files = Files.list(userImageLocation)) {
+            legacy = files.filter(Files::isRegularFile).collect(Collectors.toList());
+        } catch (IOException ex) {
+            throw new UncheckedIOException(ex);
+        }
+
+        int migrated = 0;
+        for (Path file : legacy) {
+            String fileName = file.getFileName().toString();
+            int dot = fileName.lastIndexOf('.');
+            String extension = dot > 0 ? fileName.substring(dot + 1).toLowerCase() : "";
+            if (!Arrays.asList(ALLOWED_EXTENSIONS).contains(extension)
+                    || !fileName.substring(0, dot).chars().allMatch(Character::isDigit)) {
+                continue;
+            }
+            Long userId = Long.valueOf(fileName.substring(0, dot));
+            String storedFileName = userImageName(userId, extension);
+            Path targetLocation = userImageLocation.resolve(storedFileName);
+            try {
+                if (!Files.exists(targetLocation) && claim.test(userId, storedFileName)) {
+                    Files.createDirectories(targetLocation.getParent());
+                    Files.move(file, targetLocation, StandardCopyOption.ATOMIC_MOVE);
+                    migrated++;
+                } else {
+                    Files.delete(file);
+                }
+            } catch (IOException ex) {
+                throw new UncheckedIOException(ex);
             }
         }
-        return Optional.empty();
+        return migrated;
+    }
+
+    private String userImageName(Long userId, String extension) {
+        int hash = Long.hashCode(userId * 0x9E3779B97F4A7C15L);
+        return String.format("%02x/%02x/%d.%s", hash & 0xff, (hash >>> 8) & 0xff, userId, extension);
     }
+
     public Optional<String> findProductImage(String imageName) {
 
             Path potentialFile = productImageLocation.resolve(imageName);
@@ -92,11 +251,29 @@ public class FileStorageServiceImpl implements FileStorageService {
         return Optional.empty();
     }
 
+    /**
+     * Resolves a path below the upload directory, rejecting traversal outside it and staged part files.
+     */
+    @Override
+    public Optional<Path> resolveStoredFile(String relativePath) {
+        Path resolved = baseStorageLocation.resolve(relativePath).normalize();
+        if (!resolved.startsWith(baseStorageLocation) || resolved.getFileName().toString().endsWith(".part")
+                || !Files.isRegularFile(resolved)) {
+            return Optional.empty();
+        }
+        return Optional.of(resolved);
+    }
+
     @Override
     public void deleteFile(String fileName, String subDirectory) {
         try {
             Path filePath = this.baseStorageLocation.resolve(subDirectory).resolve(fileName).normalize();
             Files.deleteIfExists(filePath);
+            if (filePath.getParent().equals(productImageLocation)) {
+                for (ImageVariant variant : ImageVariant.values()) {
+                    Files.deleteIfExists(getProductImageVariantPath(fileName, variant));
+                }
+            }
         } catch (IOException ex) {
             System.err.println("Could not delete file: " + fileName + " from " + subDirectory);
         }
@@ -0,0 +1,22 @@
+package com.nikhil.ecommerce_backend.services.common;
+
+import lombok.Getter;
+
+/**
+ * Resized renditions generated for every product image. Each variant lives in its own sub directory
+ * of the product image folder and is bounded by {@link #getMaxSize()} on its longest side.
+ */
+@Getter
+public enum ImageVariant {
+    THUMBNAIL("thumbnail", 160),
+    LISTING("listing", 480),
+    DETAIL("detail", 1200);
+
+    private final String directory;
+    private final int maxSize;
+
+    ImageVariant(String directory, int maxSize) {
+        this.directory = directory;
+        this.maxSize = maxSize;
+    }
+}
@@ -0,0 +1,37 @@
+package com.nikhil.ecommerce_backend.services.common;
+
+import com.nikhil.ecommerce_backend.repositories.CustomerRepository;
+import com.nikhil.ecommerce_backend.repositories.SellerRepository;
+import lombok.RequiredArgsConstructor;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.scheduling.annotation.Async;
+import org.springframework.stereotype.Component;
+
+/**
+ * Moves profile images stored flat by earlier versions into the sharded layout and records their names
+ * on the customer or seller, once at startup. After it has run the flat folder holds no images.
+ */
+@Component
+@RequiredArgsConstructor
+public class LegacyUserImageMigrator {
+
+    private static final Logger logger = LoggerFactory.getLogger(LegacyUserImageMigrator.class);
+
+    private final FileStorageService fileStorageService;
+    private final CustomerRepository customerRepository;
+    private final SellerRepository sellerRepository;
+
+    @Async
+    @EventListener(ApplicationReadyEvent.class)
+    public void migrate() {
+        int migrated = fileStorageService.migrateLegacyUserImages((userId, imageName) ->
+                customerRepository.setImageNameIfAbsent(userId, imageName) > 0
+                        || sellerRepository.setImageNameIfAbsent(userId, imageName) > 0);
+        if (migrated > 0) {
+            logger.info("Moved {} user images into sharded directories", migrated);
+        }
+    }
+}
@@ -0,0 +1,49 @@
+package com.nikhil.ecommerce_backend.services.common;
+
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Component;
+
+import java.time.LocalDateTime;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.function.BiConsumer;
+
+/**
+ * In-process store used for single-node deployments and offline runs. It behaves like the Redis store
+ * (expiry, warm load, broadcast to subscribers) but nothing outlives the JVM.
+ */
+@Component
+@ConditionalOnProperty(name = "app.token-blacklist.store", havingValue = "local", matchIfMissing = true)
+public class LocalTokenBlacklistStore implements TokenBlacklistStore {
+
+    private final Map<String, LocalDateTime> revoked = new ConcurrentHashMap<>();
+    private final List<BiConsumer<String, LocalDateTime>> listeners = new CopyOnWriteArrayList<>();
+
+    @Override
+    public void revoke(String tokenKey, LocalDateTime expiry) {
+        revoked.put(tokenKey, expiry);
+        listeners.forEach(listener -> listener.accept(tokenKey, expiry));
+    }
+
+    @Override
+    public Map<String, LocalDateTime> loadActive() {
+        LocalDateTime now = LocalDateTime.now();
+        revoked.values().removeIf(expiry -> !expiry.isAfter(now));
+        return new HashMap<>(revoked);
+    }
+
+    @Override
+    public Optional<LocalDateTime> findRevocation(String tokenKey) {
+        LocalDateTime expiry = revoked.get(tokenKey);
+        return expiry != null && expiry.isAfter(LocalDateTime.now()) ? Optional.of(expiry) : Optional.empty();
+    }
+
+    @Override
+    public void subscribe(BiConsumer<String, LocalDateTime> listener) {
+        listeners.add(listener);
+    }
+}
@@ -0,0 +1,64 @@
+package com.nikhil.ecommerce_backend.services.common;
+
+import com.nikhil.ecommerce_backend.repositories.ProductVariationRepository;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+
+/**
+ * Mark and sweep over the content-addressed product image store. A blob is reclaimed, together with its
+ * variants, once no variation references it as primary or secondary image and it has not been written
+ * or reused for the grace period, which covers uploads whose transaction has not committed yet. The
+ * age check and the delete run under the same per-blob lock as the upload's dedup check.
+ */
+@Component
+public class ProductImageGarbageCollector {
+
+    private static final Logger logger = LoggerFactory.getLogger(ProductImageGarbageCollector.class);
+
+    private final FileStorageService fileStorageService;
+    private final ProductVariationRepository productVariationRepository;
+    private final ProductImageVariantRegistry variantRegistry;
+    private final Duration gracePeriod;
+
+    public ProductImageGarbageCollector(FileStorageService fileStorageService,
+                                        ProductVariationRepository productVariationRepository,
+                                        ProductImageVariantRegistry variantRegistry,
+                                        @Value("${app.images.gc.grace-minutes}") long graceMinutes) {
+        this.fileStorageService = fileStorageService;
+        this.productVariationRepository = productVariationRepository;
+        this.variantRegistry = variantRegistry;
+        this.gracePeriod = Duration.ofMinutes(graceMinutes);
+    }
+
+    @Scheduled(initialDelayString = "${app.images.gc.interval-ms}", fixedDelayString = "${app.images.gc.interval-ms}")
+    public void collect() {
+        Instant cutoff = Instant.now().minus(gracePeriod);
+        // Listed before the references are read, so a blob stored in between is never seen as garbage
+        List<String> stored = fileStorageService.listProductImageNames();
+        Set<String> referenced = new HashSet<>(productVariationRepository.findAllPrimaryImageNames());
+        referenced.addAll(productVariationRepository.findAllSecondaryImageNames());
+
+        int removed = 0;
+        for (String imageName : stored) {
+            if (referenced.contains(imageName)) {
+                continue;
+            }
+            if (fileStorageService.deleteProductImageIfIdle(imageName, cutoff)) {
+                variantRegistry.forget(imageName);
+                removed++;
+            }
+        }
+        if (removed > 0) {
+            logger.info("Reclaimed {} unreferenced product images out of {}", removed, stored.size());
+        }
+    }
+}
@@ -0,0 +1,170 @@
+package com.nikhil.ecommerce_backend.services.common;
+
+import com.nikhil.ecommerce_backend.events.ProductImageStoredEvent;
+import com.nikhil.ecommerce_backend.events.ProductImageVariantsReadyEvent;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.scheduling.annotation.Async;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import javax.imageio.IIOImage;
+import javax.imageio.ImageIO;
+import javax.imageio.ImageReader;
+import javax.imageio.ImageWriteParam;
+import javax.imageio.ImageWriter;
+import javax.imageio.stream.ImageInputStream;
+import javax.imageio.stream.ImageOutputStream;
+import java.awt.Color;
+import java.awt.Graphics2D;
+import java.awt.RenderingHints;
+import java.awt.image.BufferedImage;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.util.Iterator;
+
+/**
+ * Generates the {@link ImageVariant} renditions of a product image once the upload that stored it has
+ * committed. Work runs on the bounded {@code imageProcessingExecutor}; until all variants exist the
+ * original is served in their place. Images whose header declares more than {@code app.images.max-pixels}
+ * are never decoded, so a small upload cannot expand into a huge raster.
+ */
+@Component
+public class ProductImageProcessor {
+
+    private static final Logger logger = LoggerFactory.getLogger(ProductImageProcessor.class);
+
+    private final FileStorageService fileStorageService;
+    private final ProductImageVariantRegistry variantRegistry;
+    private final ApplicationEventPublisher eventPublisher;
+    private final float jpegQuality;
+    private final long maxPixels;
+
+    public ProductImageProcessor(FileStorageService fileStorageService,
+                                 ProductImageVariantRegistry variantRegistry,
+                                 ApplicationEventPublisher eventPublisher,
+                                 @Value("${app.images.jpeg-quality}") float jpegQuality,
+                                 @Value("${app.images.max-pixels}") long maxPixels) {
+        this.fileStorageService = fileStorageService;
+        this.variantRegistry = variantRegistry;
+        this.eventPublisher = eventPublisher;
+        this.jpegQuality = jpegQuality;
+        this.maxPixels = maxPixels;
+    }
+
+    @Async("imageProcessingExecutor")
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onImageStored(ProductImageStoredEvent event) {
+        generateVariants(event.getImageName());
+    }
+
+    public void generateVariants(String imageName) {
+        Path original = fileStorageService.getProductImagePath(imageName);
+        try {
+            BufferedImage source = read(original, imageName);
+            if (source == null) {
+                return;
+            }
+            boolean png = fileStorageService.getProductImageVariantName(imageName).endsWith(".png");
+            BufferedImage current = source;
+            // Largest first, so every smaller variant is scaled down from the previous one
+            ImageVariant[] variants = ImageVariant.values();
+            for (int i = variants.length - 1; i >= 0; i--) {
+                current = resize(current, variants[i].getMaxSize(), png);
+                write(current, fileStorageService.getProductImageVariantPath(imageName, variants[i]), png);
+            }
+            variantRegistry.markReady(imageName);
+            eventPublisher.publishEvent(new ProductImageVariantsReadyEvent(imageName));
+        } catch (IOException ex) {
+            logger.warn("Could not generate variants for {}", imageName, ex);
+        }
+    }
+
+    /**
+     * Decodes the image after checking the dimensions in its header, returning null when the format is
+     * unsupported or the image is larger than {@code app.images.max-pixels}.
+     */
+    private BufferedImage read(Path original, String imageName) throws IOException {
+        try (ImageInputStream input = ImageIO.createImageInputStream(original.toFile())) {
+            Iterator<ImageReader> readers = input == null ? null : ImageIO.getImageReaders(input);
+            if (readers == null || !readers.hasNext()) {
+                logger.warn("Unsupported image format, no variants generated for {}", imageName);
+                return null;
+            }
+            ImageReader reader = readers.next();
+            try {
+                reader.setInput(input, true, true);
+                long pixels = (long) reader.getWidth(0) * reader.getHeight(0);
+                if (pixels > maxPixels) {
+                    logger.warn("Image {} has {} pixels, over the limit of {}; no variants generated",
+                            imageName, pixels, maxPixels);
+                    return null;
+                }
+                return reader.read(0);
+            } finally {
+                reader.dispose();
+            }
+        }
+    }
+
+    private BufferedImage resize(BufferedImage source, int maxSize, boolean keepAlpha) {
+        int width = source.getWidth();
+        int height = source.getHeight();
+        double scale = Math.min(1d, (double) maxSize / Math.max(width, height));
+        int targetWidth = Math.max(1, (int) Math.round(width * scale));
+        int targetHeight = Math.max(1, (int) Math.round(height * scale));
+
+        BufferedImage current = source;
+        // Halving steps before the final pass keep bilinear scaling from aliasing on large reductions
+        while (current.getWidth() / 2 >= targetWidth && current.getHeight() / 2 >= targetHeight) {
+            current = draw(current, current.getWidth() / 2, current.getHeight() / 2, keepAlpha);
+        }
+        if (current == source || current.getWidth() != targetWidth || current.getHeight() != targetHeight) {
+            current = draw(current, targetWidth, targetHeight, keepAlpha);
+        }
+        return current;
+    }
+
+    private BufferedImage draw(BufferedImage source, int width, int height, boolean keepAlpha) {
+        BufferedImage target = new BufferedImage(width, height,
+                keepAlpha ? BufferedImage.TYPE_INT_ARGB : BufferedImage.TYPE_INT_RGB);
+        Graphics2D graphics = target.createGraphics();
+        try {
+            if (!keepAlpha) {
+                graphics.setColor(Color.WHITE);
+                graphics.fillRect(0, 0, width, height);
+            }
+            graphics.setRenderingHint(RenderingHints.KEY_INTERPOLATION, RenderingHints.VALUE_INTERPOLATION_BILINEAR);
+            graphics.setRenderingHint(RenderingHints.KEY_RENDERING, RenderingHints.VALUE_RENDER_QUALITY);
+            graphics.drawImage(source, 0, 0, width, height, null);
+        } finally {
+            graphics.dispose();
+        }
+        return target;
+    }
+
+    private void write(BufferedImage image, Path target, boolean png) throws IOException {
+        Path staged = target.resolveSibling(target.getFileName() + ".part");
+        Files.deleteIfExists(staged);
+        if (png) {
+            ImageIO.write(image, "png", staged.toFile());
+        } else {
+            ImageWriter writer = ImageIO.getImageWritersByFormatName("jpeg").next();
+            ImageWriteParam param = writer.getDefaultWriteParam();
+            param.setCompressionMode(ImageWriteParam.MODE_EXPLICIT);
+            param.setCompressionQuality(jpegQuality);
+            param.setProgressiveMode(ImageWriteParam.MODE_DEFAULT);
+            try (ImageOutputStream output = ImageIO.createImageOutputStream(staged.toFile())) {
+                writer.setOutput(output);
+                writer.write(null, new IIOImage(image, null, null), param);
+            } finally {
+                writer.dispose();
+            }
+        }
+        Files.move(staged, target, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+    }
+}
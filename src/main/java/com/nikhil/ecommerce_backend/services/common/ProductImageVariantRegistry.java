@@ -0,0 +1,77 @@
+package com.nikhil.ecommerce_backend.services.common;
+
+import jakarta.annotation.PostConstruct;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.stereotype.Component;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.HashSet;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+
+/**
+ * Names of the product images whose {@link ImageVariant} renditions have all been written, so building
+ * a variant url never has to probe the disk. Seeded from the variant directories on startup, then kept
+ * current by {@link ProductImageProcessor} and {@link ProductImageGarbageCollector}.
+ */
+@Component
+public class ProductImageVariantRegistry {
+
+    private static final Logger logger = LoggerFactory.getLogger(ProductImageVariantRegistry.class);
+
+    private final FileStorageService fileStorageService;
+    private final Set<String> ready = ConcurrentHashMap.newKeySet();
+
+    public ProductImageVariantRegistry(FileStorageService fileStorageService) {
+        this.fileStorageService = fileStorageService;
+    }
+
+    @PostConstruct
+    public void init() {
+        Set<String> complete = null;
+        for (ImageVariant variant : ImageVariant.values()) {
+            Set<String> written = listVariantNames(variant);
+            if (complete == null) {
+                complete = written;
+            } else {
+                complete.retainAll(written);
+            }
+        }
+        for (String imageName : fileStorageService.listProductImageNames()) {
+            if (complete.contains(fileStorageService.getProductImageVariantName(imageName))) {
+                ready.add(imageName);
+            }
+        }
+        logger.info("Found variants for {} product images", ready.size());
+    }
+
+    public boolean isReady(String imageName) {
+        return ready.contains(imageName);
+    }
+
+    public void markReady(String imageName) {
+        ready.add(imageName);
+    }
+
+    public void forget(String imageName) {
+        ready.remove(imageName);
+    }
+
+    private Set<String> listVariantNames(ImageVariant variant) {
+        Path directory = fileStorageService.getProductImageVariantDirectory(variant);
+        try (Stream<Path> files = Files.list(directory)) {
+            return files.filter(Files::isRegularFile)
+                    .map(path -> path.getFileName().toString())
+                    .filter(name -> !name.endsWith(".part"))
+                    .collect(Collectors.toCollection(HashSet::new));
+        } catch (IOException ex) {
+            throw new UncheckedIOException(ex);
+        }
+    }
+}
@@ -0,0 +1,344 @@
+package com.nikhil.ecommerce_backend.services.common;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.nikhil.ecommerce_backend.entities.Product;
+import com.nikhil.ecommerce_backend.entities.ProductVariation;
+import com.nikhil.ecommerce_backend.events.ProductChangedEvent;
+import com.nikhil.ecommerce_backend.events.ProductsImportedEvent;
+import com.nikhil.ecommerce_backend.repositories.ProductRepository;
+import jakarta.annotation.PreDestroy;
+import org.apache.lucene.analysis.Analyzer;
+import org.apache.lucene.analysis.TokenStream;
+import org.apache.lucene.analysis.standard.StandardAnalyzer;
+import org.apache.lucene.analysis.tokenattributes.CharTermAttribute;
+import org.apache.lucene.document.Document;
+import org.apache.lucene.document.Field;
+import org.apache.lucene.document.LongPoint;
+import org.apache.lucene.document.NumericDocValuesField;
+import org.apache.lucene.document.SortedDocValuesField;
+import org.apache.lucene.document.StoredField;
+import org.apache.lucene.document.StringField;
+import org.apache.lucene.document.TextField;
+import org.apache.lucene.index.IndexWriter;
+import org.apache.lucene.index.IndexWriterConfig;
+import org.apache.lucene.index.Term;
+import org.apache.lucene.search.BooleanClause;
+import org.apache.lucene.search.BooleanQuery;
+import org.apache.lucene.search.BoostQuery;
+import org.apache.lucene.search.FuzzyQuery;
+import org.apache.lucene.search.IndexSearcher;
+import org.apache.lucene.search.PrefixQuery;
+import org.apache.lucene.search.Query;
+import org.apache.lucene.search.ScoreDoc;
+import org.apache.lucene.search.SearcherManager;
+import org.apache.lucene.search.Sort;
+import org.apache.lucene.search.SortField;
+import org.apache.lucene.search.TermQuery;
+import org.apache.lucene.search.TopDocs;
+import org.apache.lucene.search.TotalHits;
+import org.apache.lucene.store.FSDirectory;
+import org.apache.lucene.util.BytesRef;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageImpl;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Pageable;
+import org.springframework.scheduling.annotation.Async;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.SortedSet;
+import java.util.TreeSet;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * Embedded Lucene index over product name, brand, description and variation metadata values. The
+ * index lives on local disk, is brought up to date from the database once the application is ready and
+ * is then kept current near-real-time from committed {@link ProductChangedEvent}s.
+ * <p>
+ * Updates run on several threads. A product's row is read and its document written under a per-product
+ * lock, so a slower update that read an older row cannot overwrite a newer one.
+ */
+@Component
+public class ProductSearchIndex {
+
+    private static final Logger logger = LoggerFactory.getLogger(ProductSearchIndex.class);
+    private static final int REINDEX_BATCH = 500;
+    private static final int LOCK_STRIPES = 64;
+
+    private static final String ID = "id";
+    private static final String NAME = "name";
+    private static final String BRAND = "brand";
+    private static final String DESCRIPTION = "description";
+    private static final String METADATA = "metadata";
+    private static final String CATEGORY_ID = "categoryId";
+    private static final String SELLER_ID = "sellerId";
+    private static final String DELETED = "deleted";
+    private static final String LISTED = "listed";
+    private static final Map<String, String> SORT_FIELDS = Map.of("id", "idSort", "name", "nameSort", "brand", "brandSort");
+
+    private final ProductRepository productRepository;
+    private final Analyzer analyzer = new StandardAnalyzer();
+    private final IndexWriter writer;
+    private final SearcherManager searcherManager;
+    private final ReentrantLock[] locks = new ReentrantLock[LOCK_STRIPES];
+
+    public ProductSearchIndex(ProductRepository productRepository,
+                              @Value("${app.search.index-dir}") String indexDir) throws IOException {
+        this.productRepository = productRepository;
+        this.writer = new IndexWriter(FSDirectory.open(Path.of(indexDir)), new IndexWriterConfig(analyzer));
+        this.searcherManager = new SearcherManager(writer, null);
+        for (int i = 0; i < LOCK_STRIPES; i++) {
+            locks[i] = new ReentrantLock();
+        }
+    }
+
+    /**
+     * Returns matching product ids ordered by relevance, or by the pageable's sort when it has one.
+     * Only {@code id}, {@code name} and {@code brand} can be sorted on.
+     *
+     * @param categoryIds restricts hits to these categories, ignored when {@code null}
+     * @param sellerId restricts hits to one seller, ignored when {@code null}
+     * @param listedOnly only products a customer can see: active, not deleted and with variations
+     */
+    public Page<Long> search(String text, Collection<Long> categoryIds, Long sellerId, boolean listedOnly,
+                             Pageable pageable) {
+        BooleanQuery.Builder query = new BooleanQuery.Builder();
+        query.add(textQuery(text), BooleanClause.Occur.MUST);
+        if (categoryIds != null) {
+            query.add(LongPoint.newSetQuery(CATEGORY_ID, categoryIds), BooleanClause.Occur.FILTER);
+        }
+        if (sellerId != null) {
+            query.add(LongPoint.newExactQuery(SELLER_ID, sellerId), BooleanClause.Occur.FILTER);
+        }
+        query.add(new TermQuery(new Term(listedOnly ? LISTED : DELETED, listedOnly ? "true" : "false")),
+                BooleanClause.Occur.FILTER);
+
+        try {
+            IndexSearcher searcher = searcherManager.acquire();
+            try {
+                Query built = query.build();
+                int end = (int) Math.min(pageable.getOffset() + pageable.getPageSize(), Integer.MAX_VALUE);
+                TopDocs topDocs = pageable.getSort().isSorted()
+                        ? searcher.search(built, Math.max(end, 1), toLuceneSort(pageable.getSort()))
+                        : searcher.search(built, Math.max(end, 1));
+                long total = topDocs.totalHits.relation == TotalHits.Relation.EQUAL_TO
+                        ? topDocs.totalHits.value
+                        : searcher.count(built);
+
+                List<Long> ids = new ArrayList<>(pageable.getPageSize());
+                ScoreDoc[] scoreDocs = topDocs.scoreDocs;
+                for (int i = (int) pageable.getOffset(); i < scoreDocs.length; i++) {
+                    ids.add(searcher.storedFields().document(scoreDocs[i].doc).getField(ID).numericValue().longValue());
+                }
+                return new PageImpl<>(ids, pageable, total);
+            } finally {
+                searcherManager.release(searcher);
+            }
+        } catch (IOException ex) {
+            throw new UncheckedIOException(ex);
+        }
+    }
+
+    @Async("searchIndexExecutor")
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onProductChanged(ProductChangedEvent event) {
+        reindex(List.of(event.getProductId()));
+        refresh();
+    }
+
+    @Async("searchIndexExecutor")
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onProductsImported(ProductsImportedEvent event) {
+        reindex(event.getProductIds());
+        refresh();
+    }
+
+    @Async("searchIndexExecutor")
+    @EventListener(ApplicationReadyEvent.class)
+    public void reindexAll() {
+        long indexed = 0;
+        List<Long> ids = productRepository.findIdsAfter(0L, PageRequest.of(0, REINDEX_BATCH));
+        while (!ids.isEmpty()) {
+            reindex(ids);
+            indexed += ids.size();
+            ids = productRepository.findIdsAfter(ids.get(ids.size() - 1), PageRequest.of(0, REINDEX_BATCH));
+        }
+        refresh();
+        commit();
+        logger.info("Product search index synchronised with {} products", indexed);
+    }
+
+    @Scheduled(fixedDelayString = "${app.search.commit-interval-ms}")
+    public void commit() {
+        try {
+            if (writer.isOpen() && writer.hasUncommittedChanges()) {
+                writer.commit();
+            }
+        } catch (IOException ex) {
+            logger.warn("Could not commit product search index", ex);
+        }
+    }
+
+    /**
+     * Reads the products and writes their documents while holding their lock stripes, taken in index
+     * order so that overlapping batches cannot deadlock.
+     */
+    private void reindex(List<Long> productIds) {
+        SortedSet<Integer> stripes = new TreeSet<>();
+        for (Long productId : productIds) {
+            stripes.add(Math.floorMod(productId.hashCode(), LOCK_STRIPES));
+        }
+        stripes.forEach(stripe -> locks[stripe].lock());
+        try {
+            Map<Long, Product> products = new HashMap<>();
+            for (Product product : productRepository.findAllWithVariationsByIdIn(productIds)) {
+                products.put(product.getId(), product);
+            }
+            for (Long productId : productIds) {
+                Term idTerm = new Term(ID, String.valueOf(productId));
+                Product product = products.get(productId);
+                if (product == null || Boolean.TRUE.equals(product.getIsDeleted())) {
+                    writer.deleteDocuments(idTerm);
+                } else {
+                    writer.updateDocument(idTerm, toDocument(product));
+                }
+            }
+        } catch (IOException ex) {
+            logger.warn("Could not index products {}", productIds, ex);
+        } finally {
+            stripes.forEach(stripe -> locks[stripe].unlock());
+        }
+    }
+
+    /**
+     * Builds the Lucene sort for the requested fields, with the id as tie-breaker like the database listings.
+     */
+    private Sort toLuceneSort(org.springframework.data.domain.Sort sort) {
+        List<SortField> fields = new ArrayList<>();
+        boolean hasId = false;
+        boolean descending = false;
+        for (org.springframework.data.domain.Sort.Order order : sort) {
+            String field = SORT_FIELDS.get(order.getProperty());
+            if (field == null) {
+                throw new IllegalArgumentException("sort.field.invalid");
+            }
+            descending = order.isDescending();
+            hasId |= order.getProperty().equals(ID);
+            fields.add(new SortField(field, ID.equals(order.getProperty()) ? SortField.Type.LONG : SortField.Type.STRING,
+                    descending));
+        }
+        if (!hasId) {
+            fields.add(new SortField(SORT_FIELDS.get(ID), SortField.Type.LONG, descending));
+        }
+        return new Sort(fields.toArray(new SortField[0]));
+    }
+
+    private void refresh() {
+        try {
+            searcherManager.maybeRefresh();
+        } catch (IOException ex) {
+            logger.warn("Could not refresh product search index", ex);
+        }
+    }
+
+    private Document toDocument(Product product) {
+        Document document = new Document();
+        document.add(new StringField(ID, String.valueOf(product.getId()), Field.Store.NO));
+        document.add(new StoredField(ID, product.getId()));
+        document.add(new NumericDocValuesField(SORT_FIELDS.get(ID), product.getId()));
+        document.add(new SortedDocValuesField(SORT_FIELDS.get(NAME), sortKey(product.getName())));
+        document.add(new SortedDocValuesField(SORT_FIELDS.get(BRAND), sortKey(product.getBrand())));
+        document.add(new TextField(NAME, product.getName(), Field.Store.NO));
+        if (product.getBrand() != null) {
+            document.add(new TextField(BRAND, product.getBrand(), Field.Store.NO));
+        }
+        if (product.getDescription() != null) {
+            document.add(new TextField(DESCRIPTION, product.getDescription(), Field.Store.NO));
+        }
+        for (ProductVariation variation : product.getVariations()) {
+            JsonNode metadata = variation.getMetadata();
+            if (metadata != null) {
+                metadata.properties().forEach(entry ->
+                        document.add(new TextField(METADATA, entry.getValue().asText(), Field.Store.NO)));
+            }
+        }
+        document.add(new LongPoint(CATEGORY_ID, product.getCategory().getId()));
+        document.add(new LongPoint(SELLER_ID, product.getSeller().getId()));
+        document.add(new StringField(DELETED, String.valueOf(product.getIsDeleted()), Field.Store.NO));
+        boolean listed = product.getIsActive() && !product.getIsDeleted() && !product.getVariations().isEmpty();
+        document.add(new StringField(LISTED, String.valueOf(listed), Field.Store.NO));
+        return document;
+    }
+
+    private static BytesRef sortKey(String value) {
+        return new BytesRef(value == null ? "" : value.toLowerCase(Locale.ROOT));
+    }
+
+    /**
+     * Every analysed term must match at least one field. Name and brand weigh more than description
+     * and metadata; the last term also matches as a prefix and longer terms tolerate typos.
+     */
+    private Query textQuery(String text) {
+        List<String> terms = analyze(text);
+        BooleanQuery.Builder all = new BooleanQuery.Builder();
+        for (int i = 0; i < terms.size(); i++) {
+            String term = terms.get(i);
+            boolean last = i == terms.size() - 1;
+            BooleanQuery.Builder any = new BooleanQuery.Builder();
+            addFieldClauses(any, NAME, term, last, 3f);
+            addFieldClauses(any, BRAND, term, last, 2f);
+            addFieldClauses(any, DESCRIPTION, term, last, 1f);
+            addFieldClauses(any, METADATA, term, last, 1f);
+            all.add(any.build(), BooleanClause.Occur.MUST);
+        }
+        return all.build();
+    }
+
+    private void addFieldClauses(BooleanQuery.Builder builder, String field, String term, boolean prefix, float boost) {
+        Term fieldTerm = new Term(field, term);
+        builder.add(new BoostQuery(new TermQuery(fieldTerm), boost * 2), BooleanClause.Occur.SHOULD);
+        if (prefix && term.length() >= 2) {
+            builder.add(new BoostQuery(new PrefixQuery(fieldTerm), boost), BooleanClause.Occur.SHOULD);
+        }
+        if (term.length() >= 4) {
+            int maxEdits = term.length() >= 8 ? 2 : 1;
+            builder.add(new BoostQuery(new FuzzyQuery(fieldTerm, maxEdits, 1), boost / 2), BooleanClause.Occur.SHOULD);
+        }
+    }
+
+    private List<String> analyze(String text) {
+        List<String> terms = new ArrayList<>();
+        try (TokenStream stream = analyzer.tokenStream(NAME, text)) {
+            CharTermAttribute attribute = stream.addAttribute(CharTermAttribute.class);
+            stream.reset();
+            while (stream.incrementToken()) {
+                terms.add(attribute.toString());
+            }
+            stream.end();
+        } catch (IOException ex) {
+            throw new UncheckedIOException(ex);
+        }
+        return terms;
+    }
+
+    @PreDestroy
+    public void close() throws IOException {
+        searcherManager.close();
+        writer.close();
+    }
+}
@@ -0,0 +1,113 @@
+package com.nikhil.ecommerce_backend.services.common;
+
+import com.nikhil.ecommerce_backend.events.CategoryChangedEvent;
+import com.nikhil.ecommerce_backend.events.ProductChangedEvent;
+import com.nikhil.ecommerce_backend.helper.PrefixTrie;
+import com.nikhil.ecommerce_backend.repositories.ProductRepository;
+import lombok.AllArgsConstructor;
+import lombok.EqualsAndHashCode;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.scheduling.annotation.Async;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+
+/**
+ * Type-ahead suggestions over the names, brands and category names of listed products. Each entry is
+ * weighted by the number of listed products carrying it; a product change only moves its own
+ * contribution, while a category change rebuilds the whole trie.
+ */
+@Component
+public class ProductSuggestIndex {
+
+    private final ProductRepository productRepository;
+    private final CategoryTreeIndex categoryTreeIndex;
+    private final int topK;
+
+    private volatile PrefixTrie trie;
+    private Map<Long, Contribution> contributions = new HashMap<>();
+
+    public ProductSuggestIndex(ProductRepository productRepository, CategoryTreeIndex categoryTreeIndex,
+                               @Value("${app.search.suggest.top-k}") int topK) {
+        this.productRepository = productRepository;
+        this.categoryTreeIndex = categoryTreeIndex;
+        this.topK = topK;
+        this.trie = new PrefixTrie(topK);
+    }
+
+    /**
+     * Returns at most {@code max} suggestions, capped at the configured top-k kept per trie node.
+     */
+    public List<String> suggest(String prefix, int max) {
+        if (max < 1) {
+            throw new IllegalArgumentException("page.size.invalid");
+        }
+        return trie.suggest(prefix, Math.min(max, topK));
+    }
+
+    @Async("searchIndexExecutor")
+    @EventListener(ApplicationReadyEvent.class)
+    public synchronized void rebuild() {
+        PrefixTrie rebuilt = new PrefixTrie(topK);
+        Map<Long, Contribution> rebuiltContributions = new HashMap<>();
+        for (Object[] row : productRepository.findListedForSuggestions()) {
+            Contribution contribution = toContribution(row);
+            rebuiltContributions.put((Long) row[0], contribution);
+            contribution.apply(rebuilt, 1);
+        }
+        contributions = rebuiltContributions;
+        trie = rebuilt;
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public synchronized void onProductChanged(ProductChangedEvent event) {
+        List<Object[]> rows = productRepository.findListedForSuggestionsById(event.getProductId());
+        Contribution current = rows.isEmpty() ? null : toContribution(rows.get(0));
+        Contribution previous = contributions.get(event.getProductId());
+        if (Objects.equals(previous, current)) {
+            return;
+        }
+        if (previous != null) {
+            previous.apply(trie, -1);
+            contributions.remove(event.getProductId());
+        }
+        if (current != null) {
+            current.apply(trie, 1);
+            contributions.put(event.getProductId(), current);
+        }
+    }
+
+    @Async("searchIndexExecutor")
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onCategoryChanged(CategoryChangedEvent event) {
+        rebuild();
+    }
+
+    private Contribution toContribution(Object[] row) {
+        return new Contribution((String) row[1], (String) row[2], categoryTreeIndex.getName((Long) row[3]));
+    }
+
+    @AllArgsConstructor
+    @EqualsAndHashCode
+    private static final class Contribution {
+        private final String name;
+        private final String brand;
+        private final String categoryName;
+
+        private void apply(PrefixTrie target, long delta) {
+            target.adjust(name, delta);
+            if (brand != null) {
+                target.adjust(brand, delta);
+            }
+            if (categoryName != null) {
+                target.adjust(categoryName, delta);
+            }
+        }
+    }
+}
@@ -0,0 +1,74 @@
+package com.nikhil.ecommerce_backend.services.common;
+
+import com.nikhil.ecommerce_backend.dto.customer.CustomerProductView;
+import com.nikhil.ecommerce_backend.events.ProductChangedEvent;
+import com.nikhil.ecommerce_backend.events.ProductImageVariantsReadyEvent;
+import com.nikhil.ecommerce_backend.events.ProductReviewChangedEvent;
+import com.nikhil.ecommerce_backend.events.StockChangedEvent;
+import com.nikhil.ecommerce_backend.repositories.ProductVariationRepository;
+import org.springframework.cache.Cache;
+import org.springframework.cache.CacheManager;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Supplier;
+
+/**
+ * Fully built customer product views keyed by product id. Entries are evicted once a
+ * {@link ProductChangedEvent}, {@link ProductReviewChangedEvent} or {@link StockChangedEvent} commits,
+ * and when a {@link ProductImageVariantsReadyEvent} replaces the original image urls with variant urls.
+ * A view loaded while an eviction happened is not stored.
+ */
+@Component
+public class ProductViewCache {
+
+    public static final String CACHE_NAME = "productViews";
+
+    private final Cache cache;
+    private final ProductVariationRepository productVariationRepository;
+    private final AtomicLong evictions = new AtomicLong();
+
+    public ProductViewCache(CacheManager cacheManager, ProductVariationRepository productVariationRepository) {
+        this.cache = cacheManager.getCache(CACHE_NAME);
+        this.productVariationRepository = productVariationRepository;
+    }
+
+    public CustomerProductView get(Long productId, Supplier<CustomerProductView> loader) {
+        CustomerProductView view = cache.get(productId, CustomerProductView.class);
+        if (view != null) {
+            return view;
+        }
+        long expected = evictions.get();
+        view = loader.get();
+        if (evictions.get() == expected) {
+            cache.put(productId, view);
+        }
+        return view;
+    }
+
+    public void evict(Long productId) {
+        evictions.incrementAndGet();
+        cache.evict(productId);
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onProductChanged(ProductChangedEvent event) {
+        evict(event.getProductId());
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onProductReviewChanged(ProductReviewChangedEvent event) {
+        evict(event.getProductId());
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onStockChanged(StockChangedEvent event) {
+        productVariationRepository.findProductIdsByIdIn(event.getVariationIds()).forEach(this::evict);
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onImageVariantsReady(ProductImageVariantsReadyEvent event) {
+        productVariationRepository.findProductIdsByImageName(event.getImageName()).forEach(this::evict);
+    }
+}
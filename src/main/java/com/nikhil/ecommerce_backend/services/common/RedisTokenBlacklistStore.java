@@ -0,0 +1,118 @@
+package com.nikhil.ecommerce_backend.services.common;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.data.redis.core.Cursor;
+import org.springframework.data.redis.core.ScanOptions;
+import org.springframework.data.redis.core.StringRedisTemplate;
+import org.springframework.data.redis.listener.ChannelTopic;
+import org.springframework.data.redis.listener.RedisMessageListenerContainer;
+import org.springframework.stereotype.Component;
+
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.time.Instant;
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.function.BiConsumer;
+
+/**
+ * Keeps revoked tokens in Redis with a TTL equal to the token's remaining lifetime and announces each
+ * revocation on a pub/sub channel so that every node updates its near-cache immediately.
+ */
+@Component
+@ConditionalOnProperty(name = "app.token-blacklist.store", havingValue = "redis")
+public class RedisTokenBlacklistStore implements TokenBlacklistStore {
+
+    private static final Logger logger = LoggerFactory.getLogger(RedisTokenBlacklistStore.class);
+    private static final String KEY_PREFIX = "token-blacklist:";
+    private static final ChannelTopic CHANNEL = new ChannelTopic("token-blacklist");
+    private static final int SCAN_BATCH = 500;
+
+    private final StringRedisTemplate redisTemplate;
+    private final RedisMessageListenerContainer listenerContainer;
+
+    public RedisTokenBlacklistStore(StringRedisTemplate redisTemplate, RedisMessageListenerContainer listenerContainer) {
+        this.redisTemplate = redisTemplate;
+        this.listenerContainer = listenerContainer;
+    }
+
+    @Override
+    public void revoke(String tokenKey, LocalDateTime expiry) {
+        long ttlMillis = Duration.between(LocalDateTime.now(), expiry).toMillis();
+        if (ttlMillis <= 0) {
+            return;
+        }
+        String epochMillis = String.valueOf(toEpochMillis(expiry));
+        redisTemplate.opsForValue().set(KEY_PREFIX + tokenKey, epochMillis, Duration.ofMillis(ttlMillis));
+        redisTemplate.convertAndSend(CHANNEL.getTopic(), tokenKey + "|" + epochMillis);
+    }
+
+    @Override
+    public Map<String, LocalDateTime> loadActive() {
+        Map<String, LocalDateTime> active = new HashMap<>();
+        ScanOptions options = ScanOptions.scanOptions().match(KEY_PREFIX + "*").count(SCAN_BATCH).build();
+        List<String> keys = new ArrayList<>(SCAN_BATCH);
+        try (Cursor<String> cursor = redisTemplate.scan(options)) {
+            while (cursor.hasNext()) {
+                keys.add(cursor.next());
+                if (keys.size() == SCAN_BATCH) {
+                    collect(keys, active);
+                    keys.clear();
+                }
+            }
+        }
+        collect(keys, active);
+        return active;
+    }
+
+    @Override
+    public Optional<LocalDateTime> findRevocation(String tokenKey) {
+        String value = redisTemplate.opsForValue().get(KEY_PREFIX + tokenKey);
+        return value == null ? Optional.empty() : Optional.of(toLocalDateTime(Long.parseLong(value)));
+    }
+
+    @Override
+    public void subscribe(BiConsumer<String, LocalDateTime> listener) {
+        listenerContainer.addMessageListener((message, pattern) -> {
+            String body = new String(message.getBody(), StandardCharsets.UTF_8);
+            int separator = body.lastIndexOf('|');
+            if (separator <= 0) {
+                logger.warn("Ignoring malformed token blacklist message: {}", body);
+                return;
+            }
+            long epochMillis = Long.parseLong(body.substring(separator + 1));
+            listener.accept(body.substring(0, separator), toLocalDateTime(epochMillis));
+        }, CHANNEL);
+    }
+
+    private void collect(List<String> keys, Map<String, LocalDateTime> active) {
+        if (keys.isEmpty()) {
+            return;
+        }
+        List<String> values = redisTemplate.opsForValue().multiGet(keys);
+        if (values == null) {
+            return;
+        }
+        for (int i = 0; i < keys.size(); i++) {
+            String value = values.get(i);
+            if (value != null) {
+                active.put(keys.get(i).substring(KEY_PREFIX.length()), toLocalDateTime(Long.parseLong(value)));
+            }
+        }
+    }
+
+    private static long toEpochMillis(LocalDateTime dateTime) {
+        return dateTime.atZone(ZoneId.systemDefault()).toInstant().toEpochMilli();
+    }
+
+    private static LocalDateTime toLocalDateTime(long epochMillis) {
+        return LocalDateTime.ofInstant(Instant.ofEpochMilli(epochMillis), ZoneId.systemDefault());
+    }
+}
@@ -0,0 +1,160 @@
+package com.nikhil.ecommerce_backend.services.common;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+
+/**
+ * Bloom filter over the signatures of revoked tokens, used to answer "definitely not revoked" without
+ * touching the blacklist cache. Two generations are kept and rotated every access-token lifetime: a
+ * signature added during one window is still present for the whole next window, by which point the
+ * token has expired anyway.
+ */
+@Component
+public class TokenBlacklistBloomFilter {
+
+    private final int bitCount;
+    private final int bitMask;
+    private final int hashCount;
+    private volatile Generation current;
+    private volatile Generation previous;
+
+    private final Counter negatives;
+    private final Counter positives;
+    private final Counter falsePositives;
+
+    public TokenBlacklistBloomFilter(@Value("${app.token-blacklist.bloom.expected-insertions}") long expectedInsertions,
+                                     @Value("${app.token-blacklist.bloom.false-positive-rate}") double falsePositiveRate,
+                                     MeterRegistry meterRegistry) {
+        long bits = (long) Math.ceil(-expectedInsertions * Math.log(falsePositiveRate) / (Math.log(2) * Math.log(2)));
+        // Rounded up to a power of two, so a probe is masked into range instead of taking a 64-bit modulo
+        this.bitCount = Integer.highestOneBit((int) Math.max(64, Math.min(bits, 1L << 30)) - 1) << 1;
+        this.bitMask = bitCount - 1;
+        this.hashCount = (int) Math.max(1, Math.round(-Math.log(falsePositiveRate) / Math.log(2)));
+        this.current = new Generation(bitCount);
+        this.previous = new Generation(bitCount);
+
+        this.negatives = Counter.builder("token.blacklist.bloom.lookups").tag("result", "negative").register(meterRegistry);
+        this.positives = Counter.builder("token.blacklist.bloom.lookups").tag("result", "positive").register(meterRegistry);
+        this.falsePositives = Counter.builder("token.blacklist.bloom.false.positives").register(meterRegistry);
+        Gauge.builder("token.blacklist.bloom.estimated.fpp", this, TokenBlacklistBloomFilter::estimatedFalsePositiveRate)
+                .register(meterRegistry);
+    }
+
+    public void put(String tokenKey) {
+        long h1 = hash(tokenKey);
+        long h2 = mix(h1 ^ 0x9E3779B97F4A7C15L) | 1;
+        Generation generation = current;
+        for (int i = 0; i < hashCount; i++) {
+            generation.set(index(h1, h2, i));
+        }
+    }
+
+    /**
+     * Returns {@code false} when the token is certainly not revoked. Only the signature segment of the
+     * token is hashed and nothing is allocated.
+     */
+    public boolean mightContain(String token) {
+        long h1 = hash(token);
+        long h2 = mix(h1 ^ 0x9E3779B97F4A7C15L) | 1;
+        boolean found = contains(current, h1, h2) || contains(previous, h1, h2);
+        (found ? positives : negatives).increment();
+        return found;
+    }
+
+    public void recordFalsePositive() {
+        falsePositives.increment();
+    }
+
+    @Scheduled(fixedRateString = "${jwt.access-expiration}", initialDelayString = "${jwt.access-expiration}")
+    public void rotate() {
+        previous = current;
+        current = new Generation(bitCount);
+    }
+
+    double estimatedFalsePositiveRate() {
+        double fill = (double) Math.max(current.setBits.get(), previous.setBits.get()) / bitCount;
+        return Math.pow(fill, hashCount);
+    }
+
+    private boolean contains(Generation generation, long h1, long h2) {
+        for (int i = 0; i < hashCount; i++) {
+            if (!generation.get(index(h1, h2, i))) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    private int index(long h1, long h2, int i) {
+        return (int) (h1 + i * h2) & bitMask;
+    }
+
+    /**
+     * Hashes the characters after the last {@code '.'}, which for a full token is its signature and for a
+     * token key is all of it. Four interleaved FNV lanes keep the multiplies from waiting on each other.
+     */
+    private static long hash(String value) {
+        int end = value.length();
+        int from = end;
+        while (from > 0 && value.charAt(from - 1) != '.') {
+            from--;
+        }
+        long h0 = 0xCBF29CE484222325L;
+        long h1 = 0x84222325CBF29CE4L;
+        long h2 = 0x9E3779B97F4A7C15L;
+        long h3 = 0xC2B2AE3D27D4EB4FL;
+        int i = from;
+        for (; i + 3 < end; i += 4) {
+            h0 = (h0 ^ value.charAt(i)) * 0x100000001B3L;
+            h1 = (h1 ^ value.charAt(i + 1)) * 0x100000001B3L;
+            h2 = (h2 ^ value.charAt(i + 2)) * 0x100000001B3L;
+            h3 = (h3 ^ value.charAt(i + 3)) * 0x100000001B3L;
+        }
+        for (; i < end; i++) {
+            h0 = (h0 ^ value.charAt(i)) * 0x100000001B3L;
+        }
+        return mix(h0 ^ Long.rotateLeft(h1, 16) ^ Long.rotateLeft(h2, 32) ^ Long.rotateLeft(h3, 48));
+    }
+
+    private static long mix(long h) {
+        h ^= h >>> 33;
+        h *= 0xFF51AFD7ED558CCDL;
+        h ^= h >>> 33;
+        h *= 0xC4CEB9FE1A85EC53L;
+        h ^= h >>> 33;
+        return h;
+    }
+
+    private static final class Generation {
+        private final AtomicLongArray words;
+        private final AtomicLong setBits = new AtomicLong();
+
+        private Generation(int bitCount) {
+            this.words = new AtomicLongArray((bitCount + 63) >>> 6);
+        }
+
+        private boolean get(int bit) {
+            return (words.get(bit >>> 6) & (1L << bit)) != 0;
+        }
+
+        private void set(int bit) {
+            int word = bit >>> 6;
+            long mask = 1L << bit;
+            long old;
+            do {
+                old = words.get(word);
+                if ((old & mask) != 0) {
+                    return;
+                }
+            } while (!words.compareAndSet(word, old, old | mask));
+            setBits.incrementAndGet();
+        }
+    }
+}
@@ -1,29 +1,82 @@
 package com.nikhil.ecommerce_backend.services.common;
 
+import jakarta.annotation.PostConstruct;
+import org.springframework.cache.Cache;
 import org.springframework.cache.CacheManager;
+import org.springframework.scheduling.annotation.Scheduled;
 import org.springframework.stereotype.Service;
 
-import java.time.Duration;
 import java.time.LocalDateTime;
 
+/**
+ * Two-tier blacklist: the local {@code blacklistedTokens} cache answers most requests, while the
+ * {@link TokenBlacklistStore} persists revocations and pushes those made on other nodes into it.
+ * A {@link TokenBlacklistBloomFilter} in front of the cache short-circuits the common miss. The cache
+ * is bounded, so a Bloom hit that misses locally is settled by the store rather than trusted as a
+ * false positive.
+ */
 @Service
 public class TokenBlacklistCache {
 
-    private final CacheManager cacheManager;
+    private final Cache cache;
+    private final TokenBlacklistStore tokenBlacklistStore;
+    private final TokenBlacklistBloomFilter bloomFilter;
     private static final String CACHE_NAME = "blacklistedTokens";
 
-    public TokenBlacklistCache(CacheManager cacheManager) {
-        this.cacheManager = cacheManager;
+    public TokenBlacklistCache(CacheManager cacheManager, TokenBlacklistStore tokenBlacklistStore,
+                               TokenBlacklistBloomFilter bloomFilter) {
+        this.cache = cacheManager.getCache(CACHE_NAME);
+        this.tokenBlacklistStore = tokenBlacklistStore;
+        this.bloomFilter = bloomFilter;
     }
 
-    public void cacheBlacklistedToken(String token, LocalDateTime expiry) {
+    @PostConstruct
+    public void init() {
+        tokenBlacklistStore.subscribe(this::putLocal);
+        resync();
+    }
 
-        cacheManager.getCache(CACHE_NAME).put(token, expiry);
+    public void cacheBlacklistedToken(String token, LocalDateTime expiry) {
+        String key = tokenKey(token);
+        putLocal(key, expiry);
+        tokenBlacklistStore.revoke(key, expiry);
     }
 
     public boolean isBlacklisted(String token) {
-        LocalDateTime expiry = cacheManager.getCache(CACHE_NAME).get(token, LocalDateTime.class);
-        return expiry != null && expiry.isAfter(LocalDateTime.now());
+        if (!bloomFilter.mightContain(token)) {
+            return false;
+        }
+        String key = tokenKey(token);
+        LocalDateTime expiry = cache.get(key, LocalDateTime.class);
+        if (expiry == null) {
+            expiry = tokenBlacklistStore.findRevocation(key).orElse(null);
+            if (expiry != null) {
+                cache.put(key, expiry);
+            }
+        }
+        boolean blacklisted = expiry != null && expiry.isAfter(LocalDateTime.now());
+        if (!blacklisted) {
+            bloomFilter.recordFalsePositive();
+        }
+        return blacklisted;
+    }
+
+    /**
+     * Reloads every active revocation, covering messages missed while the subscription was down.
+     */
+    @Scheduled(fixedDelayString = "${app.token-blacklist.resync-interval-ms}",
+            initialDelayString = "${app.token-blacklist.resync-interval-ms}")
+    public void resync() {
+        tokenBlacklistStore.loadActive().forEach(this::putLocal);
+    }
+
+    private void putLocal(String key, LocalDateTime expiry) {
+        bloomFilter.put(key);
+        cache.put(key, expiry);
     }
-}
 
+    static String tokenKey(String token) {
+        int signatureStart = token.lastIndexOf('.');
+        return signatureStart >= 0 ? token.substring(signatureStart + 1) : token;
+    }
+}
@@ -0,0 +1,27 @@
+package com.nikhil.ecommerce_backend.services.common;
+
+import java.time.LocalDateTime;
+import java.util.Map;
+import java.util.Optional;
+import java.util.function.BiConsumer;
+
+/**
+ * Shared source of truth for revoked access tokens. Tokens are identified by their signature segment
+ * and kept until their own expiry.
+ */
+public interface TokenBlacklistStore {
+
+    void revoke(String tokenKey, LocalDateTime expiry);
+
+    Map<String, LocalDateTime> loadActive();
+
+    /**
+     * Looks up a single revocation, returning its expiry while it is still active.
+     */
+    Optional<LocalDateTime> findRevocation(String tokenKey);
+
+    /**
+     * Registers a callback invoked for every revocation, including those made by other nodes.
+     */
+    void subscribe(BiConsumer<String, LocalDateTime> listener);
+}
@@ -0,0 +1,100 @@
+package com.nikhil.ecommerce_backend.services.common;
+
+import com.fasterxml.jackson.core.type.TypeReference;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.nikhil.ecommerce_backend.entities.Product;
+import com.nikhil.ecommerce_backend.entities.ProductVariation;
+import com.nikhil.ecommerce_backend.events.ProductChangedEvent;
+import com.nikhil.ecommerce_backend.events.StockChangedEvent;
+import com.nikhil.ecommerce_backend.repositories.ProductVariationRepository;
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.time.Duration;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Read-only copies of the variation fields a cart needs: price, stock and whether the variation can be
+ * bought at all. Missing variations of a cart are loaded with one query, and a product's variations are
+ * dropped when a {@link ProductChangedEvent} for it commits. Stock may trail the database by up to the
+ * configured ttl; the reservation taken at checkout is authoritative.
+ */
+@Component
+public class VariationSnapshotCache {
+
+    private final ProductVariationRepository productVariationRepository;
+    private final ObjectMapper objectMapper;
+    private final Cache<Long, Snapshot> snapshots;
+
+    public VariationSnapshotCache(ProductVariationRepository productVariationRepository, ObjectMapper objectMapper,
+                                  @Value("${app.cart.snapshot.max-size}") long maxSize,
+                                  @Value("${app.cart.snapshot.ttl-seconds}") long ttlSeconds) {
+        this.productVariationRepository = productVariationRepository;
+        this.objectMapper = objectMapper;
+        this.snapshots = Caffeine.newBuilder()
+                .maximumSize(maxSize)
+                .expireAfterWrite(Duration.ofSeconds(ttlSeconds))
+                .build();
+    }
+
+    public Snapshot get(Long variationId) {
+        return getAll(Collections.singleton(variationId)).get(variationId);
+    }
+
+    /**
+     * Returns the snapshots of the variations that exist; unknown ids are left out of the map.
+     */
+    public Map<Long, Snapshot> getAll(Collection<Long> variationIds) {
+        return snapshots.getAll(variationIds, this::load);
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onProductChanged(ProductChangedEvent event) {
+        snapshots.asMap().values().removeIf(snapshot -> snapshot.getProductId().equals(event.getProductId()));
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onStockChanged(StockChangedEvent event) {
+        snapshots.invalidateAll(event.getVariationIds());
+    }
+
+    private Map<Long, Snapshot> load(Set<? extends Long> variationIds) {
+        Map<Long, Snapshot> loaded = new HashMap<>();
+        for (ProductVariation variation : productVariationRepository.findAllWithProductByIdIn(List.copyOf(variationIds))) {
+            Product product = variation.getProduct();
+            Map<String, Object> metadata = variation.getMetadata() == null
+                    ? Collections.emptyMap()
+                    : objectMapper.convertValue(variation.getMetadata(), new TypeReference<Map<String, Object>>() {});
+            boolean purchasable = variation.isActive() && !variation.isRemoved()
+                    && Boolean.TRUE.equals(product.getIsActive()) && !Boolean.TRUE.equals(product.getIsDeleted());
+            loaded.put(variation.getId(), new Snapshot(variation.getId(), product.getId(), product.getName(),
+                    product.getBrand(), variation.getPrice(), variation.getQuantityAvailable(), purchasable,
+                    variation.getPrimaryImageName(), metadata));
+        }
+        return loaded;
+    }
+
+    @Getter
+    @AllArgsConstructor
+    public static final class Snapshot {
+        private final Long variationId;
+        private final Long productId;
+        private final String productName;
+        private final String brand;
+        private final Double price;
+        private final Integer quantityAvailable;
+        private final boolean purchasable;
+        private final String primaryImageName;
+        private final Map<String, Object> metadata;
+    }
+}
@@ -29,6 +29,10 @@ public interface CustomerService {
 
     Page<CustomerProductList> getAllProductsByCategory(Long categoryId, String query, int max, int offset, String sort, String order);
 
+    ProductScrollResponse scrollProductsByCategory(Long categoryId, String query, int max, String sort, String order, String cursor);
+
+    List<String> suggestProducts(String prefix, int max);
+
     Page<CustomerProductList> getSimilarProducts(Long productId, int max, int offset, String sort, String order);
 
     CategoryFilter getFilteringDetailsForCategory(Long categoryId);
@@ -1,22 +1,27 @@
 package com.nikhil.ecommerce_backend.services.customer;
-import com.fasterxml.jackson.core.type.TypeReference;
-import com.fasterxml.jackson.databind.ObjectMapper;
 import com.nikhil.ecommerce_backend.dto.customer.*;
 import com.nikhil.ecommerce_backend.dto.general.UpdatePasswordRequest;
 import com.nikhil.ecommerce_backend.entities.*;
 import com.nikhil.ecommerce_backend.exceptions.PasswordMismatchException;
 import com.nikhil.ecommerce_backend.exceptions.ResourceNotFoundException;
-import com.nikhil.ecommerce_backend.repositories.CategoryRepository;
 import com.nikhil.ecommerce_backend.repositories.CustomerRepository;
+import com.nikhil.ecommerce_backend.helper.KeysetCursor;
 import com.nikhil.ecommerce_backend.repositories.ProductRepository;
+import com.nikhil.ecommerce_backend.repositories.specifications.ProductSpecification;
 import com.nikhil.ecommerce_backend.services.ProductServiceCommon;
+import com.nikhil.ecommerce_backend.services.common.CategoryFacetIndex;
+import com.nikhil.ecommerce_backend.services.common.CategoryTreeIndex;
 import com.nikhil.ecommerce_backend.services.common.EmailService;
 import com.nikhil.ecommerce_backend.services.common.FileStorageService;
+import com.nikhil.ecommerce_backend.services.common.ProductSearchIndex;
+import com.nikhil.ecommerce_backend.services.common.ProductSuggestIndex;
+import com.nikhil.ecommerce_backend.services.common.ProductViewCache;
 import lombok.RequiredArgsConstructor;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.PageRequest;
 import org.springframework.data.domain.Pageable;
 import org.springframework.data.domain.Sort;
+import org.springframework.data.jpa.domain.Specification;
 import org.springframework.security.crypto.password.PasswordEncoder;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
@@ -33,10 +38,14 @@ public class CustomerServiceImpl implements CustomerService {
     private final PasswordEncoder passwordEncoder;
     private final EmailService emailService;
     private final FileStorageService fileStorageService;
-    private final CategoryRepository categoryRepository;
+    private final CategoryTreeIndex categoryTreeIndex;
+    private final CategoryFacetIndex categoryFacetIndex;
     private final ProductRepository productRepository;
     private final ProductServiceCommon productServiceCommon;
-    private final ObjectMapper objectMapper;
+    private final ProductViewCache productViewCache;
+    private final ProductSpecification productSpecification;
+    private final ProductSearchIndex productSearchIndex;
+    private final ProductSuggestIndex productSuggestIndex;
 
 
     private Customer findCustomerByEmail(String email)
@@ -52,12 +61,10 @@ public class CustomerServiceImpl implements CustomerService {
         Customer customer = findCustomerByEmail(email);
         String imageUrl = null;
 
-        Optional<String> imageNameOpt = fileStorageService.findUserImageName(customer.getId());
-
-        if (imageNameOpt.isPresent()) {
+        if (customer.getImageUrl() != null) {
             imageUrl = ServletUriComponentsBuilder.fromCurrentContextPath()
                     .path("/uploads/users/")
-                    .path(imageNameOpt.get())
+                    .path(customer.getImageUrl())
                     .toUriString();
         }
         return CustomerProfileResponse.builder()
@@ -93,7 +100,7 @@ public class CustomerServiceImpl implements CustomerService {
             customer.setContact(request.getContact());
         }
         if (imageFile != null && !imageFile.isEmpty()) {
-            fileStorageService.storeUserImage(imageFile, customer.getId());
+            customer.setImageUrl(fileStorageService.storeUserImage(imageFile, customer.getId(), customer.getImageUrl()));
         }
         customerRepository.save(customer);
 
@@ -204,30 +211,34 @@ public class CustomerServiceImpl implements CustomerService {
     @Override
     @Transactional(readOnly = true)
     public List<CategoryView> getCategories(Long categoryId) {
-        List<Category> categories;
+        List<Long> categoryIds;
 
         if (categoryId!=null)
         {
-            if (!categoryRepository.existsById(categoryId))
+            if (!categoryTreeIndex.contains(categoryId))
             {
                 throw new ResourceNotFoundException("category.not.found");
             }
-            categories = categoryRepository.findByParentCategory_Id(categoryId);
+            categoryIds = categoryTreeIndex.getChildIds(categoryId);
         }
 
         else
         {
-            categories = categoryRepository.findRootCategories();
+            categoryIds = categoryTreeIndex.getRootIds();
         }
 
-        return categories.stream()
-                .map(c -> new CategoryView(c.getId(), c.getName()))
+        return categoryIds.stream()
+                .map(id -> new CategoryView(id, categoryTreeIndex.getName(id)))
                 .collect(Collectors.toList());
     }
 
     @Override
     @Transactional(readOnly = true)
     public CustomerProductView getProductForCustomer(Long productId) {
+        return productViewCache.get(productId, () -> loadProductView(productId));
+    }
+
+    private CustomerProductView loadProductView(Long productId) {
         Product product = productRepository.findActiveProductForCustomer(productId)
                 .orElseThrow(() -> new ResourceNotFoundException("product.not.found"));
 
@@ -242,19 +253,84 @@ public class CustomerServiceImpl implements CustomerService {
     @Transactional(readOnly = true)
     public Page<CustomerProductList> getAllProductsByCategory(Long categoryId, String query,
                                                               int max, int offset, String sort, String order) {
-        if (!categoryRepository.existsById(categoryId)) {
+        if (!categoryTreeIndex.contains(categoryId)) {
             throw new ResourceNotFoundException("category.not.found");
         }
 
-        List<Long> categoryIds = productServiceCommon.getCategoryAndDescendants(categoryId, categoryRepository);
-        Pageable pageable = productServiceCommon.buildPageable(max, offset, sort, order);
+        List<Long> categoryIds = categoryTreeIndex.getCategoryAndDescendantIds(categoryId);
+
+        if (query != null && !query.isBlank()) {
+            // Without an explicit sort, search hits keep their relevance order
+            Pageable searchPage = sort == null ? PageRequest.of(offset, max)
+                    : productServiceCommon.buildPageable(max, offset, sort, order);
+            Page<Long> hits = productSearchIndex.search(query, categoryIds, null, true, searchPage);
+            return productServiceCommon.mapSearchHits(hits, productServiceCommon::toCustomerListDto);
+        }
+        Pageable pageable = productServiceCommon.buildPageable(max, offset, sort == null ? "id" : sort, order);
 
-        Page<Product> productPage = productRepository.findActiveProductsByCategories(categoryIds, query, pageable);
-        return productPage.map(productServiceCommon::toCustomerListDto);
+        Page<Product> productPage = productRepository.findActiveProductsByCategories(categoryIds, null, pageable);
+        return productServiceCommon.mapWithVariations(productPage, productServiceCommon::toCustomerListDto);
     }
 
 
 
+    @Override
+    @Transactional(readOnly = true)
+    public ProductScrollResponse scrollProductsByCategory(Long categoryId, String query, int max,
+                                                          String sort, String order, String cursor) {
+        if (!categoryTreeIndex.contains(categoryId)) {
+            throw new ResourceNotFoundException("category.not.found");
+        }
+        if (max < 1) {
+            throw new IllegalArgumentException("page.size.invalid");
+        }
+        if (max > KeysetCursor.MAX_PAGE_SIZE) {
+            throw new IllegalArgumentException("page.size.too.large");
+        }
+        if (!KeysetCursor.SORT_FIELDS.contains(sort)) {
+            throw new IllegalArgumentException("sort.field.invalid");
+        }
+        boolean descending = order.equalsIgnoreCase("desc");
+
+        Specification<Product> spec = Specification
+                .where(productSpecification.hasCategoryIdIn(categoryTreeIndex.getCategoryAndDescendantIds(categoryId)))
+                .and(productSpecification.isActive(true))
+                .and(productSpecification.isDeleted(false))
+                .and(productSpecification.hasVariations())
+                .and(productSpecification.nameContains(query));
+        if (cursor != null && !cursor.isBlank()) {
+            spec = spec.and(productSpecification.after(KeysetCursor.decode(cursor, sort, descending)));
+        }
+
+        Sort.Direction direction = descending ? Sort.Direction.DESC : Sort.Direction.ASC;
+        Sort sortable = sort.equals("id") ? Sort.by(direction, "id") : Sort.by(direction, sort, "id");
+        List<Product> rows = productRepository.findBy(spec, q -> q.sortBy(sortable).limit(max + 1).all());
+
+        boolean hasNext = rows.size() > max;
+        List<Product> page = hasNext ? rows.subList(0, max) : rows;
+        String nextCursor = null;
+        if (hasNext) {
+            Product last = page.get(page.size() - 1);
+            String lastValue = switch (sort) {
+                case "name" -> last.getName();
+                case "brand" -> last.getBrand();
+                default -> String.valueOf(last.getId());
+            };
+            nextCursor = new KeysetCursor(sort, descending, lastValue, last.getId()).encode();
+        }
+
+        return ProductScrollResponse.builder()
+                .content(productServiceCommon.mapWithVariations(page, productServiceCommon::toCustomerListDto))
+                .nextCursor(nextCursor)
+                .hasNext(hasNext)
+                .build();
+    }
+
+    @Override
+    public List<String> suggestProducts(String prefix, int max) {
+        return productSuggestIndex.suggest(prefix, max);
+    }
+
     @Override
     @Transactional(readOnly = true)
     public Page<CustomerProductList> getSimilarProducts(Long productId, int max, int offset, String sort, String order)
@@ -279,48 +355,21 @@ public class CustomerServiceImpl implements CustomerService {
         Page<Product> similarProductsPage = productRepository.findSimilarProducts(categoryId, productId, pageable);
 
 
-        return similarProductsPage.map(this::buildProductListDto);
-    }
-
-    private CustomerProductList buildProductListDto(Product product) {
-        CustomerProductList.Category categoryDto = CustomerProductList.Category.builder()
-                .name(product.getCategory().getName())
-                .build();
-
-        List<CustomerProductView.Variation> variationDtos = product.getVariations().stream()
-                .filter(v -> v.isActive())
-                .map(variation -> {
-                    Map<String, Object> metadataMap =
-                            objectMapper.convertValue(variation.getMetadata(), new TypeReference<>() {});
-
-                    return CustomerProductView.Variation.builder()
-                            .price(variation.getPrice())
-                            .quantityAvailable(variation.getQuantityAvailable())
-                            .metadata(metadataMap)
-                            .primaryImage(productServiceCommon.buildImageUrl(variation.getPrimaryImageName()))
-                            .build();
-                }).collect(Collectors.toList());
-
-        return CustomerProductList.builder()
-                .id(product.getId())
-                .name(product.getName())
-                .brand(product.getBrand())
-                .category(categoryDto)
-                .variations(variationDtos)
-                .build();
+        return productServiceCommon.mapWithVariations(similarProductsPage, productServiceCommon::toCustomerListDto);
     }
 
     @Override
     @Transactional(readOnly = true)
     public CategoryFilter getFilteringDetailsForCategory(Long categoryId) {
-        Category requestedCategory = categoryRepository.findById(categoryId)
-                .orElseThrow(() -> new ResourceNotFoundException("category.not.found"));
+        if (!categoryTreeIndex.contains(categoryId)) {
+            throw new ResourceNotFoundException("category.not.found");
+        }
 
-        List<Long> categoryIds = getCategoryAndAllDescendantIds(requestedCategory);
+        List<Long> categoryIds = categoryTreeIndex.getCategoryAndDescendantIds(categoryId);
 
-        List<String> brands = productRepository.findDistinctBrandsByCategoryIdIn(categoryIds);
+        List<String> brands = categoryFacetIndex.getBrands(categoryIds);
 
-        PriceRange priceRange = productRepository.findPriceRangeByCategoryIdIn(categoryIds);
+        PriceRange priceRange = categoryFacetIndex.getPriceRange(categoryIds);
 
         CategoryFilter.PriceRange priceRangeDto = CategoryFilter.PriceRange.builder()
                 .minPrice(priceRange.getMinPrice())
@@ -331,18 +380,4 @@ public class CustomerServiceImpl implements CustomerService {
                 .priceRange(priceRangeDto)
                 .build();
     }
-
-    private List<Long> getCategoryAndAllDescendantIds(Category category) {
-        List<Long> ids = new ArrayList<>();
-        collectCategoryIds(category, ids);
-        return ids;
-    }
-
-    private void collectCategoryIds(Category category, List<Long> ids) {
-        ids.add(category.getId());
-        List<Category> children = categoryRepository.findByParentCategory_Id(category.getId());
-        for (Category child : children) {
-            collectCategoryIds(child, ids);
-        }
-    }
 }
\ No newline at end of file
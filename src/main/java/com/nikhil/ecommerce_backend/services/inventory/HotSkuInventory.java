@@ -0,0 +1,395 @@
+package com.nikhil.ecommerce_backend.services.inventory;
+
+import com.nikhil.ecommerce_backend.constants.ReservationStatus;
+import com.nikhil.ecommerce_backend.entities.InventoryReservation;
+import com.nikhil.ecommerce_backend.events.StockChangedEvent;
+import com.nikhil.ecommerce_backend.repositories.InventoryReservationRepository;
+import com.nikhil.ecommerce_backend.repositories.ProductVariationRepository;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executor;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicIntegerArray;
+
+/**
+ * In-memory stock for SKUs under heavy demand. When a variation sees more than {@code threshold}
+ * reservations in one flush window, a block of its stock is moved out of MySQL with one conditional
+ * update and recorded as a lease row. Later reservations take units from the lease with CAS on striped
+ * counters instead of all updating the same variation row.
+ * <p>
+ * The reserving thread never touches the database here: acquiring, settling and returning units all run
+ * on the {@code inventoryExecutor} or in the scheduled flush, so a checkout holding a connection never
+ * waits for a second one. Until a lease is in place, or while it is being refilled, reservations fall
+ * back to the conditional update.
+ * <p>
+ * Every flush renews the leases of SKUs that are still hot and hands the rest back to the database.
+ * If the node dies, its leases expire and {@link InventoryServiceImpl} returns whatever the reservation
+ * rows do not account for.
+ */
+@Component
+public class HotSkuInventory {
+
+    private static final Logger logger = LoggerFactory.getLogger(HotSkuInventory.class);
+    private static final int LOCK_STRIPES = 64;
+
+    private final ProductVariationRepository productVariationRepository;
+    private final InventoryReservationRepository inventoryReservationRepository;
+    private final Executor inventoryExecutor;
+    private final ApplicationEventPublisher eventPublisher;
+    private final TransactionTemplate transactionTemplate;
+    private final int threshold;
+    private final int leaseSize;
+    private final int stripes;
+    private final Duration leaseTtl;
+
+    private final Map<Long, AtomicInteger> demand = new ConcurrentHashMap<>();
+    private final Map<Long, Lease> leases = new ConcurrentHashMap<>();
+    private final Set<Long> refills = ConcurrentHashMap.newKeySet();
+    private final Map<Long, Integer> returns = new ConcurrentHashMap<>();
+    private final AtomicBoolean draining = new AtomicBoolean();
+    private final Object[] locks = new Object[LOCK_STRIPES];
+
+    public HotSkuInventory(ProductVariationRepository productVariationRepository,
+                           InventoryReservationRepository inventoryReservationRepository,
+                           @Qualifier("inventoryExecutor") Executor inventoryExecutor,
+                           ApplicationEventPublisher eventPublisher,
+                           PlatformTransactionManager transactionManager,
+                           @Value("${app.inventory.hot.threshold}") int threshold,
+                           @Value("${app.inventory.hot.lease-size}") int leaseSize,
+                           @Value("${app.inventory.hot.stripes}") int stripes,
+                           @Value("${app.inventory.hot.lease-ttl-seconds}") long leaseTtlSeconds) {
+        this.productVariationRepository = productVariationRepository;
+        this.inventoryReservationRepository = inventoryReservationRepository;
+        this.inventoryExecutor = inventoryExecutor;
+        this.eventPublisher = eventPublisher;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.threshold = threshold;
+        this.leaseSize = leaseSize;
+        this.stripes = stripes;
+        this.leaseTtl = Duration.ofSeconds(leaseTtlSeconds);
+        for (int i = 0; i < LOCK_STRIPES; i++) {
+            locks[i] = new Object();
+        }
+    }
+
+    /**
+     * Takes {@code quantity} units from the variation's lease and returns the lease id, or {@code null}
+     * when the variation is not hot or its lease is dry, in which case the caller goes to the database.
+     * A hot variation without usable stock gets a refill queued for the background thread.
+     */
+    public Long tryTake(Long variationId, int quantity) {
+        int seen = demand.computeIfAbsent(variationId, id -> new AtomicInteger()).incrementAndGet();
+        Lease lease = leases.get(variationId);
+        if (lease != null && lease.take(quantity)) {
+            return lease.id;
+        }
+        if (seen < threshold || quantity > leaseSize) {
+            return null;
+        }
+        if (lease != null) {
+            synchronized (lockFor(variationId)) {
+                lease = leases.get(variationId);
+                if (lease != null && lease.takeAcrossStripes(quantity)) {
+                    return lease.id;
+                }
+            }
+        }
+        if (refills.add(variationId)) {
+            wake();
+        }
+        return null;
+    }
+
+    /**
+     * Returns units whose reservation could not be written. They go back to the lease they came from
+     * while it is live, otherwise to the database from the background thread.
+     */
+    public void giveBack(Long variationId, Long leaseId, int quantity) {
+        synchronized (lockFor(variationId)) {
+            Lease lease = leases.get(variationId);
+            if (lease != null && lease.id.equals(leaseId)) {
+                lease.add(quantity);
+                return;
+            }
+        }
+        returns.merge(variationId, quantity, Integer::sum);
+        wake();
+    }
+
+    /**
+     * Units left in the variation's lease on this node, {@code 0} when it has none.
+     */
+    public int remaining(Long variationId) {
+        Lease lease = leases.get(variationId);
+        return lease == null ? 0 : lease.available();
+    }
+
+    @Scheduled(fixedDelayString = "${app.inventory.hot.flush-interval-ms}")
+    public void flush() {
+        List<Long> renewed = new ArrayList<>();
+        for (Map.Entry<Long, Lease> entry : leases.entrySet()) {
+            AtomicInteger recent = demand.get(entry.getKey());
+            if (recent == null || recent.get() < threshold) {
+                retire(entry.getKey(), entry.getValue());
+            } else {
+                renewed.add(entry.getValue().id);
+            }
+        }
+        demand.clear();
+        if (!renewed.isEmpty()) {
+            int updated = inventoryReservationRepository.renew(renewed, LocalDateTime.now().plus(leaseTtl));
+            if (updated < renewed.size()) {
+                dropExpiredLeases(renewed);
+            }
+        }
+        wake();
+    }
+
+    /**
+     * Works off queued refills and returned units. Runs on the {@code inventoryExecutor}, one drain at a
+     * time; the flush wakes it in case a wake-up was dropped.
+     */
+    public void drain() {
+        if (!draining.compareAndSet(false, true)) {
+            return;
+        }
+        try {
+            do {
+                for (Long variationId : refills) {
+                    if (refills.remove(variationId)) {
+                        refill(variationId);
+                    }
+                }
+                for (Long variationId : returns.keySet()) {
+                    Integer quantity = returns.remove(variationId);
+                    if (quantity != null) {
+                        returnToDatabase(variationId, quantity);
+                    }
+                }
+            } while (!refills.isEmpty());
+        } finally {
+            draining.set(false);
+        }
+        if (!refills.isEmpty()) {
+            wake();
+        }
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        refills.clear();
+        for (Map.Entry<Long, Lease> entry : leases.entrySet()) {
+            retire(entry.getKey(), entry.getValue());
+        }
+        for (Long variationId : returns.keySet()) {
+            Integer quantity = returns.remove(variationId);
+            if (quantity != null) {
+                returnToDatabase(variationId, quantity);
+            }
+        }
+    }
+
+    private void wake() {
+        if (!draining.get() && (!refills.isEmpty() || !returns.isEmpty())) {
+            inventoryExecutor.execute(this::drain);
+        }
+    }
+
+    /**
+     * Moves a fresh block of stock into memory and swaps it in for the current lease, which is then
+     * settled. Skipped while the current lease is still at least half full.
+     */
+    private void refill(Long variationId) {
+        Lease current = leases.get(variationId);
+        if (current != null && current.available() * 2 >= current.total) {
+            return;
+        }
+        Lease fresh;
+        try {
+            fresh = acquire(variationId);
+        } catch (RuntimeException e) {
+            logger.warn("Could not lease stock of variation {}", variationId, e);
+            return;
+        }
+        if (fresh == null) {
+            return;
+        }
+        Lease replaced;
+        int remaining;
+        synchronized (lockFor(variationId)) {
+            replaced = leases.put(variationId, fresh);
+            remaining = replaced == null ? 0 : replaced.drain();
+        }
+        if (replaced != null) {
+            settle(variationId, replaced, remaining);
+        }
+    }
+
+    private Lease acquire(Long variationId) {
+        return transactionTemplate.execute(status -> {
+            Integer available = productVariationRepository.findQuantityAvailable(variationId);
+            if (available == null || available <= 0) {
+                return null;
+            }
+            int amount = Math.min(leaseSize, available);
+            if (productVariationRepository.decrementIfAvailable(variationId, amount) == 0) {
+                return null;
+            }
+            InventoryReservation lease = new InventoryReservation();
+            lease.setProductVariation(productVariationRepository.getReferenceById(variationId));
+            lease.setQuantity(amount);
+            lease.setLease(true);
+            lease.setExpiresAt(LocalDateTime.now().plus(leaseTtl));
+            Long leaseId = inventoryReservationRepository.save(lease).getId();
+            eventPublisher.publishEvent(new StockChangedEvent(List.of(variationId)));
+            return new Lease(leaseId, amount, stripes);
+        });
+    }
+
+    /**
+     * Takes the lease out of service and settles it. Only the swap happens under the SKU lock.
+     */
+    private void retire(Long variationId, Lease lease) {
+        int remaining;
+        synchronized (lockFor(variationId)) {
+            if (!leases.remove(variationId, lease)) {
+                return;
+            }
+            remaining = lease.drain();
+        }
+        settle(variationId, lease, remaining);
+    }
+
+    /**
+     * Records how much of the lease was handed out and gives the units nobody took back to the variation.
+     */
+    private void settle(Long variationId, Lease lease, int remaining) {
+        transactionTemplate.executeWithoutResult(status -> {
+            if (inventoryReservationRepository.settleLease(lease.id, lease.total - remaining) > 0 && remaining > 0) {
+                productVariationRepository.incrementQuantity(variationId, remaining);
+                eventPublisher.publishEvent(new StockChangedEvent(List.of(variationId)));
+            }
+        });
+    }
+
+    private void returnToDatabase(Long variationId, int quantity) {
+        try {
+            productVariationRepository.incrementQuantity(variationId, quantity);
+            eventPublisher.publishEvent(new StockChangedEvent(List.of(variationId)));
+        } catch (RuntimeException e) {
+            returns.merge(variationId, quantity, Integer::sum);
+            logger.warn("Could not return {} units of variation {}, retrying at the next flush", quantity, variationId, e);
+        }
+    }
+
+    /**
+     * A lease that expired under us has already been settled by the expiry job, so its units are dropped
+     * rather than handed out or returned a second time.
+     */
+    private void dropExpiredLeases(List<Long> renewed) {
+        for (Map.Entry<Long, Lease> entry : leases.entrySet()) {
+            Lease lease = entry.getValue();
+            if (renewed.contains(lease.id) && inventoryReservationRepository.findById(lease.id)
+                    .map(row -> row.getStatus() != ReservationStatus.RESERVED)
+                    .orElse(true)) {
+                synchronized (lockFor(entry.getKey())) {
+                    if (leases.remove(entry.getKey(), lease)) {
+                        lease.drain();
+                        logger.warn("Lease {} of variation {} expired before renewal", lease.id, entry.getKey());
+                    }
+                }
+            }
+        }
+    }
+
+    private Object lockFor(Long variationId) {
+        return locks[(int) (variationId % LOCK_STRIPES)];
+    }
+
+    private static final class Lease {
+        private final Long id;
+        private final int total;
+        private final AtomicIntegerArray counters;
+
+        private Lease(Long id, int total, int stripes) {
+            this.id = id;
+            this.total = total;
+            this.counters = new AtomicIntegerArray(stripes);
+            for (int i = 0; i < stripes; i++) {
+                counters.set(i, total / stripes + (i < total % stripes ? 1 : 0));
+            }
+        }
+
+        /**
+         * Lock free path: tries the calling thread's home stripe first, then the others.
+         */
+        private boolean take(int quantity) {
+            int length = counters.length();
+            int home = (int) (Thread.currentThread().threadId() % length);
+            for (int i = 0; i < length; i++) {
+                int stripe = (home + i) % length;
+                int current = counters.get(stripe);
+                while (current >= quantity) {
+                    if (counters.compareAndSet(stripe, current, current - quantity)) {
+                        return true;
+                    }
+                    current = counters.get(stripe);
+                }
+            }
+            return false;
+        }
+
+        /**
+         * Gathers units scattered over several stripes. Called with the SKU lock held.
+         */
+        private boolean takeAcrossStripes(int quantity) {
+            if (take(quantity)) {
+                return true;
+            }
+            int gathered = drain();
+            if (gathered < quantity) {
+                add(gathered);
+                return false;
+            }
+            add(gathered - quantity);
+            return true;
+        }
+
+        private void add(int quantity) {
+            counters.addAndGet((int) (Thread.currentThread().threadId() % counters.length()), quantity);
+        }
+
+        private int available() {
+            int available = 0;
+            for (int i = 0; i < counters.length(); i++) {
+                available += counters.get(i);
+            }
+            return available;
+        }
+
+        private int drain() {
+            int drained = 0;
+            for (int i = 0; i < counters.length(); i++) {
+                drained += counters.getAndSet(i, 0);
+            }
+            return drained;
+        }
+    }
+}
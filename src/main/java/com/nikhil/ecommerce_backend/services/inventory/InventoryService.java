@@ -0,0 +1,26 @@
+package com.nikhil.ecommerce_backend.services.inventory;
+
+import java.util.Collection;
+
+public interface InventoryService {
+
+    Long reserve(Long variationId, int quantity);
+
+    void commit(Long reservationId);
+
+    void commitAll(Collection<Long> reservationIds);
+
+    void release(Long reservationId);
+
+    void setAvailable(Long variationId, int quantity);
+
+    /**
+     * Puts units of a cancelled or rejected order item back on sale.
+     */
+    void restock(Long variationId, int quantity);
+
+    /**
+     * Units of the variation held in this node's hot SKU lease, which its {@code quantityAvailable} does not show.
+     */
+    int leasedQuantity(Long variationId);
+}
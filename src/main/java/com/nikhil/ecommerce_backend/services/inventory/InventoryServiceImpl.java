@@ -0,0 +1,190 @@
+package com.nikhil.ecommerce_backend.services.inventory;
+
+import com.nikhil.ecommerce_backend.constants.ReservationStatus;
+import com.nikhil.ecommerce_backend.entities.InventoryReservation;
+import com.nikhil.ecommerce_backend.events.StockChangedEvent;
+import com.nikhil.ecommerce_backend.exceptions.ResourceNotFoundException;
+import com.nikhil.ecommerce_backend.repositories.InventoryReservationRepository;
+import com.nikhil.ecommerce_backend.repositories.ProductVariationRepository;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.Collection;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+
+/**
+ * Stock is taken from a variation when it is reserved and given back when the reservation is released or
+ * expires; committing a reservation makes the deduction permanent. Reservations on hot SKUs are served
+ * from {@link HotSkuInventory}, everything else uses a conditional update on the variation row. Every
+ * change to the variation row publishes a {@link StockChangedEvent} so cached views drop the old quantity.
+ */
+@Service
+public class InventoryServiceImpl implements InventoryService {
+
+    private static final Logger logger = LoggerFactory.getLogger(InventoryServiceImpl.class);
+    private static final int EXPIRY_BATCH = 200;
+
+    private final ProductVariationRepository productVariationRepository;
+    private final InventoryReservationRepository inventoryReservationRepository;
+    private final HotSkuInventory hotSkuInventory;
+    private final ApplicationEventPublisher eventPublisher;
+    private final TransactionTemplate transactionTemplate;
+    private final Duration reservationTtl;
+
+    public InventoryServiceImpl(ProductVariationRepository productVariationRepository,
+                                InventoryReservationRepository inventoryReservationRepository,
+                                HotSkuInventory hotSkuInventory, ApplicationEventPublisher eventPublisher,
+                                PlatformTransactionManager transactionManager,
+                                @Value("${app.inventory.reservation-ttl-minutes}") long reservationTtlMinutes) {
+        this.productVariationRepository = productVariationRepository;
+        this.inventoryReservationRepository = inventoryReservationRepository;
+        this.hotSkuInventory = hotSkuInventory;
+        this.eventPublisher = eventPublisher;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.reservationTtl = Duration.ofMinutes(reservationTtlMinutes);
+    }
+
+    @Override
+    @Transactional
+    public Long reserve(Long variationId, int quantity) {
+        if (quantity <= 0) {
+            throw new IllegalArgumentException("inventory.quantity.invalid");
+        }
+        Long leaseId = hotSkuInventory.tryTake(variationId, quantity);
+        if (leaseId == null) {
+            if (productVariationRepository.decrementIfAvailable(variationId, quantity) == 0) {
+                throw new IllegalArgumentException("inventory.insufficient");
+            }
+            eventPublisher.publishEvent(new StockChangedEvent(List.of(variationId)));
+        } else {
+            // Units taken from the in-memory pool are not covered by this transaction's rollback
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCompletion(int status) {
+                    if (status != STATUS_COMMITTED) {
+                        hotSkuInventory.giveBack(variationId, leaseId, quantity);
+                    }
+                }
+            });
+        }
+
+        InventoryReservation reservation = new InventoryReservation();
+        reservation.setProductVariation(productVariationRepository.getReferenceById(variationId));
+        reservation.setQuantity(quantity);
+        reservation.setLeaseId(leaseId);
+        reservation.setExpiresAt(LocalDateTime.now().plus(reservationTtl));
+        return inventoryReservationRepository.save(reservation).getId();
+    }
+
+    @Override
+    @Transactional
+    public void commit(Long reservationId) {
+        if (inventoryReservationRepository.close(reservationId, ReservationStatus.COMMITTED) == 0) {
+            throw closedOrMissing(reservationId);
+        }
+    }
+
+    /**
+     * Commits several reservations with one update. Fails, and rolls back the caller's transaction, if
+     * any of them is no longer reserved.
+     */
+    @Override
+    @Transactional
+    public void commitAll(Collection<Long> reservationIds) {
+        if (reservationIds.isEmpty()) {
+            return;
+        }
+        if (inventoryReservationRepository.closeAll(reservationIds, ReservationStatus.COMMITTED) != reservationIds.size()) {
+            throw new IllegalArgumentException("inventory.reservation.closed");
+        }
+    }
+
+    @Override
+    @Transactional
+    public void release(Long reservationId) {
+        InventoryReservation reservation = inventoryReservationRepository.findById(reservationId)
+                .orElseThrow(() -> new ResourceNotFoundException("inventory.reservation.not.found"));
+        if (inventoryReservationRepository.close(reservationId, ReservationStatus.RELEASED) > 0) {
+            Long variationId = reservation.getProductVariation().getId();
+            productVariationRepository.incrementQuantity(variationId, reservation.getQuantity());
+            eventPublisher.publishEvent(new StockChangedEvent(List.of(variationId)));
+        }
+    }
+
+    @Override
+    @Transactional
+    public void setAvailable(Long variationId, int quantity) {
+        if (quantity < 0) {
+            throw new IllegalArgumentException("inventory.quantity.invalid");
+        }
+        productVariationRepository.setQuantity(variationId, quantity);
+        eventPublisher.publishEvent(new StockChangedEvent(List.of(variationId)));
+    }
+
+    @Override
+    @Transactional
+    public void restock(Long variationId, int quantity) {
+        if (quantity <= 0) {
+            throw new IllegalArgumentException("inventory.quantity.invalid");
+        }
+        productVariationRepository.incrementQuantity(variationId, quantity);
+        eventPublisher.publishEvent(new StockChangedEvent(List.of(variationId)));
+    }
+
+    @Override
+    public int leasedQuantity(Long variationId) {
+        return hotSkuInventory.remaining(variationId);
+    }
+
+    /**
+     * Returns the stock of expired reservations. An expired lease belonged to a node that stopped renewing
+     * it, so only the part not handed out as reservations goes back.
+     */
+    @Scheduled(fixedDelayString = "${app.inventory.expiry-interval-ms}")
+    public void expireReservations() {
+        int expired;
+        do {
+            expired = transactionTemplate.execute(status -> {
+                List<InventoryReservation> due = inventoryReservationRepository.findExpiredForUpdate(
+                        LocalDateTime.now(), PageRequest.of(0, EXPIRY_BATCH));
+                Set<Long> restocked = new HashSet<>();
+                for (InventoryReservation reservation : due) {
+                    int returned = reservation.getQuantity();
+                    if (reservation.isLease()) {
+                        returned -= (int) inventoryReservationRepository.sumQuantityByLeaseId(reservation.getId());
+                        logger.warn("Reclaiming abandoned lease {} with {} units", reservation.getId(), returned);
+                    }
+                    reservation.setStatus(ReservationStatus.RELEASED);
+                    if (returned > 0) {
+                        productVariationRepository.incrementQuantity(reservation.getProductVariation().getId(), returned);
+                        restocked.add(reservation.getProductVariation().getId());
+                    }
+                }
+                if (!restocked.isEmpty()) {
+                    eventPublisher.publishEvent(new StockChangedEvent(restocked));
+                }
+                return due.size();
+            });
+        } while (expired == EXPIRY_BATCH);
+    }
+
+    private RuntimeException closedOrMissing(Long reservationId) {
+        return inventoryReservationRepository.existsById(reservationId)
+                ? new IllegalArgumentException("inventory.reservation.closed")
+                : new ResourceNotFoundException("inventory.reservation.not.found");
+    }
+}
@@ -0,0 +1,34 @@
+package com.nikhil.ecommerce_backend.services.order;
+
+import com.nikhil.ecommerce_backend.events.OrderPlacedEvent;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.scheduling.annotation.Async;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+/**
+ * Records order volume and value as {@code orders.*} meters once an order commits.
+ */
+@Component
+public class OrderAnalytics {
+
+    private final Counter ordersPlaced;
+    private final DistributionSummary orderAmount;
+    private final DistributionSummary orderItems;
+
+    public OrderAnalytics(MeterRegistry meterRegistry) {
+        this.ordersPlaced = Counter.builder("orders.placed").register(meterRegistry);
+        this.orderAmount = DistributionSummary.builder("orders.amount").register(meterRegistry);
+        this.orderItems = DistributionSummary.builder("orders.items").register(meterRegistry);
+    }
+
+    @Async("orderEventExecutor")
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onOrderPlaced(OrderPlacedEvent event) {
+        ordersPlaced.increment();
+        orderAmount.record(event.getAmount());
+        orderItems.record(event.getItemCount());
+    }
+}
@@ -0,0 +1,10 @@
+package com.nikhil.ecommerce_backend.services.order;
+
+import com.nikhil.ecommerce_backend.dto.customer.PlaceOrderRequest;
+import com.nikhil.ecommerce_backend.dto.customer.PlaceOrderResponse;
+
+import java.util.Locale;
+
+public interface OrderService {
+    PlaceOrderResponse placeOrder(String email, String idempotencyKey, PlaceOrderRequest request, Locale locale);
+}
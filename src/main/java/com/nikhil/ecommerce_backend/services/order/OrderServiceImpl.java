@@ -0,0 +1,234 @@
+package com.nikhil.ecommerce_backend.services.order;
+
+import com.nikhil.ecommerce_backend.dto.customer.PlaceOrderRequest;
+import com.nikhil.ecommerce_backend.dto.customer.PlaceOrderResponse;
+import com.nikhil.ecommerce_backend.entities.Address;
+import com.nikhil.ecommerce_backend.entities.Order;
+import com.nikhil.ecommerce_backend.entities.OrderProduct;
+import com.nikhil.ecommerce_backend.entities.Product;
+import com.nikhil.ecommerce_backend.entities.ProductVariation;
+import com.nikhil.ecommerce_backend.entities.Seller;
+import com.nikhil.ecommerce_backend.events.OrderPlacedEvent;
+import com.nikhil.ecommerce_backend.exceptions.ResourceNotFoundException;
+import com.nikhil.ecommerce_backend.repositories.AddressRepository;
+import com.nikhil.ecommerce_backend.repositories.CustomerRepository;
+import com.nikhil.ecommerce_backend.repositories.OrderProductRepository;
+import com.nikhil.ecommerce_backend.repositories.OrderRepository;
+import com.nikhil.ecommerce_backend.repositories.ProductVariationRepository;
+import com.nikhil.ecommerce_backend.services.cart.CartService;
+import com.nikhil.ecommerce_backend.services.common.EmailService;
+import com.nikhil.ecommerce_backend.services.inventory.InventoryService;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.ArrayList;
+import java.util.HexFormat;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+
+/**
+ * Checkout runs in one transaction: the cart lines are checked against the variation rows, stock is
+ * reserved and committed, and the order, its items and their initial statuses are inserted as JDBC
+ * batches. The customer's confirmation and the sellers' mails go to the outbox in the same transaction,
+ * so they exist exactly when the order does; only analytics listen for the {@link OrderPlacedEvent}.
+ * <p>
+ * An {@code Idempotency-Key} is bound to the address and payment method it was first used with. A
+ * replay returns the existing order, a reuse with different details is rejected.
+ */
+@Service
+public class OrderServiceImpl implements OrderService {
+
+    private static final int MAX_IDEMPOTENCY_KEY_LENGTH = 64;
+
+    private final OrderRepository orderRepository;
+    private final OrderProductRepository orderProductRepository;
+    private final OrderStatusService orderStatusService;
+    private final CustomerRepository customerRepository;
+    private final AddressRepository addressRepository;
+    private final ProductVariationRepository productVariationRepository;
+    private final CartService cartService;
+    private final InventoryService inventoryService;
+    private final EmailService emailService;
+    private final ApplicationEventPublisher eventPublisher;
+    private final TransactionTemplate transactionTemplate;
+    private final Timer checkoutTimer;
+
+    public OrderServiceImpl(OrderRepository orderRepository, OrderProductRepository orderProductRepository,
+                            OrderStatusService orderStatusService, CustomerRepository customerRepository,
+                            AddressRepository addressRepository, ProductVariationRepository productVariationRepository,
+                            CartService cartService, InventoryService inventoryService, EmailService emailService,
+                            ApplicationEventPublisher eventPublisher, PlatformTransactionManager transactionManager,
+                            MeterRegistry meterRegistry) {
+        this.orderRepository = orderRepository;
+        this.orderProductRepository = orderProductRepository;
+        this.orderStatusService = orderStatusService;
+        this.customerRepository = customerRepository;
+        this.addressRepository = addressRepository;
+        this.productVariationRepository = productVariationRepository;
+        this.cartService = cartService;
+        this.inventoryService = inventoryService;
+        this.emailService = emailService;
+        this.eventPublisher = eventPublisher;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.checkoutTimer = Timer.builder("orders.checkout")
+                .publishPercentiles(0.5, 0.99)
+                .register(meterRegistry);
+    }
+
+    @Override
+    public PlaceOrderResponse placeOrder(String email, String idempotencyKey, PlaceOrderRequest request, Locale locale) {
+        if (idempotencyKey == null || idempotencyKey.isBlank() || idempotencyKey.length() > MAX_IDEMPOTENCY_KEY_LENGTH) {
+            throw new IllegalArgumentException("order.idempotency.key.invalid");
+        }
+        Timer.Sample sample = Timer.start();
+        try {
+            Long customerId = customerRepository.findIdByEmail(email)
+                    .orElseThrow(() -> new ResourceNotFoundException("customer.profile.not.found"));
+            String requestHash = requestHash(request);
+            Order existing = orderRepository.findByCustomerIdAndIdempotencyKey(customerId, idempotencyKey).orElse(null);
+            if (existing != null) {
+                return replay(existing, requestHash);
+            }
+
+            Map<Long, Integer> items = new TreeMap<>(cartService.getCartItems(email));
+            if (items.isEmpty()) {
+                throw new IllegalArgumentException("cart.empty");
+            }
+
+            Order order;
+            try {
+                order = transactionTemplate.execute(status ->
+                        createOrder(customerId, idempotencyKey, requestHash, items, request, locale));
+            } catch (DataIntegrityViolationException ex) {
+                // A concurrent retry with the same key committed first
+                return orderRepository.findByCustomerIdAndIdempotencyKey(customerId, idempotencyKey)
+                        .map(committed -> replay(committed, requestHash))
+                        .orElseThrow(() -> ex);
+            }
+            cartService.removeItems(email, items.keySet());
+            return toResponse(order);
+        } finally {
+            sample.stop(checkoutTimer);
+        }
+    }
+
+    /**
+     * Items are processed in variation id order so that concurrent checkouts lock variation rows in the
+     * same order.
+     */
+    private Order createOrder(Long customerId, String idempotencyKey, String requestHash, Map<Long, Integer> items,
+                              PlaceOrderRequest request, Locale locale) {
+        Address address = addressRepository.findActiveByIdAndCustomerId(request.getAddressId(), customerId)
+                .orElseThrow(() -> new ResourceNotFoundException("customer.address.not.found"));
+        Map<Long, ProductVariation> variations = productVariationRepository.findAllWithProductByIdIn(items.keySet())
+                .stream()
+                .collect(Collectors.toMap(ProductVariation::getId, Function.identity()));
+
+        List<Long> reservationIds = new ArrayList<>(items.size());
+        for (Map.Entry<Long, Integer> item : items.entrySet()) {
+            if (!isPurchasable(variations.get(item.getKey()))) {
+                throw new IllegalArgumentException("cart.item.unavailable");
+            }
+            reservationIds.add(inventoryService.reserve(item.getKey(), item.getValue()));
+        }
+
+        Order order = new Order();
+        order.setCustomer(customerRepository.getReferenceById(customerId));
+        order.setIdempotencyKey(idempotencyKey);
+        order.setRequestHash(requestHash);
+        order.setPaymentMethod(request.getPaymentMethod());
+        order.setCustomerAddressAddressLine(address.getAddressLine());
+        order.setCustomerAddressCity(address.getCity());
+        order.setCustomerAddressState(address.getState());
+        order.setCustomerAddressCountry(address.getCountry());
+        order.setCustomerAddressZipCode(address.getZipCode());
+        order.setCustomerAddressLabel(address.getLabel());
+
+        double amount = 0;
+        for (Map.Entry<Long, Integer> item : items.entrySet()) {
+            ProductVariation variation = variations.get(item.getKey());
+            OrderProduct orderProduct = new OrderProduct();
+            orderProduct.setOrder(order);
+            orderProduct.setProductVariation(variation);
+            orderProduct.setQuantity(item.getValue());
+            orderProduct.setPrice(variation.getPrice());
+            order.getOrderProducts().add(orderProduct);
+            amount += variation.getPrice() * item.getValue();
+        }
+        order.setAmountPaid(amount);
+
+        orderRepository.save(order);
+        orderProductRepository.saveAll(order.getOrderProducts());
+        orderStatusService.recordPlaced(order, customerId);
+        inventoryService.commitAll(reservationIds);
+        enqueueNotifications(order, locale);
+
+        eventPublisher.publishEvent(new OrderPlacedEvent(order.getId(), amount, items.size()));
+        return order;
+    }
+
+    /**
+     * Queues the customer's confirmation and one mail per seller listing that seller's items.
+     */
+    private void enqueueNotifications(Order order, Locale locale) {
+        emailService.sendOrderConfirmationEmail(order, locale);
+
+        Map<Long, Seller> sellers = new LinkedHashMap<>();
+        Map<Long, List<OrderProduct>> itemsBySeller = new LinkedHashMap<>();
+        for (OrderProduct item : order.getOrderProducts()) {
+            Seller seller = item.getProductVariation().getProduct().getSeller();
+            sellers.putIfAbsent(seller.getId(), seller);
+            itemsBySeller.computeIfAbsent(seller.getId(), id -> new ArrayList<>()).add(item);
+        }
+        itemsBySeller.forEach((sellerId, sellerItems) ->
+                emailService.sendNewOrderEmailToSeller(sellers.get(sellerId), order.getId(), sellerItems));
+    }
+
+    private PlaceOrderResponse replay(Order existing, String requestHash) {
+        // Orders placed before request hashes were stored are matched on the key alone
+        if (existing.getRequestHash() != null && !existing.getRequestHash().equals(requestHash)) {
+            throw new IllegalArgumentException("order.idempotency.key.reused");
+        }
+        return toResponse(existing);
+    }
+
+    private static String requestHash(PlaceOrderRequest request) {
+        String canonical = request.getAddressId() + "|" + request.getPaymentMethod();
+        try {
+            byte[] hash = MessageDigest.getInstance("SHA-256").digest(canonical.getBytes(StandardCharsets.UTF_8));
+            return HexFormat.of().formatHex(hash);
+        } catch (NoSuchAlgorithmException ex) {
+            throw new IllegalStateException(ex);
+        }
+    }
+
+    private boolean isPurchasable(ProductVariation variation) {
+        if (variation == null || !variation.isActive() || variation.isRemoved()) {
+            return false;
+        }
+        Product product = variation.getProduct();
+        return Boolean.TRUE.equals(product.getIsActive()) && !Boolean.TRUE.equals(product.getIsDeleted());
+    }
+
+    private PlaceOrderResponse toResponse(Order order) {
+        return PlaceOrderResponse.builder()
+                .orderId(order.getId())
+                .amountPaid(order.getAmountPaid())
+                .paymentMethod(order.getPaymentMethod())
+                .placedAt(order.getCreatedAt())
+                .build();
+    }
+}
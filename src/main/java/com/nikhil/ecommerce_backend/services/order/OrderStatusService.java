@@ -0,0 +1,20 @@
+package com.nikhil.ecommerce_backend.services.order;
+
+import com.nikhil.ecommerce_backend.constants.Status;
+import com.nikhil.ecommerce_backend.dto.general.OrderItemScrollResponse;
+import com.nikhil.ecommerce_backend.dto.seller.UpdateOrderStatusRequest;
+import com.nikhil.ecommerce_backend.entities.Order;
+
+public interface OrderStatusService {
+    void recordPlaced(Order order, Long customerId);
+
+    OrderItemScrollResponse getCustomerOrderItems(String email, int max, String cursor);
+
+    OrderItemScrollResponse getSellerOrderItems(String email, Status status, int max, String cursor);
+
+    String cancelOrderItem(String email, Long orderProductId);
+
+    String requestReturn(String email, Long orderProductId);
+
+    String updateOrderItemStatus(String email, Long orderProductId, UpdateOrderStatusRequest request);
+}
@@ -0,0 +1,240 @@
+package com.nikhil.ecommerce_backend.services.order;
+
+import com.nikhil.ecommerce_backend.constants.Status;
+import com.nikhil.ecommerce_backend.dto.general.OrderItemScrollResponse;
+import com.nikhil.ecommerce_backend.dto.general.OrderItemView;
+import com.nikhil.ecommerce_backend.dto.seller.UpdateOrderStatusRequest;
+import com.nikhil.ecommerce_backend.entities.CurrentOrderStatus;
+import com.nikhil.ecommerce_backend.entities.Order;
+import com.nikhil.ecommerce_backend.entities.OrderProduct;
+import com.nikhil.ecommerce_backend.entities.OrderStatus;
+import com.nikhil.ecommerce_backend.entities.ProductVariation;
+import com.nikhil.ecommerce_backend.exceptions.ResourceNotFoundException;
+import com.nikhil.ecommerce_backend.helper.KeysetCursor;
+import com.nikhil.ecommerce_backend.repositories.CurrentOrderStatusRepository;
+import com.nikhil.ecommerce_backend.repositories.CustomerRepository;
+import com.nikhil.ecommerce_backend.repositories.OrderStatusRepository;
+import com.nikhil.ecommerce_backend.repositories.SellerRepository;
+import com.nikhil.ecommerce_backend.services.inventory.InventoryService;
+import lombok.RequiredArgsConstructor;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.EnumMap;
+import java.util.EnumSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.stream.Collectors;
+
+/**
+ * Every transition appends an {@link OrderStatus} row and moves the item's {@link CurrentOrderStatus}
+ * forward with a compare-and-set on the previous status, in the same transaction. Listings read the
+ * current status rows only.
+ */
+@Service
+@RequiredArgsConstructor
+public class OrderStatusServiceImpl implements OrderStatusService {
+
+    private static final Map<Status, Set<Status>> TRANSITIONS = new EnumMap<>(Status.class);
+    private static final Set<Status> CUSTOMER_TARGETS = EnumSet.of(Status.CANCELLED, Status.RETURN_REQUESTED);
+    private static final Set<Status> RESTOCKING_TARGETS = EnumSet.of(Status.CANCELLED, Status.ORDER_REJECTED);
+
+    static {
+        TRANSITIONS.put(Status.ORDER_PLACED, EnumSet.of(Status.CANCELLED, Status.ORDER_CONFIRMED, Status.ORDER_REJECTED));
+        TRANSITIONS.put(Status.ORDER_CONFIRMED, EnumSet.of(Status.CANCELLED, Status.ORDER_SHIPPED));
+        TRANSITIONS.put(Status.ORDER_REJECTED, EnumSet.of(Status.REFUND_INITIATED, Status.CLOSED));
+        TRANSITIONS.put(Status.CANCELLED, EnumSet.of(Status.REFUND_INITIATED, Status.CLOSED));
+        TRANSITIONS.put(Status.ORDER_SHIPPED, EnumSet.of(Status.DELIVERED));
+        TRANSITIONS.put(Status.DELIVERED, EnumSet.of(Status.RETURN_REQUESTED, Status.CLOSED));
+        TRANSITIONS.put(Status.RETURN_REQUESTED, EnumSet.of(Status.RETURN_APPROVED, Status.RETURN_REJECTED));
+        TRANSITIONS.put(Status.RETURN_APPROVED, EnumSet.of(Status.PICK_UP_INITIATED));
+        TRANSITIONS.put(Status.RETURN_REJECTED, EnumSet.of(Status.CLOSED));
+        TRANSITIONS.put(Status.PICK_UP_INITIATED, EnumSet.of(Status.PICK_UP_COMPLETED));
+        TRANSITIONS.put(Status.PICK_UP_COMPLETED, EnumSet.of(Status.REFUND_INITIATED));
+        TRANSITIONS.put(Status.REFUND_INITIATED, EnumSet.of(Status.REFUND_COMPLETED));
+        TRANSITIONS.put(Status.REFUND_COMPLETED, EnumSet.of(Status.CLOSED));
+    }
+
+    private final CurrentOrderStatusRepository currentOrderStatusRepository;
+    private final OrderStatusRepository orderStatusRepository;
+    private final CustomerRepository customerRepository;
+    private final SellerRepository sellerRepository;
+    private final InventoryService inventoryService;
+
+    /**
+     * Writes the {@code ORDER_PLACED} log entry and current status of every item of a new order. The
+     * items' variations and products must already be loaded.
+     */
+    @Override
+    @Transactional
+    public void recordPlaced(Order order, Long customerId) {
+        LocalDateTime now = LocalDateTime.now();
+        List<OrderStatus> entries = new ArrayList<>(order.getOrderProducts().size());
+        List<CurrentOrderStatus> current = new ArrayList<>(order.getOrderProducts().size());
+        for (OrderProduct item : order.getOrderProducts()) {
+            entries.add(logEntry(item, null, Status.ORDER_PLACED, null, now));
+
+            ProductVariation variation = item.getProductVariation();
+            CurrentOrderStatus status = new CurrentOrderStatus();
+            status.setOrderProduct(item);
+            status.setOrderId(order.getId());
+            status.setCustomerId(customerId);
+            status.setSellerId(variation.getProduct().getSeller().getId());
+            status.setVariationId(variation.getId());
+            status.setProductName(variation.getProduct().getName());
+            status.setQuantity(item.getQuantity());
+            status.setPrice(item.getPrice());
+            status.setCancellable(Boolean.TRUE.equals(variation.getProduct().getIsCancellable()));
+            status.setReturnable(Boolean.TRUE.equals(variation.getProduct().getIsReturnable()));
+            status.setStatus(Status.ORDER_PLACED);
+            status.setStatusUpdatedAt(now);
+            current.add(status);
+        }
+        orderStatusRepository.saveAll(entries);
+        currentOrderStatusRepository.saveAll(current);
+    }
+
+    @Override
+    @Transactional(readOnly = true)
+    public OrderItemScrollResponse getCustomerOrderItems(String email, int max, String cursor) {
+        checkPageSize(max);
+        Long customerId = findCustomerId(email);
+        return toScrollResponse(currentOrderStatusRepository.findByCustomerIdBefore(
+                customerId, beforeId(cursor), PageRequest.of(0, max + 1)), max);
+    }
+
+    @Override
+    @Transactional(readOnly = true)
+    public OrderItemScrollResponse getSellerOrderItems(String email, Status status, int max, String cursor) {
+        checkPageSize(max);
+        Long sellerId = findSellerId(email);
+        return toScrollResponse(currentOrderStatusRepository.findBySellerIdBefore(
+                sellerId, status, beforeId(cursor), PageRequest.of(0, max + 1)), max);
+    }
+
+    @Override
+    @Transactional
+    public String cancelOrderItem(String email, Long orderProductId) {
+        CurrentOrderStatus current = findCustomerItem(findCustomerId(email), orderProductId);
+        if (!current.isCancellable()) {
+            throw new IllegalArgumentException("order.item.not.cancellable");
+        }
+        transition(current, Status.CANCELLED, null);
+        return "order.item.cancelled";
+    }
+
+    @Override
+    @Transactional
+    public String requestReturn(String email, Long orderProductId) {
+        CurrentOrderStatus current = findCustomerItem(findCustomerId(email), orderProductId);
+        if (!current.isReturnable()) {
+            throw new IllegalArgumentException("order.item.not.returnable");
+        }
+        transition(current, Status.RETURN_REQUESTED, null);
+        return "order.item.return.requested";
+    }
+
+    @Override
+    @Transactional
+    public String updateOrderItemStatus(String email, Long orderProductId, UpdateOrderStatusRequest request) {
+        if (CUSTOMER_TARGETS.contains(request.getStatus())) {
+            throw new IllegalArgumentException("order.status.transition.invalid");
+        }
+        Long sellerId = findSellerId(email);
+        CurrentOrderStatus current = currentOrderStatusRepository.findByOrderProductId(orderProductId)
+                .filter(status -> status.getSellerId().equals(sellerId))
+                .orElseThrow(() -> new ResourceNotFoundException("order.item.not.found"));
+        transition(current, request.getStatus(), request.getNotes());
+        return "order.status.updated";
+    }
+
+    private void transition(CurrentOrderStatus current, Status to, String notes) {
+        Status from = current.getStatus();
+        if (!TRANSITIONS.getOrDefault(from, Collections.emptySet()).contains(to)) {
+            throw new IllegalArgumentException("order.status.transition.invalid");
+        }
+        LocalDateTime now = LocalDateTime.now();
+        if (currentOrderStatusRepository.transition(current.getOrderProduct().getId(), from, to, now) == 0) {
+            throw new IllegalArgumentException("order.status.changed");
+        }
+        orderStatusRepository.save(logEntry(current.getOrderProduct(), from, to, notes, now));
+        if (RESTOCKING_TARGETS.contains(to)) {
+            inventoryService.restock(current.getVariationId(), current.getQuantity());
+        }
+    }
+
+    private OrderStatus logEntry(OrderProduct item, Status from, Status to, String notes, LocalDateTime at) {
+        OrderStatus entry = new OrderStatus();
+        entry.setOrderProduct(item);
+        entry.setFromStatus(from);
+        entry.setToStatus(to);
+        entry.setTransitionNotesComments(notes);
+        entry.setTransitionDate(at);
+        return entry;
+    }
+
+    private CurrentOrderStatus findCustomerItem(Long customerId, Long orderProductId) {
+        return currentOrderStatusRepository.findByOrderProductId(orderProductId)
+                .filter(status -> status.getCustomerId().equals(customerId))
+                .orElseThrow(() -> new ResourceNotFoundException("order.item.not.found"));
+    }
+
+    private OrderItemScrollResponse toScrollResponse(List<CurrentOrderStatus> rows, int max) {
+        boolean hasNext = rows.size() > max;
+        List<CurrentOrderStatus> page = hasNext ? rows.subList(0, max) : rows;
+        String nextCursor = null;
+        if (hasNext) {
+            Long lastId = page.get(page.size() - 1).getId();
+            nextCursor = new KeysetCursor("id", true, String.valueOf(lastId), lastId).encode();
+        }
+        return OrderItemScrollResponse.builder()
+                .content(page.stream().map(this::toView).collect(Collectors.toList()))
+                .nextCursor(nextCursor)
+                .hasNext(hasNext)
+                .build();
+    }
+
+    private OrderItemView toView(CurrentOrderStatus status) {
+        return OrderItemView.builder()
+                .orderId(status.getOrderId())
+                .orderProductId(status.getOrderProduct().getId())
+                .variationId(status.getVariationId())
+                .productName(status.getProductName())
+                .quantity(status.getQuantity())
+                .price(status.getPrice())
+                .status(status.getStatus())
+                .statusUpdatedAt(status.getStatusUpdatedAt())
+                .build();
+    }
+
+    private long beforeId(String cursor) {
+        if (cursor == null || cursor.isBlank()) {
+            return Long.MAX_VALUE;
+        }
+        return KeysetCursor.decode(cursor, "id", true).getLastId();
+    }
+
+    private void checkPageSize(int max) {
+        if (max < 1) {
+            throw new IllegalArgumentException("page.size.invalid");
+        }
+        if (max > KeysetCursor.MAX_PAGE_SIZE) {
+            throw new IllegalArgumentException("page.size.too.large");
+        }
+    }
+
+    private Long findCustomerId(String email) {
+        return customerRepository.findIdByEmail(email)
+                .orElseThrow(() -> new ResourceNotFoundException("customer.profile.not.found"));
+    }
+
+    private Long findSellerId(String email) {
+        return sellerRepository.findIdByEmail(email)
+                .orElseThrow(() -> new ResourceNotFoundException("seller.profile.not.found"));
+    }
+}
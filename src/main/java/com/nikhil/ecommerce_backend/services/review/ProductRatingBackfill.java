@@ -0,0 +1,30 @@
+package com.nikhil.ecommerce_backend.services.review;
+
+import com.nikhil.ecommerce_backend.repositories.ProductRepository;
+import jakarta.annotation.PostConstruct;
+import lombok.RequiredArgsConstructor;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.stereotype.Component;
+
+/**
+ * Brings the rating counts on the product rows in line with the stored reviews once at startup, so
+ * reviews written before the counts existed show up in the histograms and deleting one cannot drive a
+ * count below zero. Runs during context initialisation, before this node takes any review traffic.
+ */
+@Component
+@RequiredArgsConstructor
+public class ProductRatingBackfill {
+
+    private static final Logger logger = LoggerFactory.getLogger(ProductRatingBackfill.class);
+
+    private final ProductRepository productRepository;
+
+    @PostConstruct
+    public void backfill() {
+        int updated = productRepository.backfillRatings();
+        if (updated > 0) {
+            logger.info("Recounted the ratings of {} products", updated);
+        }
+    }
+}
@@ -0,0 +1,15 @@
+package com.nikhil.ecommerce_backend.services.review;
+
+import com.nikhil.ecommerce_backend.dto.customer.AddReviewRequest;
+import com.nikhil.ecommerce_backend.dto.customer.ReviewScrollResponse;
+import com.nikhil.ecommerce_backend.dto.customer.UpdateReviewRequest;
+
+public interface ReviewService {
+    String addReview(String email, AddReviewRequest request);
+
+    String updateReview(String email, Long reviewId, UpdateReviewRequest request);
+
+    String deleteReview(String email, Long reviewId);
+
+    ReviewScrollResponse getProductReviews(Long productId, int max, String cursor);
+}
@@ -0,0 +1,153 @@
+package com.nikhil.ecommerce_backend.services.review;
+
+import com.nikhil.ecommerce_backend.constants.ProductRating;
+import com.nikhil.ecommerce_backend.dto.customer.AddReviewRequest;
+import com.nikhil.ecommerce_backend.dto.customer.ReviewScrollResponse;
+import com.nikhil.ecommerce_backend.dto.customer.UpdateReviewRequest;
+import com.nikhil.ecommerce_backend.entities.Product;
+import com.nikhil.ecommerce_backend.entities.ProductReview;
+import com.nikhil.ecommerce_backend.events.ProductReviewChangedEvent;
+import com.nikhil.ecommerce_backend.exceptions.ResourceNotFoundException;
+import com.nikhil.ecommerce_backend.helper.KeysetCursor;
+import com.nikhil.ecommerce_backend.repositories.CustomerRepository;
+import com.nikhil.ecommerce_backend.repositories.ProductRepository;
+import com.nikhil.ecommerce_backend.repositories.ProductReviewRepository;
+import lombok.RequiredArgsConstructor;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.util.List;
+import java.util.stream.Collectors;
+
+/**
+ * Every review change adjusts the rating counts on its product row in the same transaction, so listings
+ * and product views read averages and histograms without touching the reviews.
+ */
+@Service
+@RequiredArgsConstructor
+public class ReviewServiceImpl implements ReviewService {
+
+    private final ProductReviewRepository productReviewRepository;
+    private final ProductRepository productRepository;
+    private final CustomerRepository customerRepository;
+    private final ApplicationEventPublisher eventPublisher;
+
+    @Override
+    @Transactional
+    public String addReview(String email, AddReviewRequest request) {
+        Long customerId = findCustomerId(email);
+        Product product = productRepository.findById(request.getProductId())
+                .filter(p -> p.getIsActive() && !p.getIsDeleted())
+                .orElseThrow(() -> new ResourceNotFoundException("product.not.found"));
+        if (productReviewRepository.existsByCustomerIdAndProductId(customerId, product.getId())) {
+            throw new IllegalArgumentException("review.already.exists");
+        }
+
+        ProductReview review = new ProductReview();
+        review.setCustomer(customerRepository.getReferenceById(customerId));
+        review.setProduct(product);
+        review.setRating(toRating(request.getRating()));
+        review.setReview(request.getReview());
+        try {
+            productReviewRepository.saveAndFlush(review);
+        } catch (DataIntegrityViolationException ex) {
+            // A concurrent review by the same customer won the unique key after the check above
+            throw new IllegalArgumentException("review.already.exists");
+        }
+
+        productRepository.adjustRatings(product.getId(), request.getRating(), 0);
+        eventPublisher.publishEvent(new ProductReviewChangedEvent(product.getId()));
+        return "review.added";
+    }
+
+    @Override
+    @Transactional
+    public String updateReview(String email, Long reviewId, UpdateReviewRequest request) {
+        ProductReview review = findOwnReview(email, reviewId);
+        int previous = review.getRating().getValue();
+        review.setRating(toRating(request.getRating()));
+        review.setReview(request.getReview());
+
+        if (previous != request.getRating()) {
+            Long productId = review.getProduct().getId();
+            productRepository.adjustRatings(productId, request.getRating(), previous);
+            eventPublisher.publishEvent(new ProductReviewChangedEvent(productId));
+        }
+        return "review.updated";
+    }
+
+    @Override
+    @Transactional
+    public String deleteReview(String email, Long reviewId) {
+        ProductReview review = findOwnReview(email, reviewId);
+        Long productId = review.getProduct().getId();
+        productReviewRepository.delete(review);
+
+        productRepository.adjustRatings(productId, 0, review.getRating().getValue());
+        eventPublisher.publishEvent(new ProductReviewChangedEvent(productId));
+        return "review.deleted";
+    }
+
+    @Override
+    @Transactional(readOnly = true)
+    public ReviewScrollResponse getProductReviews(Long productId, int max, String cursor) {
+        if (max < 1) {
+            throw new IllegalArgumentException("page.size.invalid");
+        }
+        if (max > KeysetCursor.MAX_PAGE_SIZE) {
+            throw new IllegalArgumentException("page.size.too.large");
+        }
+        long beforeId = cursor == null || cursor.isBlank()
+                ? Long.MAX_VALUE
+                : KeysetCursor.decode(cursor, "id", true).getLastId();
+        List<ProductReview> rows = productReviewRepository.findByProductIdBefore(
+                productId, beforeId, PageRequest.of(0, max + 1));
+
+        boolean hasNext = rows.size() > max;
+        List<ProductReview> page = hasNext ? rows.subList(0, max) : rows;
+        String nextCursor = null;
+        if (hasNext) {
+            Long lastId = page.get(page.size() - 1).getId();
+            nextCursor = new KeysetCursor("id", true, String.valueOf(lastId), lastId).encode();
+        }
+
+        return ReviewScrollResponse.builder()
+                .content(page.stream()
+                        .map(review -> ReviewScrollResponse.Review.builder()
+                                .id(review.getId())
+                                .rating(review.getRating().getValue())
+                                .review(review.getReview())
+                                .reviewerName(review.getCustomer().getFirstName())
+                                .createdAt(review.getCreatedAt())
+                                .build())
+                        .collect(Collectors.toList()))
+                .nextCursor(nextCursor)
+                .hasNext(hasNext)
+                .build();
+    }
+
+    /**
+     * Locks the review so that concurrent edits of it adjust the counts from the rating each one saw.
+     */
+    private ProductReview findOwnReview(String email, Long reviewId) {
+        return productReviewRepository.findByIdAndCustomerIdForUpdate(reviewId, findCustomerId(email))
+                .orElseThrow(() -> new ResourceNotFoundException("review.not.found"));
+    }
+
+    private ProductRating toRating(int value) {
+        for (ProductRating rating : ProductRating.values()) {
+            if (rating.getValue() == value) {
+                return rating;
+            }
+        }
+        throw new IllegalArgumentException("review.rating.invalid");
+    }
+
+    private Long findCustomerId(String email) {
+        return customerRepository.findIdByEmail(email)
+                .orElseThrow(() -> new ResourceNotFoundException("customer.profile.not.found"));
+    }
+}
@@ -0,0 +1,430 @@
+package com.nikhil.ecommerce_backend.services.seller;
+
+import com.fasterxml.jackson.databind.MappingIterator;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.dataformat.csv.CsvMapper;
+import com.fasterxml.jackson.dataformat.csv.CsvSchema;
+import com.nikhil.ecommerce_backend.dto.seller.ProductImportResponse;
+import com.nikhil.ecommerce_backend.dto.seller.ProductImportRow;
+import com.nikhil.ecommerce_backend.entities.Product;
+import com.nikhil.ecommerce_backend.entities.ProductVariation;
+import com.nikhil.ecommerce_backend.entities.Seller;
+import com.nikhil.ecommerce_backend.events.ProductsImportedEvent;
+import com.nikhil.ecommerce_backend.exceptions.ResourceNotFoundException;
+import com.nikhil.ecommerce_backend.repositories.CategoryRepository;
+import com.nikhil.ecommerce_backend.repositories.ProductRepository;
+import com.nikhil.ecommerce_backend.repositories.SellerRepository;
+import com.nikhil.ecommerce_backend.services.common.CategoryMetadataSchemaCache;
+import com.nikhil.ecommerce_backend.services.common.CategoryTreeIndex;
+import com.nikhil.ecommerce_backend.services.common.EmailService;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.context.MessageSource;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.io.UncheckedIOException;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
+
+/**
+ * Streams a seller's NDJSON or CSV catalogue into the database. Rows are validated one at a time
+ * against the category tree and cached metadata schema, grouped into products and saved in chunks,
+ * each chunk in its own transaction so that inserts are batched and memory stays flat.
+ * <p>
+ * Imported products and their variations are created inactive and without images; the seller adds the
+ * images and activates each variation through the regular update flow once the product is activated.
+ * A product the seller already has with the same name, brand and category is skipped, so a file can
+ * safely be uploaded again after a partial failure.
+ */
+@Service
+public class ProductImportService {
+
+    private static final Logger logger = LoggerFactory.getLogger(ProductImportService.class);
+
+    private final SellerRepository sellerRepository;
+    private final CategoryRepository categoryRepository;
+    private final ProductRepository productRepository;
+    private final CategoryTreeIndex categoryTreeIndex;
+    private final CategoryMetadataSchemaCache categoryMetadataSchemaCache;
+    private final EmailService emailService;
+    private final MessageSource messageSource;
+    private final ApplicationEventPublisher eventPublisher;
+    private final ObjectMapper objectMapper;
+    private final TransactionTemplate transactionTemplate;
+    private final CsvMapper csvMapper = new CsvMapper();
+    private final int chunkSize;
+
+    public ProductImportService(SellerRepository sellerRepository, CategoryRepository categoryRepository,
+                                ProductRepository productRepository, CategoryTreeIndex categoryTreeIndex,
+                                CategoryMetadataSchemaCache categoryMetadataSchemaCache, EmailService emailService,
+                                MessageSource messageSource, ApplicationEventPublisher eventPublisher,
+                                ObjectMapper objectMapper,
+                                PlatformTransactionManager transactionManager,
+                                @Value("${app.import.chunk-size}") int chunkSize) {
+        this.sellerRepository = sellerRepository;
+        this.categoryRepository = categoryRepository;
+        this.productRepository = productRepository;
+        this.categoryTreeIndex = categoryTreeIndex;
+        this.categoryMetadataSchemaCache = categoryMetadataSchemaCache;
+        this.emailService = emailService;
+        this.messageSource = messageSource;
+        this.eventPublisher = eventPublisher;
+        this.objectMapper = objectMapper;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.chunkSize = chunkSize;
+    }
+
+    /**
+     * Imports the request body as it arrives. {@code text/csv} is read as CSV with a header row,
+     * {@code application/x-ndjson} as one JSON object per line.
+     */
+    public ProductImportResponse importProducts(String sellerEmail, InputStream body, String contentType, Locale locale) {
+        boolean csv = isCsv(contentType);
+        Seller seller = sellerRepository.findByEmail(sellerEmail);
+        if (seller == null) {
+            throw new ResourceNotFoundException("seller.profile.not.found");
+        }
+
+        ImportRun run = new ImportRun(seller.getId(), locale);
+        try (InputStream in = body) {
+            if (csv) {
+                readCsv(in, run);
+            } else {
+                readNdjson(in, run);
+            }
+        } catch (IOException ex) {
+            throw new UncheckedIOException(ex);
+        }
+        run.finish();
+
+        if (run.importedProducts > 0) {
+            emailService.sendProductImportDigestToAdmin(seller.getCompanyName(), seller.getEmail(),
+                    run.importedProducts, run.importedNames);
+        }
+
+        return ProductImportResponse.builder()
+                .totalRows(run.totalRows)
+                .importedRows(run.importedRows)
+                .failedRows(run.totalRows - run.importedRows)
+                .importedProducts(run.importedProducts)
+                .rows(run.results)
+                .build();
+    }
+
+    private boolean isCsv(String contentType) {
+        String type = Objects.requireNonNullElse(contentType, "").toLowerCase(Locale.ROOT);
+        if (type.startsWith("text/csv")) {
+            return true;
+        }
+        if (type.startsWith("application/x-ndjson") || type.startsWith("application/jsonl")) {
+            return false;
+        }
+        throw new IllegalArgumentException("import.format.unsupported");
+    }
+
+    private void readNdjson(InputStream in, ImportRun run) throws IOException {
+        BufferedReader reader = new BufferedReader(new InputStreamReader(in, StandardCharsets.UTF_8));
+        String line;
+        long rowNumber = 0;
+        while ((line = reader.readLine()) != null) {
+            rowNumber++;
+            if (line.isBlank()) {
+                continue;
+            }
+            ProductImportRow row;
+            try {
+                row = objectMapper.readValue(line, ProductImportRow.class);
+            } catch (IOException ex) {
+                run.reject(rowNumber, "import.row.malformed");
+                continue;
+            }
+            run.accept(rowNumber, row);
+        }
+    }
+
+    /**
+     * CSV columns follow {@link ProductImportRow}; metadata is written as {@code field=value;field=value}.
+     */
+    private void readCsv(InputStream in, ImportRun run) throws IOException {
+        CsvSchema schema = CsvSchema.emptySchema().withHeader();
+        long rowNumber = 1;
+        try (MappingIterator<Map<String, String>> rows = csvMapper.readerForMapOf(String.class).with(schema).readValues(in)) {
+            while (rows.hasNextValue()) {
+                rowNumber++;
+                Map<String, String> columns = rows.nextValue();
+                ProductImportRow row;
+                try {
+                    row = toRow(columns);
+                } catch (IllegalArgumentException ex) {
+                    run.reject(rowNumber, "import.row.malformed");
+                    continue;
+                }
+                run.accept(rowNumber, row);
+            }
+        } catch (RuntimeException | IOException ex) {
+            logger.warn("Product import stopped at CSV row {}", rowNumber, ex);
+            run.reject(rowNumber, "import.row.malformed");
+        }
+    }
+
+    private ProductImportRow toRow(Map<String, String> columns) {
+        ProductImportRow row = new ProductImportRow();
+        row.setName(blankToNull(columns.get("name")));
+        row.setBrand(blankToNull(columns.get("brand")));
+        row.setDescription(blankToNull(columns.get("description")));
+        String categoryId = blankToNull(columns.get("categoryId"));
+        row.setCategoryId(categoryId == null ? null : Long.valueOf(categoryId));
+        row.setIsCancellable(Boolean.parseBoolean(columns.get("isCancellable")));
+        row.setIsReturnable(Boolean.parseBoolean(columns.get("isReturnable")));
+        String price = blankToNull(columns.get("price"));
+        row.setPrice(price == null ? null : Double.valueOf(price));
+        String quantity = blankToNull(columns.get("quantityAvailable"));
+        row.setQuantityAvailable(quantity == null ? null : Integer.valueOf(quantity));
+        String metadata = blankToNull(columns.get("metadata"));
+        if (metadata != null) {
+            Map<String, String> values = new LinkedHashMap<>();
+            for (String pair : metadata.split(";")) {
+                int separator = pair.indexOf('=');
+                if (separator <= 0) {
+                    throw new IllegalArgumentException("import.row.malformed");
+                }
+                values.put(pair.substring(0, separator).trim(), pair.substring(separator + 1).trim());
+            }
+            row.setMetadata(values);
+        }
+        return row;
+    }
+
+    private static String blankToNull(String value) {
+        return value == null || value.isBlank() ? null : value.trim();
+    }
+
+    private static final class PendingProduct {
+        private final ProductImportRow first;
+        private final List<ProductImportRow> variations = new ArrayList<>();
+        private final List<Long> rowNumbers = new ArrayList<>();
+        private Long existingId;
+        private boolean repeated;
+
+        private PendingProduct(ProductImportRow first) {
+            this.first = first;
+        }
+
+        private boolean matches(ProductImportRow row) {
+            return first.getName().equals(row.getName())
+                    && first.getBrand().equals(row.getBrand())
+                    && first.getCategoryId().equals(row.getCategoryId());
+        }
+
+        private String key() {
+            return importKey(first.getName(), first.getBrand(), first.getCategoryId());
+        }
+    }
+
+    private static String importKey(String name, String brand, Long categoryId) {
+        return name + "\n" + brand + "\n" + categoryId;
+    }
+
+    private final class ImportRun {
+        private final Long sellerId;
+        private final Locale locale;
+        private final List<ProductImportResponse.RowResult> results = new ArrayList<>();
+        private final List<String> importedNames = new ArrayList<>();
+        private final List<PendingProduct> chunk = new ArrayList<>();
+        private final Set<String> importedKeys = new HashSet<>();
+        private PendingProduct current;
+        private long totalRows;
+        private long importedRows;
+        private int importedProducts;
+
+        private ImportRun(Long sellerId, Locale locale) {
+            this.sellerId = sellerId;
+            this.locale = locale;
+        }
+
+        private void accept(long rowNumber, ProductImportRow row) {
+            String error = validate(row);
+            if (error != null) {
+                reject(rowNumber, error);
+                return;
+            }
+            if (current == null || !current.matches(row)) {
+                close();
+                current = new PendingProduct(row);
+            } else if (row.hasVariation() && !current.variations.isEmpty()
+                    && !current.variations.get(0).getMetadata().keySet().equals(row.getMetadata().keySet())) {
+                reject(rowNumber, "metadata.structure.mismatch");
+                return;
+            }
+            totalRows++;
+            if (row.hasVariation()) {
+                current.variations.add(row);
+            }
+            current.rowNumbers.add(rowNumber);
+        }
+
+        private String validate(ProductImportRow row) {
+            if (row.getName() == null || row.getName().isBlank() || row.getBrand() == null
+                    || row.getBrand().isBlank() || row.getCategoryId() == null) {
+                return "import.field.required";
+            }
+            if (!categoryTreeIndex.contains(row.getCategoryId())) {
+                return "category.not.found";
+            }
+            if (!categoryTreeIndex.isLeaf(row.getCategoryId())) {
+                return "category.not.leaf";
+            }
+            if (!row.hasVariation()) {
+                return null;
+            }
+            if (row.getPrice() == null || row.getPrice() <= 0) {
+                return "import.price.invalid";
+            }
+            if (row.getQuantityAvailable() == null || row.getQuantityAvailable() < 0) {
+                return "import.quantity.invalid";
+            }
+            if (row.getMetadata() == null || row.getMetadata().isEmpty()) {
+                return "metadata.required";
+            }
+            try {
+                categoryMetadataSchemaCache.validate(row.getCategoryId(), row.getMetadata());
+            } catch (IllegalArgumentException ex) {
+                return ex.getMessage();
+            }
+            return null;
+        }
+
+        private void reject(long rowNumber, String messageKey) {
+            totalRows++;
+            results.add(new ProductImportResponse.RowResult(rowNumber, false, null,
+                    messageSource.getMessage(messageKey, null, locale)));
+        }
+
+        private void close() {
+            if (current != null) {
+                current.repeated = !importedKeys.add(current.key());
+                chunk.add(current);
+                current = null;
+                if (chunk.size() >= chunkSize) {
+                    flush();
+                }
+            }
+        }
+
+        private void finish() {
+            close();
+            flush();
+            results.sort(Comparator.comparingLong(ProductImportResponse.RowResult::getRow));
+        }
+
+        private void flush() {
+            if (chunk.isEmpty()) {
+                return;
+            }
+            try {
+                List<Product> saved = transactionTemplate.execute(status -> {
+                    Map<String, Long> existing = findExisting();
+                    Seller seller = sellerRepository.getReferenceById(sellerId);
+                    List<Product> products = new ArrayList<>(chunk.size());
+                    for (PendingProduct pending : chunk) {
+                        Long existingId = existing.get(pending.key());
+                        if (existingId != null) {
+                            pending.existingId = existingId;
+                        } else if (!pending.repeated) {
+                            products.add(toProduct(pending, seller));
+                        }
+                    }
+                    if (products.isEmpty()) {
+                        return products;
+                    }
+                    List<Product> persisted = productRepository.saveAll(products);
+                    eventPublisher.publishEvent(new ProductsImportedEvent(
+                            persisted.stream().map(Product::getId).toList()));
+                    return persisted;
+                });
+                int next = 0;
+                String skipped = messageSource.getMessage("import.product.exists", null, locale);
+                for (PendingProduct pending : chunk) {
+                    if (pending.existingId != null || pending.repeated) {
+                        for (Long rowNumber : pending.rowNumbers) {
+                            results.add(new ProductImportResponse.RowResult(rowNumber, false, pending.existingId, skipped));
+                        }
+                        continue;
+                    }
+                    Product product = saved.get(next++);
+                    for (Long rowNumber : pending.rowNumbers) {
+                        results.add(new ProductImportResponse.RowResult(rowNumber, true, product.getId(), null));
+                        importedRows++;
+                    }
+                    importedProducts++;
+                    if (importedNames.size() < 50) {
+                        importedNames.add(product.getName());
+                    }
+                }
+            } catch (RuntimeException ex) {
+                logger.warn("Product import chunk of {} products failed", chunk.size(), ex);
+                String message = messageSource.getMessage("import.chunk.failed", null, locale);
+                for (PendingProduct pending : chunk) {
+                    for (Long rowNumber : pending.rowNumbers) {
+                        results.add(new ProductImportResponse.RowResult(rowNumber, false, null, message));
+                    }
+                }
+            } finally {
+                chunk.clear();
+            }
+        }
+
+        private Map<String, Long> findExisting() {
+            Set<String> names = new HashSet<>();
+            for (PendingProduct pending : chunk) {
+                names.add(pending.first.getName());
+            }
+            Map<String, Long> existing = new HashMap<>();
+            for (Object[] row : productRepository.findImportKeys(sellerId, names)) {
+                existing.put(importKey((String) row[1], (String) row[2], (Long) row[3]), (Long) row[0]);
+            }
+            return existing;
+        }
+
+        private Product toProduct(PendingProduct pending, Seller seller) {
+            ProductImportRow first = pending.first;
+            Product product = new Product();
+            product.setName(first.getName());
+            product.setBrand(first.getBrand());
+            product.setDescription(first.getDescription());
+            product.setIsCancellable(Boolean.TRUE.equals(first.getIsCancellable()));
+            product.setIsReturnable(Boolean.TRUE.equals(first.getIsReturnable()));
+            product.setSeller(seller);
+            product.setCategory(categoryRepository.getReferenceById(first.getCategoryId()));
+            product.setIsActive(false);
+
+            for (ProductImportRow row : pending.variations) {
+                ProductVariation variation = new ProductVariation();
+                variation.setProduct(product);
+                variation.setQuantityAvailable(row.getQuantityAvailable());
+                variation.setPrice(row.getPrice());
+                variation.setMetadata(objectMapper.valueToTree(row.getMetadata()));
+                variation.setActive(false);
+                product.getVariations().add(variation);
+            }
+            return product;
+        }
+    }
+}
@@ -5,14 +5,21 @@ import com.nikhil.ecommerce_backend.dto.seller.ProductResponse;
 import com.nikhil.ecommerce_backend.dto.seller.*;
 import com.nikhil.ecommerce_backend.dto.general.UpdatePasswordRequest;
 import com.nikhil.ecommerce_backend.entities.*;
+import com.nikhil.ecommerce_backend.events.ProductChangedEvent;
 import com.nikhil.ecommerce_backend.exceptions.PasswordMismatchException;
 import com.nikhil.ecommerce_backend.exceptions.ResourceNotFoundException;
 import com.nikhil.ecommerce_backend.repositories.*;
 import com.nikhil.ecommerce_backend.repositories.specifications.ProductSpecification;
 import com.nikhil.ecommerce_backend.services.ProductServiceCommon;
+import com.nikhil.ecommerce_backend.services.common.CategoryMetadataSchemaCache;
+import com.nikhil.ecommerce_backend.services.common.CategoryTreeIndex;
 import com.nikhil.ecommerce_backend.services.common.EmailService;
 import com.nikhil.ecommerce_backend.services.common.FileStorageService;
+import com.nikhil.ecommerce_backend.services.inventory.InventoryService;
+import com.nikhil.ecommerce_backend.services.common.ImageVariant;
+import com.nikhil.ecommerce_backend.services.common.ProductSearchIndex;
 import lombok.RequiredArgsConstructor;
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.context.MessageSource;
 import org.springframework.data.domain.*;
 import org.springframework.data.jpa.domain.Specification;
@@ -36,12 +43,16 @@ public class SellerServiceImpl implements SellerService {
     private final MessageSource messageSource;
     private final FileStorageService fileStorageService;
     private final CategoryRepository categoryRepository;
+    private final CategoryTreeIndex categoryTreeIndex;
     private final ProductRepository productRepository;
-    private final CategoryMetadataFieldValuesRepository categoryMetadataFieldValuesRepository;
+    private final CategoryMetadataSchemaCache categoryMetadataSchemaCache;
     private final ProductVariationRepository  productVariationRepository;
     private final ObjectMapper objectMapper;
     private final ProductSpecification  productSpecification;
     private final ProductServiceCommon productServiceCommon;
+    private final ApplicationEventPublisher eventPublisher;
+    private final ProductSearchIndex productSearchIndex;
+    private final InventoryService inventoryService;
 
     private Seller findSellerByEmail(String email) {
         if (sellerRepository.existsByEmail(email)) {
@@ -57,11 +68,10 @@ public class SellerServiceImpl implements SellerService {
         Seller seller = findSellerByEmail(sellerEmail);
         Address address = seller.getAddress();
         String imageUrl = null;
-        Optional<String> imageNameOpt = fileStorageService.findUserImageName(seller.getId());
-        if (imageNameOpt.isPresent()) {
+        if (seller.getImageUrl() != null) {
             imageUrl = ServletUriComponentsBuilder.fromCurrentContextPath()
                     .path("/uploads/users/")
-                    .path(imageNameOpt.get())
+                    .path(seller.getImageUrl())
                     .toUriString();
         }
         return SellerProfileResponse.builder()
@@ -98,7 +108,7 @@ public class SellerServiceImpl implements SellerService {
             seller.setCompanyContact(request.getCompanyContact());
         }
         if (imageFile != null && !imageFile.isEmpty()) {
-            fileStorageService.storeUserImage(imageFile, seller.getId());
+            seller.setImageUrl(fileStorageService.storeUserImage(imageFile, seller.getId(), seller.getImageUrl()));
         }
         sellerRepository.save(seller);
         return "seller.profile.update.success";
@@ -202,12 +212,11 @@ public class SellerServiceImpl implements SellerService {
 
     private List<String> getParentChain(Category category)
     {
-        LinkedList<String> chain = new LinkedList<>();
-        Category current = category;
-        while (current != null) {
-            chain.addFirst(current.getName());
-            current = current.getParentCategory();
+        List<String> chain = new ArrayList<>();
+        for (Long ancestorId : categoryTreeIndex.getAncestorIds(category.getId())) {
+            chain.add(categoryTreeIndex.getName(ancestorId));
         }
+        chain.add(category.getName());
         return chain;
     }
 
@@ -219,7 +228,7 @@ public class SellerServiceImpl implements SellerService {
         Category category = categoryRepository.findById(request.getCategoryId())
                 .orElseThrow(() -> new ResourceNotFoundException("category.not.found"));
 
-        if (!categoryRepository.isLeafCategory((category.getId())))
+        if (!categoryTreeIndex.isLeaf(category.getId()))
         {
             throw new IllegalArgumentException("category.not.leaf");
         }
@@ -245,6 +254,7 @@ public class SellerServiceImpl implements SellerService {
         product.setIsActive(false);
 
         Product savedProduct = productRepository.save(product);
+        eventPublisher.publishEvent(new ProductChangedEvent(savedProduct.getId(), category.getId()));
 
         emailService.sendProductActivationEmailToAdmin(savedProduct);
 
@@ -281,11 +291,7 @@ public class SellerServiceImpl implements SellerService {
         });
 
         Long categoryId = product.getCategory().getId();
-        for (Map.Entry<String, String> entry : request.getMetadata().entrySet()) {
-            if (categoryMetadataFieldValuesRepository.isValueValidForCategory(categoryId, entry.getKey(), entry.getValue()) == 0) {
-                throw new IllegalArgumentException("metadata.value.invalid");
-            }
-        }
+        categoryMetadataSchemaCache.validate(categoryId, request.getMetadata());
 
         String primaryImageName = fileStorageService.storeProductImage(primaryImage, "products");
 
@@ -312,6 +318,7 @@ public class SellerServiceImpl implements SellerService {
                 savedVariation.getSecondaryImages().addAll(imageEntities);
             }
         }
+        eventPublisher.publishEvent(new ProductChangedEvent(product.getId(), categoryId));
         return "product.variation.add.success";
     }
 
@@ -355,11 +362,10 @@ public class SellerServiceImpl implements SellerService {
                 .build();
 
         Map<String, Object> metadataMap = objectMapper.convertValue(variation.getMetadata(), new TypeReference<>() {});
-        Optional<String> imageNameOpt = fileStorageService.findProductImage(variation.getPrimaryImageName());
-        String imageUrl = ServletUriComponentsBuilder.fromCurrentContextPath()
-                .path("/uploads/products/")
-                .path(imageNameOpt.get())
-                .toUriString();
+        String imageUrl = Optional.ofNullable(variation.getPrimaryImageName())
+                .flatMap(fileStorageService::findProductImage)
+                .map(imageName -> productServiceCommon.buildImageUrl(imageName, ImageVariant.DETAIL))
+                .orElse(null);
 
         return ProductVariationResponse.builder()
                 .id(variation.getId())
@@ -376,12 +382,19 @@ public class SellerServiceImpl implements SellerService {
     @Transactional(readOnly = true)
     public Page<ProductResponse> getAllProductsForSeller(String sellerEmail, String query,
                                                          int max, int offset, String sort, String order) {
-        Pageable pageable = productServiceCommon.buildPageable(max, offset, sort, order);
+        if (query != null && !query.isBlank()) {
+            Long sellerId = findSellerByEmail(sellerEmail).getId();
+            // Without an explicit sort, search hits keep their relevance order
+            Pageable searchPage = sort == null ? PageRequest.of(offset, max)
+                    : productServiceCommon.buildPageable(max, offset, sort, order);
+            Page<Long> hits = productSearchIndex.search(query, null, sellerId, false, searchPage);
+            return productServiceCommon.mapSearchHits(hits, productServiceCommon::toSellerDto);
+        }
+        Pageable pageable = productServiceCommon.buildPageable(max, offset, sort == null ? "id" : sort, order);
 
         Specification<Product> spec = Specification.allOf(
                 productSpecification.hasSellerEmail(sellerEmail),
-                productSpecification.isDeleted(false),
-                productSpecification.matchesQuery(query));
+                productSpecification.isDeleted(false));
 
         Page<Product> productPage = productRepository.findAll(spec, pageable);
         return productPage.map(productServiceCommon::toSellerDto);
@@ -418,11 +431,10 @@ public class SellerServiceImpl implements SellerService {
         for (ProductVariation variation : variationPage.getContent()) {
             Map<String, Object> metadataMap = objectMapper.convertValue(variation.getMetadata(), new TypeReference<>() {});
 
-            Optional<String> imageNameOpt = fileStorageService.findProductImage(variation.getPrimaryImageName());
-            String imageUrl = ServletUriComponentsBuilder.fromCurrentContextPath()
-                    .path("/uploads/products/")
-                    .path(imageNameOpt.get())
-                    .toUriString();
+            String imageUrl = Optional.ofNullable(variation.getPrimaryImageName())
+                    .flatMap(fileStorageService::findProductImage)
+                    .map(imageName -> productServiceCommon.buildImageUrl(imageName, ImageVariant.LISTING))
+                    .orElse(null);
 
             ProductVariationResponse variationDto = ProductVariationResponse.builder()
                     .id(variation.getId())
@@ -461,6 +473,7 @@ public class SellerServiceImpl implements SellerService {
         product.setIsDeleted(true);
         product.setIsActive(false);
         productRepository.save(product);
+        eventPublisher.publishEvent(new ProductChangedEvent(product.getId(), product.getCategory().getId()));
         return "product.delete.success";
     }
 
@@ -503,6 +516,7 @@ public class SellerServiceImpl implements SellerService {
             product.setIsReturnable(requestDto.getIsReturnable());
         }
         productRepository.save(product);
+        eventPublisher.publishEvent(new ProductChangedEvent(product.getId(), product.getCategory().getId()));
         return "product.update.success";
     }
 
@@ -525,22 +539,22 @@ public class SellerServiceImpl implements SellerService {
         }
 
         if (request.getQuantityAvailable() != null) {
+            inventoryService.setAvailable(variationId, request.getQuantityAvailable());
             variation.setQuantityAvailable(request.getQuantityAvailable());
         }
         if (request.getPrice() != null) {
             variation.setPrice(request.getPrice());
         }
         if (request.getIsActive() != null) {
+            if (request.getIsActive() && variation.getPrimaryImageName() == null
+                    && (primaryImage == null || primaryImage.isEmpty())) {
+                throw new IllegalArgumentException("variation.image.required");
+            }
             variation.setActive(request.getIsActive());
         }
 
         if (request.getMetadata() != null) {
-            Long categoryId = product.getCategory().getId();
-            for (Map.Entry<String, String> entry : request.getMetadata().entrySet()) {
-                if (categoryMetadataFieldValuesRepository.isValueValidForCategory(categoryId, entry.getKey(), entry.getValue()) == 0) {
-                    throw new IllegalArgumentException("metadata.value.invalid");
-                }
-            }
+            categoryMetadataSchemaCache.validate(product.getCategory().getId(), request.getMetadata());
             variation.setMetadata(objectMapper.valueToTree(request.getMetadata()));
         }
 
@@ -563,6 +577,7 @@ public class SellerServiceImpl implements SellerService {
             variation.getSecondaryImages().addAll(newImageEntities);
         }
         productVariationRepository.save(variation);
+        eventPublisher.publishEvent(new ProductChangedEvent(product.getId(), product.getCategory().getId()));
         return "product.variation.update.success";
     }
 }
\ No newline at end of file
@@ -0,0 +1,53 @@
+package com.nikhil.ecommerce_backend;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.util.function.IntFunction;
+
+/**
+ * Minimal timing harness for micro-benchmarks run as unit tests: a warm-up phase so the measured code
+ * is compiled, then the best of several timed rounds, which filters out GC pauses and scheduling noise.
+ * Every result is compared with an object the JIT cannot see through, and the outcome folded into
+ * {@link #sink}, so the measured work cannot be dropped; the comparison itself costs next to nothing.
+ */
+public final class MicroBenchmark {
+
+    private static final Logger logger = LoggerFactory.getLogger(MicroBenchmark.class);
+
+    private static final int ROUNDS = 5;
+
+    public static volatile int sink;
+
+    private static volatile Object sentinel = new Object();
+
+    private MicroBenchmark() {
+    }
+
+    /**
+     * Returns the best observed nanoseconds per operation. {@code operation} receives the iteration index.
+     */
+    public static double nanosPerOp(String name, int warmup, int iterations, IntFunction<?> operation) {
+        Object marker = sentinel;
+        int accumulator = 0;
+        for (int i = 0; i < warmup; i++) {
+            if (operation.apply(i) == marker) {
+                accumulator++;
+            }
+        }
+        long best = Long.MAX_VALUE;
+        for (int round = 0; round < ROUNDS; round++) {
+            long start = System.nanoTime();
+            for (int i = 0; i < iterations; i++) {
+                if (operation.apply(i) == marker) {
+                    accumulator++;
+                }
+            }
+            best = Math.min(best, System.nanoTime() - start);
+        }
+        sink += accumulator;
+        double nanos = (double) best / iterations;
+        logger.info("{}: {} ns/op", name, String.format("%.1f", nanos));
+        return nanos;
+    }
+}
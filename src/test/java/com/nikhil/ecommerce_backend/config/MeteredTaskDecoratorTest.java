@@ -0,0 +1,102 @@
+package com.nikhil.ecommerce_backend.config;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.scheduling.concurrent.ThreadPoolTaskExecutor;
+
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.RejectedExecutionHandler;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class MeteredTaskDecoratorTest {
+
+    private final MeterRegistry meterRegistry = new SimpleMeterRegistry();
+    private ThreadPoolTaskExecutor executor;
+
+    @AfterEach
+    void tearDown() {
+        executor.shutdown();
+    }
+
+    @Test
+    void discardedTasksLeaveTheQueuedGauge() throws InterruptedException {
+        executor = executor(new ThreadPoolExecutor.DiscardPolicy());
+        CountDownLatch started = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+        executor.execute(() -> {
+            started.countDown();
+            await(release);
+        });
+        assertTrue(started.await(5, TimeUnit.SECONDS));
+
+        AtomicInteger ran = new AtomicInteger();
+        for (int i = 0; i < 10; i++) {
+            executor.execute(ran::incrementAndGet);
+        }
+        // One task waits in the queue of capacity one, the other nine were dropped
+        assertEquals(1, queued());
+
+        release.countDown();
+        executor.getThreadPoolExecutor().shutdown();
+        assertTrue(executor.getThreadPoolExecutor().awaitTermination(5, TimeUnit.SECONDS));
+        assertEquals(1, ran.get());
+        assertEquals(0, queued());
+    }
+
+    @Test
+    void tasksRunByTheCallerAreCountedOnce() throws InterruptedException {
+        executor = executor(new ThreadPoolExecutor.CallerRunsPolicy());
+        CountDownLatch started = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+        executor.execute(() -> {
+            started.countDown();
+            await(release);
+        });
+        assertTrue(started.await(5, TimeUnit.SECONDS));
+
+        AtomicInteger ran = new AtomicInteger();
+        for (int i = 0; i < 10; i++) {
+            executor.execute(ran::incrementAndGet);
+        }
+        // Nine ran on this thread and left the gauge when they started
+        assertEquals(9, ran.get());
+        assertEquals(1, queued());
+
+        release.countDown();
+        executor.getThreadPoolExecutor().shutdown();
+        assertTrue(executor.getThreadPoolExecutor().awaitTermination(5, TimeUnit.SECONDS));
+        assertEquals(10, ran.get());
+        assertEquals(0, queued());
+    }
+
+    private ThreadPoolTaskExecutor executor(RejectedExecutionHandler policy) {
+        MeteredTaskDecorator decorator = new MeteredTaskDecorator("test", meterRegistry);
+        ThreadPoolTaskExecutor pool = new ThreadPoolTaskExecutor();
+        pool.setCorePoolSize(1);
+        pool.setMaxPoolSize(1);
+        pool.setQueueCapacity(1);
+        pool.setTaskDecorator(decorator);
+        pool.setRejectedExecutionHandler(decorator.onRejection(policy));
+        pool.initialize();
+        return pool;
+    }
+
+    private int queued() {
+        return (int) meterRegistry.get("app.executor.queued").tag("name", "test").gauge().value();
+    }
+
+    private static void await(CountDownLatch latch) {
+        try {
+            latch.await(5, TimeUnit.SECONDS);
+        } catch (InterruptedException ex) {
+            Thread.currentThread().interrupt();
+        }
+    }
+}
@@ -0,0 +1,137 @@
+package com.nikhil.ecommerce_backend.entities;
+
+import org.hibernate.resource.jdbc.spi.StatementInspector;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.jdbc.AutoConfigureTestDatabase;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import jakarta.persistence.EntityManager;
+import java.util.UUID;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Bulk insert of variations with their images under the pooled-lo {@link BaseEntity} id generator. The
+ * statement inspector counts the round trips to {@code hibernate_sequence}: with one id per call every
+ * row would cost one; with blocks of 50 a whole block of rows shares one.
+ */
+@DataJpaTest(properties = {
+        "spring.datasource.url=jdbc:h2:mem:ids;MODE=MySQL;NON_KEYWORDS=VALUE;DB_CLOSE_DELAY=-1",
+        "spring.jpa.properties.hibernate.dialect=org.hibernate.dialect.H2Dialect",
+        "spring.jpa.properties.hibernate.session_factory.statement_inspector="
+                + "com.nikhil.ecommerce_backend.entities.IdAllocationBenchmarkTest$SequenceCallCounter",
+        "spring.jpa.show-sql=false"
+})
+@AutoConfigureTestDatabase(replace = AutoConfigureTestDatabase.Replace.NONE)
+@Transactional(propagation = Propagation.NOT_SUPPORTED)
+class IdAllocationBenchmarkTest {
+
+    private static final int VARIATIONS = 2_000;
+    private static final int IMAGES_PER_VARIATION = 2;
+    private static final int ALLOCATION_SIZE = 50;
+
+    @Autowired
+    private EntityManager entityManager;
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    private TransactionTemplate transactionTemplate;
+
+    @BeforeEach
+    void setUp() {
+        transactionTemplate = new TransactionTemplate(transactionManager);
+    }
+
+    @Test
+    void bulkInsertFetchesOneIdBlockPerFiftyRows() {
+        Product product = createProduct();
+        // The first insert also fetches the generator's initial block, so it is left out of the count
+        insertVariations(product, 200);
+
+        SequenceCallCounter.CALLS.set(0);
+        insertVariations(product, VARIATIONS);
+
+        int rows = VARIATIONS * (1 + IMAGES_PER_VARIATION);
+        int sequenceCalls = SequenceCallCounter.CALLS.get();
+        assertTrue(sequenceCalls <= rows / ALLOCATION_SIZE + 1,
+                sequenceCalls + " sequence calls for " + rows + " rows");
+        assertEquals(VARIATIONS + 200L, countVariations());
+    }
+
+    private void insertVariations(Product product, int count) {
+        transactionTemplate.executeWithoutResult(status -> {
+            Product managed = entityManager.getReference(Product.class, product.getId());
+            for (int i = 0; i < count; i++) {
+                ProductVariation variation = new ProductVariation();
+                variation.setProduct(managed);
+                variation.setQuantityAvailable(10);
+                variation.setPrice(10.0);
+                variation.setActive(true);
+                for (int j = 0; j < IMAGES_PER_VARIATION; j++) {
+                    ProductImage image = new ProductImage();
+                    image.setProductVariation(variation);
+                    image.setImageName(UUID.randomUUID() + ".jpg");
+                    variation.getSecondaryImages().add(image);
+                }
+                entityManager.persist(variation);
+                if ((i + 1) % 200 == 0) {
+                    entityManager.flush();
+                    entityManager.clear();
+                    managed = entityManager.getReference(Product.class, product.getId());
+                }
+            }
+        });
+    }
+
+    private long countVariations() {
+        return entityManager.createQuery("SELECT COUNT(v) FROM ProductVariation v", Long.class).getSingleResult();
+    }
+
+    private Product createProduct() {
+        return transactionTemplate.execute(status -> {
+            String unique = UUID.randomUUID().toString();
+            Seller seller = new Seller();
+            seller.setFirstName("Bench");
+            seller.setLastName("Mark");
+            seller.setEmail(unique + "@example.com");
+            seller.setPassword("secret");
+            seller.setCompanyContact(unique);
+            seller.setCompanyName("Benchmark");
+            entityManager.persist(seller);
+
+            Category category = new Category();
+            category.setName("Category " + unique);
+            entityManager.persist(category);
+
+            Product product = new Product();
+            product.setSeller(seller);
+            product.setCategory(category);
+            product.setName("Product " + unique);
+            product.setBrand("Brand");
+            product.setIsActive(true);
+            entityManager.persist(product);
+            return product;
+        });
+    }
+
+    public static class SequenceCallCounter implements StatementInspector {
+
+        static final AtomicInteger CALLS = new AtomicInteger();
+
+        @Override
+        public String inspect(String sql) {
+            if (sql.contains("hibernate_sequence")) {
+                CALLS.incrementAndGet();
+            }
+            return sql;
+        }
+    }
+}
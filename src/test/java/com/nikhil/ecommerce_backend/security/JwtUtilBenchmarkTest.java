@@ -0,0 +1,52 @@
+package com.nikhil.ecommerce_backend.security;
+
+import com.nikhil.ecommerce_backend.MicroBenchmark;
+import io.jsonwebtoken.Jwts;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.springframework.security.core.authority.SimpleGrantedAuthority;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Compares per-request token handling before and after the single-parse {@link JwtUtil#verify} API: the
+ * old filter built a parser and verified the HMAC once in {@code extractEmail} and again in
+ * {@code validateToken}, while a hot token is now answered from the verified-claims cache. Tagged
+ * {@code benchmark}, so it only runs with {@code -Pbenchmark}.
+ */
+@Tag("benchmark")
+class JwtUtilBenchmarkTest {
+
+    private static final String SECRET = "benchmark-secret-benchmark-secret-0123456789";
+
+    private JwtUtil jwtUtil;
+    private String token;
+
+    @BeforeEach
+    void setUp() {
+        jwtUtil = new JwtUtil(SECRET, 900_000, 10_000);
+        token = jwtUtil.generateAccessToken("customer@example.com",
+                List.of(new SimpleGrantedAuthority("ROLE_CUSTOMER")));
+    }
+
+    @Test
+    void cachedVerificationSkipsTheSignatureCheck() {
+        double doubleParse = MicroBenchmark.nanosPerOp("jwt: build parser, parse twice", 200, 1_000,
+                i -> {
+                    String email = Jwts.parserBuilder().setSigningKey(jwtUtil.getKey()).build()
+                            .parseClaimsJws(token).getBody().getSubject();
+                    Jwts.parserBuilder().setSigningKey(jwtUtil.getKey()).build().parseClaimsJws(token);
+                    return email;
+                });
+        double cached = MicroBenchmark.nanosPerOp("jwt: verify (cached)", 20_000, 100_000,
+                i -> jwtUtil.verify(token));
+
+        assertEquals("customer@example.com", jwtUtil.verify(token).getEmail());
+        assertTrue(cached * 10 < doubleParse,
+                "cached verify took " + cached + " ns/op against " + doubleParse + " ns/op uncached");
+    }
+}
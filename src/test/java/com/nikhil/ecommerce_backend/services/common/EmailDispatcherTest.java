@@ -0,0 +1,214 @@
+package com.nikhil.ecommerce_backend.services.common;
+
+import com.icegreen.greenmail.junit5.GreenMailExtension;
+import com.icegreen.greenmail.util.ServerSetupTest;
+import com.nikhil.ecommerce_backend.constants.EmailOutboxStatus;
+import com.nikhil.ecommerce_backend.entities.EmailOutbox;
+import com.nikhil.ecommerce_backend.repositories.EmailOutboxRepository;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import jakarta.mail.internet.MimeMessage;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.RegisterExtension;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.jdbc.AutoConfigureTestDatabase;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.mail.MailException;
+import org.springframework.mail.SimpleMailMessage;
+import org.springframework.mail.javamail.JavaMailSenderImpl;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.io.IOException;
+import java.net.ServerSocket;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.stream.Collectors;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Drives {@link EmailDispatcher} against an in-process SMTP server and an H2 outbox: due mails go out in
+ * batches of {@code batch-size}, one send call each; a failed send is retried with a doubling backoff;
+ * a mail is parked as {@link EmailOutboxStatus#FAILED} once its attempts are used up; and a malformed
+ * recipient is parked alone instead of failing its batch.
+ */
+@DataJpaTest(properties = {
+        "spring.datasource.url=jdbc:h2:mem:outbox;MODE=MySQL;NON_KEYWORDS=VALUE;DB_CLOSE_DELAY=-1",
+        "spring.jpa.properties.hibernate.dialect=org.hibernate.dialect.H2Dialect",
+        "spring.jpa.show-sql=false"
+})
+@AutoConfigureTestDatabase(replace = AutoConfigureTestDatabase.Replace.NONE)
+@Transactional(propagation = Propagation.NOT_SUPPORTED)
+class EmailDispatcherTest {
+
+    private static final int BATCH_SIZE = 50;
+    private static final int MAX_ATTEMPTS = 3;
+    private static final long INITIAL_BACKOFF_SECONDS = 30;
+
+    @RegisterExtension
+    static final GreenMailExtension greenMail = new GreenMailExtension(ServerSetupTest.SMTP);
+
+    @Autowired
+    private EmailOutboxRepository emailOutboxRepository;
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    private CountingMailSender mailSender;
+    private EmailDispatcher dispatcher;
+
+    @BeforeEach
+    void setUp() {
+        emailOutboxRepository.deleteAll();
+        mailSender = new CountingMailSender(greenMail.getSmtp().getPort());
+        dispatcher = dispatcherFor(mailSender);
+    }
+
+    @Test
+    void sendsDueMailsInBatches() {
+        List<Long> ids = enqueue(120);
+
+        dispatcher.dispatch();
+
+        assertEquals(List.of(50, 50, 20), mailSender.batchSizes);
+        assertEquals(120, greenMail.getReceivedMessages().length);
+        for (EmailOutbox email : emailOutboxRepository.findAllById(ids)) {
+            assertEquals(EmailOutboxStatus.SENT, email.getStatus());
+            assertEquals(1, email.getAttempts());
+            assertNotNull(email.getSentAt());
+        }
+    }
+
+    @Test
+    void retriesFailedSendsWithADoublingBackoff() throws IOException {
+        EmailDispatcher unreachable = dispatcherFor(new CountingMailSender(closedPort()));
+        Long id = enqueue(1).get(0);
+
+        LocalDateTime before = LocalDateTime.now();
+        unreachable.dispatch();
+        EmailOutbox email = emailOutboxRepository.findById(id).orElseThrow();
+        assertEquals(EmailOutboxStatus.PENDING, email.getStatus());
+        assertEquals(1, email.getAttempts());
+        assertNotNull(email.getLastError());
+        assertBackoff(before, email.getNextAttemptAt(), INITIAL_BACKOFF_SECONDS);
+
+        // Not due yet, so a second drain leaves it alone
+        unreachable.dispatch();
+        assertEquals(1, emailOutboxRepository.findById(id).orElseThrow().getAttempts());
+
+        makeDue(id);
+        before = LocalDateTime.now();
+        unreachable.dispatch();
+        email = emailOutboxRepository.findById(id).orElseThrow();
+        assertEquals(2, email.getAttempts());
+        assertBackoff(before, email.getNextAttemptAt(), 2 * INITIAL_BACKOFF_SECONDS);
+
+        // Once the server is reachable again the retry goes through
+        makeDue(id);
+        dispatcher.dispatch();
+        assertEquals(EmailOutboxStatus.SENT, emailOutboxRepository.findById(id).orElseThrow().getStatus());
+        assertEquals(1, greenMail.getReceivedMessages().length);
+    }
+
+    @Test
+    void parksMailAsFailedAfterTheLastAttempt() throws IOException {
+        EmailDispatcher unreachable = dispatcherFor(new CountingMailSender(closedPort()));
+        Long id = enqueue(1).get(0);
+
+        for (int attempt = 1; attempt <= MAX_ATTEMPTS; attempt++) {
+            makeDue(id);
+            unreachable.dispatch();
+        }
+        EmailOutbox email = emailOutboxRepository.findById(id).orElseThrow();
+        assertEquals(EmailOutboxStatus.FAILED, email.getStatus());
+        assertEquals(MAX_ATTEMPTS, email.getAttempts());
+        assertNotNull(email.getLastError());
+
+        // A parked mail is never claimed again, even when the server is back
+        makeDue(id);
+        dispatcher.dispatch();
+        assertEquals(MAX_ATTEMPTS, emailOutboxRepository.findById(id).orElseThrow().getAttempts());
+        assertEquals(0, greenMail.getReceivedMessages().length);
+    }
+
+    @Test
+    void malformedRecipientDoesNotHoldBackTheBatch() throws Exception {
+        List<Long> ids = enqueue(3);
+        EmailOutbox malformed = emailOutboxRepository.findById(ids.get(1)).orElseThrow();
+        malformed.setRecipient("not an address@");
+        emailOutboxRepository.save(malformed);
+
+        dispatcher.dispatch();
+
+        List<String> recipients = new ArrayList<>();
+        for (MimeMessage message : greenMail.getReceivedMessages()) {
+            recipients.add(message.getAllRecipients()[0].toString());
+        }
+        assertEquals(List.of("customer0@example.com", "customer2@example.com"),
+                recipients.stream().sorted().collect(Collectors.toList()));
+        assertEquals(EmailOutboxStatus.FAILED, emailOutboxRepository.findById(ids.get(1)).orElseThrow().getStatus());
+    }
+
+    private EmailDispatcher dispatcherFor(JavaMailSenderImpl sender) {
+        return new EmailDispatcher(emailOutboxRepository, sender, Runnable::run, transactionManager,
+                new SimpleMeterRegistry(), BATCH_SIZE, MAX_ATTEMPTS, 300, INITIAL_BACKOFF_SECONDS, 3600, 10_000, 7);
+    }
+
+    private List<Long> enqueue(int count) {
+        List<EmailOutbox> emails = new ArrayList<>();
+        LocalDateTime now = LocalDateTime.now();
+        for (int i = 0; i < count; i++) {
+            EmailOutbox email = new EmailOutbox();
+            email.setRecipient("customer" + i + "@example.com");
+            email.setSubject("Order update " + i);
+            email.setBody("Your order " + i + " has shipped.");
+            email.setNextAttemptAt(now.minusSeconds(1));
+            email.setCreatedAt(now);
+            emails.add(email);
+        }
+        return emailOutboxRepository.saveAll(emails).stream().map(EmailOutbox::getId).collect(Collectors.toList());
+    }
+
+    private void makeDue(Long id) {
+        EmailOutbox email = emailOutboxRepository.findById(id).orElseThrow();
+        email.setNextAttemptAt(LocalDateTime.now().minusSeconds(1));
+        emailOutboxRepository.save(email);
+    }
+
+    private void assertBackoff(LocalDateTime before, LocalDateTime nextAttemptAt, long seconds) {
+        Duration delay = Duration.between(before, nextAttemptAt);
+        assertTrue(delay.compareTo(Duration.ofSeconds(seconds)) >= 0
+                        && delay.compareTo(Duration.ofSeconds(seconds + 5)) < 0,
+                "next attempt after " + delay + ", expected " + seconds + "s");
+    }
+
+    private static int closedPort() throws IOException {
+        try (ServerSocket socket = new ServerSocket(0)) {
+            return socket.getLocalPort();
+        }
+    }
+
+    /**
+     * Records the size of every batch handed to the sender; each one is sent over a single connection.
+     */
+    private static class CountingMailSender extends JavaMailSenderImpl {
+
+        private final List<Integer> batchSizes = new ArrayList<>();
+
+        CountingMailSender(int port) {
+            setHost("localhost");
+            setPort(port);
+        }
+
+        @Override
+        public void send(SimpleMailMessage... simpleMessages) throws MailException {
+            batchSizes.add(simpleMessages.length);
+            super.send(simpleMessages);
+        }
+    }
+}
@@ -0,0 +1,136 @@
+package com.nikhil.ecommerce_backend.services.common;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.cache.Cache;
+import org.springframework.cache.concurrent.ConcurrentMapCacheManager;
+import org.springframework.data.redis.connection.RedisStandaloneConfiguration;
+import org.springframework.data.redis.connection.lettuce.LettuceConnectionFactory;
+import org.springframework.data.redis.core.StringRedisTemplate;
+import org.springframework.data.redis.listener.RedisMessageListenerContainer;
+import redis.embedded.RedisServer;
+
+import java.io.IOException;
+import java.net.ServerSocket;
+import java.time.LocalDateTime;
+import java.time.temporal.ChronoUnit;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class RedisTokenBlacklistStoreTest {
+
+    private static RedisServer redisServer;
+    private static LettuceConnectionFactory connectionFactory;
+    private static RedisMessageListenerContainer listenerContainer;
+    private static StringRedisTemplate redisTemplate;
+
+    private RedisTokenBlacklistStore store;
+
+    @BeforeAll
+    static void startRedis() throws IOException {
+        int port;
+        try (ServerSocket socket = new ServerSocket(0)) {
+            port = socket.getLocalPort();
+        }
+        redisServer = new RedisServer(port);
+        redisServer.start();
+
+        connectionFactory = new LettuceConnectionFactory(new RedisStandaloneConfiguration("localhost", port));
+        connectionFactory.afterPropertiesSet();
+        connectionFactory.start();
+        redisTemplate = new StringRedisTemplate(connectionFactory);
+        listenerContainer = new RedisMessageListenerContainer();
+        listenerContainer.setConnectionFactory(connectionFactory);
+        listenerContainer.afterPropertiesSet();
+        listenerContainer.start();
+    }
+
+    @AfterAll
+    static void stopRedis() throws Exception {
+        listenerContainer.destroy();
+        connectionFactory.destroy();
+        redisServer.stop();
+    }
+
+    @BeforeEach
+    void setUp() {
+        redisTemplate.execute(connection -> {
+            connection.serverCommands().flushAll();
+            return null;
+        }, true);
+        store = new RedisTokenBlacklistStore(redisTemplate, listenerContainer);
+    }
+
+    @Test
+    void revokedTokenIsFoundUntilItExpires() {
+        LocalDateTime expiry = LocalDateTime.now().plusMinutes(5).truncatedTo(ChronoUnit.MILLIS);
+        store.revoke("sig-a", expiry);
+
+        assertEquals(expiry, store.findRevocation("sig-a").orElseThrow());
+        assertTrue(store.findRevocation("sig-b").isEmpty());
+        Long ttl = redisTemplate.getExpire("token-blacklist:sig-a", TimeUnit.SECONDS);
+        assertTrue(ttl != null && ttl > 0 && ttl <= 300);
+    }
+
+    @Test
+    void alreadyExpiredTokenIsNotStored() {
+        store.revoke("sig-old", LocalDateTime.now().minusSeconds(1));
+
+        assertTrue(store.findRevocation("sig-old").isEmpty());
+        assertFalse(redisTemplate.hasKey("token-blacklist:sig-old"));
+    }
+
+    @Test
+    void loadActiveReturnsEveryRevocationAcrossScanBatches() {
+        LocalDateTime expiry = LocalDateTime.now().plusMinutes(5).truncatedTo(ChronoUnit.MILLIS);
+        for (int i = 0; i < 1_200; i++) {
+            store.revoke("sig-" + i, expiry);
+        }
+        redisTemplate.opsForValue().set("unrelated", "1");
+
+        Map<String, LocalDateTime> active = store.loadActive();
+
+        assertEquals(1_200, active.size());
+        assertEquals(expiry, active.get("sig-599"));
+    }
+
+    @Test
+    void subscribersReceiveRevocationsPublishedByOtherNodes() throws Exception {
+        CompletableFuture<Map.Entry<String, LocalDateTime>> received = new CompletableFuture<>();
+        store.subscribe((key, expiry) -> received.complete(Map.entry(key, expiry)));
+        RedisTokenBlacklistStore otherNode = new RedisTokenBlacklistStore(redisTemplate, listenerContainer);
+        LocalDateTime expiry = LocalDateTime.now().plusMinutes(5).truncatedTo(ChronoUnit.MILLIS);
+
+        // the subscription is registered asynchronously; keep publishing until it is live
+        for (int attempt = 0; attempt < 50 && !received.isDone(); attempt++) {
+            otherNode.revoke("sig-remote", expiry);
+            Thread.sleep(100);
+        }
+
+        assertEquals(Map.entry("sig-remote", expiry), received.get(5, TimeUnit.SECONDS));
+    }
+
+    @Test
+    void cacheFallsBackToStoreWhenLocalEntryWasEvicted() {
+        ConcurrentMapCacheManager cacheManager = new ConcurrentMapCacheManager("blacklistedTokens");
+        TokenBlacklistBloomFilter bloomFilter = new TokenBlacklistBloomFilter(1_000, 0.01, new SimpleMeterRegistry());
+        TokenBlacklistCache blacklist = new TokenBlacklistCache(cacheManager, store, bloomFilter);
+        String token = "header.payload.signature";
+
+        blacklist.cacheBlacklistedToken(token, LocalDateTime.now().plusMinutes(5));
+        Cache cache = cacheManager.getCache("blacklistedTokens");
+        cache.evict(TokenBlacklistCache.tokenKey(token));
+
+        assertTrue(blacklist.isBlacklisted(token));
+        assertTrue(cache.get("signature") != null);
+        assertFalse(blacklist.isBlacklisted("header.payload.other"));
+    }
+}
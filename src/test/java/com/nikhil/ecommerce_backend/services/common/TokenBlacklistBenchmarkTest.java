@@ -0,0 +1,137 @@
+package com.nikhil.ecommerce_backend.services.common;
+
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.nikhil.ecommerce_backend.MicroBenchmark;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.cache.CacheManager;
+import org.springframework.cache.caffeine.CaffeineCacheManager;
+
+import java.lang.management.ManagementFactory;
+import java.time.LocalDateTime;
+import java.util.Base64;
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Measures the miss path of {@link TokenBlacklistCache#isBlacklisted}, which nearly every authenticated
+ * request takes, against the previous cache lookup keyed by the full token, and checks the Bloom
+ * filter's false positive rate and that its negative answer allocates nothing. The timing comparison is
+ * tagged {@code benchmark} and only runs with {@code -Pbenchmark}.
+ */
+class TokenBlacklistBenchmarkTest {
+
+    private static final Logger logger = LoggerFactory.getLogger(TokenBlacklistBenchmarkTest.class);
+
+    private static final int REVOKED = 10_000;
+    private static final int PROBES = 1 << 12;
+    private static final double FALSE_POSITIVE_RATE = 0.01;
+
+    private final Random random = new Random(42);
+    private CacheManager cacheManager;
+    private TokenBlacklistBloomFilter bloomFilter;
+    private TokenBlacklistCache blacklist;
+    private String[] revoked;
+    private String[] active;
+
+    @BeforeEach
+    void setUp() {
+        CaffeineCacheManager caffeineCacheManager = new CaffeineCacheManager("blacklistedTokens");
+        caffeineCacheManager.setCaffeine(Caffeine.newBuilder().maximumSize(REVOKED));
+        cacheManager = caffeineCacheManager;
+        bloomFilter = new TokenBlacklistBloomFilter(100_000, FALSE_POSITIVE_RATE, new SimpleMeterRegistry());
+        blacklist = new TokenBlacklistCache(cacheManager, new LocalTokenBlacklistStore(), bloomFilter);
+        blacklist.init();
+
+        revoked = new String[REVOKED];
+        for (int i = 0; i < REVOKED; i++) {
+            revoked[i] = randomToken();
+            blacklist.cacheBlacklistedToken(revoked[i], LocalDateTime.now().plusMinutes(15));
+        }
+        active = new String[PROBES];
+        for (int i = 0; i < PROBES; i++) {
+            active[i] = randomToken();
+        }
+    }
+
+    @Test
+    @Tag("benchmark")
+    void bloomFilterAnswersMissesFasterThanTheCache() {
+        // Tokens arrive as fresh strings from the header, so neither path may reuse a cached String hash
+        double cacheLookup = MicroBenchmark.nanosPerOp("blacklist: cache lookup by full token", 200_000, 1_000_000,
+                i -> cacheManager.getCache("blacklistedTokens").get(new String(active[i & (PROBES - 1)])));
+        double bloom = MicroBenchmark.nanosPerOp("blacklist: isBlacklisted (bloom)", 200_000, 1_000_000,
+                i -> blacklist.isBlacklisted(new String(active[i & (PROBES - 1)])));
+
+        assertTrue(bloom < cacheLookup, "bloom took " + bloom + " ns/op against " + cacheLookup + " ns/op");
+    }
+
+    @Test
+    void negativeLookupAllocatesNothing() {
+        com.sun.management.ThreadMXBean threads =
+                (com.sun.management.ThreadMXBean) ManagementFactory.getThreadMXBean();
+        for (int i = 0; i < 100_000; i++) {
+            bloomFilter.mightContain(active[i & (PROBES - 1)]);
+        }
+        long threadId = Thread.currentThread().threadId();
+        long before = threads.getThreadAllocatedBytes(threadId);
+        int found = 0;
+        for (int i = 0; i < 100_000; i++) {
+            if (bloomFilter.mightContain(active[i & (PROBES - 1)])) {
+                found++;
+            }
+        }
+        long allocated = threads.getThreadAllocatedBytes(threadId) - before;
+        MicroBenchmark.sink += found;
+
+        // Allows for the measuring call itself; 100k lookups allocating anything per call would be megabytes
+        assertTrue(allocated < 4_096, allocated + " bytes allocated by 100000 lookups");
+    }
+
+    @Test
+    void revokedTokensAreAlwaysFound() {
+        for (String token : revoked) {
+            assertTrue(blacklist.isBlacklisted(token));
+        }
+        for (String token : active) {
+            assertFalse(blacklist.isBlacklisted(token));
+        }
+    }
+
+    /**
+     * Fills a filter to its expected insertions, where the configured rate applies, and probes it with
+     * tokens that were never added.
+     */
+    @Test
+    void falsePositiveRateStaysNearTheConfiguredRate() {
+        TokenBlacklistBloomFilter full = new TokenBlacklistBloomFilter(REVOKED, FALSE_POSITIVE_RATE,
+                new SimpleMeterRegistry());
+        for (String token : revoked) {
+            full.put(TokenBlacklistCache.tokenKey(token));
+        }
+        int probes = 200_000;
+        int falsePositives = 0;
+        for (int i = 0; i < probes; i++) {
+            if (full.mightContain(randomToken())) {
+                falsePositives++;
+            }
+        }
+        double rate = (double) falsePositives / probes;
+        logger.info("Measured false positive rate {}, estimated {}", rate, full.estimatedFalsePositiveRate());
+        assertTrue(rate < FALSE_POSITIVE_RATE * 1.5, "false positive rate " + rate);
+    }
+
+    private String randomToken() {
+        byte[] signature = new byte[32];
+        random.nextBytes(signature);
+        return "eyJhbGciOiJIUzI1NiJ9.eyJzdWIiOiJjdXN0b21lckBleGFtcGxlLmNvbSIsInJvbGVzIjpbIlJPTEVfQ1VTVE9NRVIiXSwi"
+                + "aWF0IjoxNzYwNzQyMDAwLCJleHAiOjE3NjA3NDI5MDB9."
+                + Base64.getUrlEncoder().withoutPadding().encodeToString(signature);
+    }
+}
@@ -0,0 +1,285 @@
+package com.nikhil.ecommerce_backend.services.inventory;
+
+import com.nikhil.ecommerce_backend.constants.ReservationStatus;
+import com.nikhil.ecommerce_backend.entities.Category;
+import com.nikhil.ecommerce_backend.entities.InventoryReservation;
+import com.nikhil.ecommerce_backend.entities.Product;
+import com.nikhil.ecommerce_backend.entities.ProductVariation;
+import com.nikhil.ecommerce_backend.entities.Seller;
+import com.nikhil.ecommerce_backend.repositories.InventoryReservationRepository;
+import com.nikhil.ecommerce_backend.repositories.ProductVariationRepository;
+import jakarta.persistence.EntityManager;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.jdbc.AutoConfigureTestDatabase;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.stream.Collectors;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Hammers a single SKU from many threads and checks that every unit is accounted for: sold units plus
+ * what is left in the variation row always add up to the starting stock, on the conditional update path
+ * and on the hot SKU lease path, including leases that are retired or expire under the node.
+ */
+@DataJpaTest(properties = {
+        "spring.datasource.url=jdbc:h2:mem:inventory;MODE=MySQL;NON_KEYWORDS=VALUE;LOCK_TIMEOUT=30000;DB_CLOSE_DELAY=-1",
+        "spring.datasource.hikari.maximum-pool-size=16",
+        "spring.jpa.properties.hibernate.dialect=org.hibernate.dialect.H2Dialect",
+        "spring.jpa.show-sql=false"
+})
+@AutoConfigureTestDatabase(replace = AutoConfigureTestDatabase.Replace.NONE)
+@Transactional(propagation = Propagation.NOT_SUPPORTED)
+class InventoryConcurrencyTest {
+
+    private static final int THREADS = 32;
+    private static final int ATTEMPTS = 4_000;
+
+    @Autowired
+    private ProductVariationRepository productVariationRepository;
+    @Autowired
+    private InventoryReservationRepository inventoryReservationRepository;
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+    @Autowired
+    private EntityManager entityManager;
+
+    private TransactionTemplate transactionTemplate;
+    private ExecutorService inventoryExecutor;
+
+    @BeforeEach
+    void setUp() {
+        transactionTemplate = new TransactionTemplate(transactionManager);
+        inventoryExecutor = Executors.newSingleThreadExecutor();
+    }
+
+    @AfterEach
+    void tearDown() {
+        inventoryExecutor.shutdownNow();
+    }
+
+    @Test
+    void conditionalUpdateNeverOversells() throws Exception {
+        Long variationId = createVariation(500);
+        HotSkuInventory hot = hotSkuInventory(Integer.MAX_VALUE, 50);
+        InventoryServiceImpl inventory = inventoryService(hot);
+
+        int sold = reserveConcurrently(inventory, variationId);
+
+        assertEquals(500, sold);
+        assertEquals(0, productVariationRepository.findQuantityAvailable(variationId));
+        List<InventoryReservation> reservations = reservationsOf(variationId);
+        assertEquals(500, reservations.size());
+        assertTrue(reservations.stream().allMatch(r -> r.getLeaseId() == null && !r.isLease()));
+    }
+
+    @Test
+    void leasePathNeverOversells() throws Exception {
+        Long variationId = createVariation(1_000);
+        HotSkuInventory hot = hotSkuInventory(1, 50);
+        InventoryServiceImpl inventory = inventoryService(hot);
+
+        int sold = reserveConcurrently(inventory, variationId);
+        awaitDrain();
+        hot.shutdown();
+
+        List<InventoryReservation> rows = reservationsOf(variationId);
+        List<InventoryReservation> reservations = rows.stream().filter(r -> !r.isLease()).toList();
+        assertEquals(sold, reservations.size());
+        assertTrue(reservations.stream().anyMatch(r -> r.getLeaseId() != null), "no reservation used a lease");
+        assertEquals(1_000, sold + productVariationRepository.findQuantityAvailable(variationId));
+
+        // Every retired lease records exactly the units handed out from it
+        Map<Long, Long> servedByLease = reservations.stream()
+                .filter(r -> r.getLeaseId() != null)
+                .collect(Collectors.groupingBy(InventoryReservation::getLeaseId, Collectors.counting()));
+        for (InventoryReservation lease : rows.stream().filter(InventoryReservation::isLease).toList()) {
+            assertEquals(ReservationStatus.RELEASED, lease.getStatus());
+            assertEquals(servedByLease.getOrDefault(lease.getId(), 0L).intValue(), lease.getQuantity());
+        }
+    }
+
+    @Test
+    void retiredLeaseReturnsUnusedStock() throws Exception {
+        Long variationId = createVariation(200);
+        HotSkuInventory hot = hotSkuInventory(1, 50);
+        InventoryServiceImpl inventory = inventoryService(hot);
+        Long leaseId = warmLease(inventory, variationId);
+        for (int i = 0; i < 4; i++) {
+            reserve(inventory, variationId);
+        }
+
+        hot.flush();  // still hot: renewed
+        hot.flush();  // no demand since the last flush: retired
+        awaitDrain();
+
+        InventoryReservation lease = inventoryReservationRepository.findById(leaseId).orElseThrow();
+        assertEquals(ReservationStatus.RELEASED, lease.getStatus());
+        assertEquals(5, lease.getQuantity());
+        // one unit went through the conditional update before the lease existed
+        assertEquals(194, productVariationRepository.findQuantityAvailable(variationId));
+
+        // A rollback that arrives after the lease is gone goes back to the row
+        hot.giveBack(variationId, leaseId, 2);
+        awaitDrain();
+        assertEquals(196, productVariationRepository.findQuantityAvailable(variationId));
+    }
+
+    @Test
+    void expiredLeaseIsReclaimedOnceAndDropped() throws Exception {
+        Long variationId = createVariation(200);
+        HotSkuInventory hot = hotSkuInventory(1, 50);
+        InventoryServiceImpl inventory = inventoryService(hot);
+        Long leaseId = warmLease(inventory, variationId);
+        reserve(inventory, variationId);
+
+        // The node stops renewing; the expiry job reclaims what the reservation rows do not account for
+        transactionTemplate.executeWithoutResult(status -> entityManager
+                .createQuery("UPDATE InventoryReservation r SET r.expiresAt = :past WHERE r.id = :id")
+                .setParameter("past", LocalDateTime.now().minusMinutes(1))
+                .setParameter("id", leaseId)
+                .executeUpdate());
+        inventory.expireReservations();
+        assertEquals(197, productVariationRepository.findQuantityAvailable(variationId));
+
+        // The next flush notices and stops serving the dead lease instead of selling its units twice
+        hot.flush();
+        Long next = reserve(inventory, variationId);
+        assertNotNull(next);
+        InventoryReservation reservation = inventoryReservationRepository.findById(next).orElseThrow();
+        assertFalse(leaseId.equals(reservation.getLeaseId()));
+
+        awaitDrain();
+        hot.shutdown();
+        long sold = reservationsOf(variationId).stream().filter(r -> !r.isLease()).count();
+        assertEquals(200, sold + productVariationRepository.findQuantityAvailable(variationId));
+    }
+
+    private int reserveConcurrently(InventoryServiceImpl inventory, Long variationId) throws Exception {
+        ExecutorService buyers = Executors.newFixedThreadPool(THREADS);
+        CountDownLatch start = new CountDownLatch(1);
+        AtomicInteger sold = new AtomicInteger();
+        AtomicInteger remaining = new AtomicInteger(ATTEMPTS);
+        List<Future<?>> futures = new ArrayList<>();
+        for (int t = 0; t < THREADS; t++) {
+            futures.add(buyers.submit(() -> {
+                start.await();
+                while (remaining.getAndDecrement() > 0) {
+                    if (reserve(inventory, variationId) != null) {
+                        sold.incrementAndGet();
+                    }
+                }
+                return null;
+            }));
+        }
+        start.countDown();
+        for (Future<?> future : futures) {
+            future.get(2, TimeUnit.MINUTES);
+        }
+        buyers.shutdown();
+        return sold.get();
+    }
+
+    /**
+     * Reserves one unit the way checkout does, inside the caller's transaction. Returns {@code null} when
+     * the SKU is out of stock.
+     */
+    private Long reserve(InventoryServiceImpl inventory, Long variationId) {
+        try {
+            return transactionTemplate.execute(status -> inventory.reserve(variationId, 1));
+        } catch (IllegalArgumentException e) {
+            assertEquals("inventory.insufficient", e.getMessage());
+            return null;
+        }
+    }
+
+    /**
+     * The first hot reservation only queues a refill; once it has run the next one is served from the lease.
+     */
+    private Long warmLease(InventoryServiceImpl inventory, Long variationId) throws Exception {
+        Long first = reserve(inventory, variationId);
+        assertNull(inventoryReservationRepository.findById(first).orElseThrow().getLeaseId());
+        awaitDrain();
+        Long second = reserve(inventory, variationId);
+        Long leaseId = inventoryReservationRepository.findById(second).orElseThrow().getLeaseId();
+        assertNotNull(leaseId);
+        return leaseId;
+    }
+
+    private void awaitDrain() throws Exception {
+        inventoryExecutor.submit(() -> { }).get(30, TimeUnit.SECONDS);
+    }
+
+    private HotSkuInventory hotSkuInventory(int threshold, int leaseSize) {
+        return new HotSkuInventory(productVariationRepository, inventoryReservationRepository, inventoryExecutor,
+                event -> { }, transactionManager, threshold, leaseSize, 8, 60);
+    }
+
+    private InventoryServiceImpl inventoryService(HotSkuInventory hot) {
+        return new InventoryServiceImpl(productVariationRepository, inventoryReservationRepository, hot,
+                event -> { }, transactionManager, 15);
+    }
+
+    private List<InventoryReservation> reservationsOf(Long variationId) {
+        return entityManager.createQuery(
+                        "SELECT r FROM InventoryReservation r WHERE r.productVariation.id = :id", InventoryReservation.class)
+                .setParameter("id", variationId)
+                .getResultList();
+    }
+
+    private Long createVariation(int stock) {
+        return transactionTemplate.execute(status -> {
+            String unique = UUID.randomUUID().toString();
+            Seller seller = new Seller();
+            seller.setFirstName("Load");
+            seller.setLastName("Test");
+            seller.setEmail(unique + "@example.com");
+            seller.setPassword("secret");
+            seller.setCompanyContact(unique);
+            seller.setCompanyName("Load Test");
+            entityManager.persist(seller);
+
+            Category category = new Category();
+            category.setName("Category " + unique);
+            entityManager.persist(category);
+
+            Product product = new Product();
+            product.setSeller(seller);
+            product.setCategory(category);
+            product.setName("Product " + unique);
+            product.setBrand("Brand");
+            product.setIsActive(true);
+            entityManager.persist(product);
+
+            ProductVariation variation = new ProductVariation();
+            variation.setProduct(product);
+            variation.setQuantityAvailable(stock);
+            variation.setPrice(10.0);
+            variation.setActive(true);
+            entityManager.persist(variation);
+            return variation.getId();
+        });
+    }
+}